@@ -0,0 +1,65 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.model.User;
+import com.hackerrank.sample.repository.BlacklistedTokenRepository;
+import com.hackerrank.sample.repository.UserRepository;
+import com.hackerrank.sample.security.AuthTokenFilter;
+import com.hackerrank.sample.security.CustomUserDetailsService;
+import com.hackerrank.sample.security.JwtUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full AuthTokenFilter path for an authenticated request: JWT parsing and
+ * validation, blacklist lookup and user details loading (repositories are
+ * in-memory stubs).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthTokenFilterBenchmark {
+
+    private AuthTokenFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtUtils jwtUtils = JwtBenchmark.jwtUtils();
+        authorization = "Bearer " + JwtBenchmark.token(jwtUtils);
+
+        User user = User.builder().id(1L).username("seller").password("secret").role("ROLE_SELLER").build();
+        UserRepository userRepository = BenchmarkFixtures.stub(UserRepository.class,
+                Map.of("findByUsername", args -> Optional.of(user)));
+        BlacklistedTokenRepository blacklistedTokenRepository = BenchmarkFixtures
+                .stub(BlacklistedTokenRepository.class, Map.of("existsByToken", args -> Boolean.FALSE));
+
+        filter = new AuthTokenFilter(jwtUtils, new CustomUserDetailsService(userRepository),
+                blacklistedTokenRepository);
+    }
+
+    @Benchmark
+    public int authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return response.getStatus();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.cache.CategoryTree;
+import com.hackerrank.sample.cache.SellerCache;
+import com.hackerrank.sample.mapper.CategoryMapper;
+import com.hackerrank.sample.mapper.ProductMapper;
+import com.hackerrank.sample.mapper.QuestionMapper;
+import com.hackerrank.sample.mapper.ReviewMapper;
+import com.hackerrank.sample.mapper.SellerMapper;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.model.ProductAttribute;
+import com.hackerrank.sample.model.ProductImage;
+import com.hackerrank.sample.model.Question;
+import com.hackerrank.sample.model.Review;
+import com.hackerrank.sample.model.Seller;
+import com.hackerrank.sample.repository.CategoryRepository;
+import com.hackerrank.sample.repository.QuestionRepository;
+import com.hackerrank.sample.repository.ReviewRepository;
+import com.hackerrank.sample.repository.SellerRepository;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Synthetic object graphs and in-memory repository stubs shared by the
+ * benchmarks. Repositories answer from memory so benchmarks measure mapping
+ * and serialization cost, not the database.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Builds a product with {@code size} images and attributes, and up to
+     * {@code size} reviews and questions.
+     */
+    static Product product(long id, int size) {
+        Seller seller = Seller.builder().id(1L).name("TechStore Premium").reputation(95).totalSales(15420)
+                .yearsActive(5).responseTime("2 horas").build();
+        Product product = Product.builder().id(id).title("Synthetic product " + id)
+                .price(new BigDecimal("1299.99")).originalPrice(new BigDecimal("1499.99")).currency("USD")
+                .availableQuantity(50).soldQuantity(1250).condition("new")
+                .description("Synthetic description for benchmark product " + id).warranty("1 year")
+                .seller(seller).createdAt(LocalDateTime.now()).build();
+        for (int i = 0; i < size; i++) {
+            product.addImage(new ProductImage("https://images.example.com/" + id + "/" + i + ".jpg", i == 0));
+            product.addAttribute(new ProductAttribute("Attribute " + i, "Value " + i));
+            product.addReview(Review.builder().id((long) i).rating(1 + i % 5).comment("Review comment " + i)
+                    .userName("user" + i).createdAt(LocalDateTime.now().minusMinutes(i)).build());
+            product.addQuestion(Question.builder().id((long) i).question("Question " + i + "?")
+                    .answer("Answer " + i).userName("user" + i).createdAt(LocalDateTime.now().minusMinutes(i))
+                    .build());
+        }
+        return product;
+    }
+
+    static ProductMapper productMapper(Product product) {
+        List<ReviewRepository.RatingCount> histogram = new ArrayList<>();
+        for (int rating = 1; rating <= 5; rating++) {
+            int stars = rating;
+            long total = product.getReviews().stream().filter(r -> r.getRating() == stars).count();
+            histogram.add(new ReviewRepository.RatingCount() {
+                @Override
+                public Integer getRating() {
+                    return stars;
+                }
+
+                @Override
+                public Long getTotal() {
+                    return total;
+                }
+            });
+        }
+        List<Review> recentReviews = product.getReviews().stream().limit(5).toList();
+        List<Question> recentQuestions = product.getQuestions().stream().limit(10).toList();
+
+        ReviewRepository reviewRepository = stub(ReviewRepository.class,
+                Map.of("findAverageRatingByProductId", args -> 4.5, "countRatingsByProductId", args -> histogram,
+                        "findTop5ByProductIdOrderByCreatedAtDesc", args -> recentReviews));
+        QuestionRepository questionRepository = stub(QuestionRepository.class,
+                Map.of("findTop10ByProductIdOrderByCreatedAtDesc", args -> recentQuestions));
+        SellerRepository sellerRepository = stub(SellerRepository.class,
+                Map.of("findById", args -> Optional.of(product.getSeller())));
+
+        SellerCache sellerCache = new SellerCache(sellerRepository, new SellerMapper());
+        sellerCache.put(product.getSeller());
+        CategoryMapper categoryMapper = new CategoryMapper(
+                new CategoryTree(stub(CategoryRepository.class, Map.of())));
+        return new ProductMapper(reviewRepository, questionRepository, new ReviewMapper(), new QuestionMapper(),
+                sellerCache, categoryMapper);
+    }
+
+    /**
+     * Creates an interface stub that answers the given methods and throws for
+     * anything else.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        });
+    }
+}
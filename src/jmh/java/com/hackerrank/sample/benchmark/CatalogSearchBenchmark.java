@@ -0,0 +1,96 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.search.CatalogDocument;
+import com.hackerrank.sample.search.CatalogIndex;
+import com.hackerrank.sample.search.SearchProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BM25 search over a catalog shaped like the synthetic {@code scale} catalog
+ * (brand, type, variant and color titles; color, brand, weight and model
+ * attributes). Sample-time mode reports the latency percentiles of one query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class CatalogSearchBenchmark {
+
+    private static final String[] BRANDS = { "Samsung", "Apple", "Sony", "Xiaomi", "Motorola", "LG", "Lenovo",
+            "Philips", "JBL", "Logitech", "HP", "Asus", "Nikon", "Canon", "Bose", "Huawei" };
+    private static final String[] PRODUCT_TYPES = { "Celular", "Notebook", "Auriculares Inalámbricos", "Televisor",
+            "Parlante Bluetooth", "Tablet", "Cámara Réflex", "Smartwatch", "Monitor", "Teclado Mecánico", "Mouse",
+            "Consola", "Cafetera Eléctrica", "Aspiradora Robot", "Impresora", "Router WiFi" };
+    private static final String[] VARIANTS = { "Pro", "Max", "Lite", "Plus", "Ultra", "Mini", "Edición Especial",
+            "2da Generación", "Básico", "Gamer" };
+    private static final String[] COLORS = { "Negro", "Blanco", "Gris", "Azul", "Rojo", "Plateado", "Dorado",
+            "Verde" };
+
+    private static final String[] CONDITIONS = { "new", "new", "new", "used", "refurbished" };
+
+    @Param({ "1000000" })
+    private int products;
+
+    @Param({ "samsung celular", "auriculares inalambricos sony negro", "camara", "descripcion" })
+    private String query;
+
+    private CatalogIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new CatalogIndex(new SearchProperties());
+        Random random = new Random(42);
+        List<CatalogDocument> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= products; id++) {
+            batch.add(document(id, random));
+            if (batch.size() == 10_000) {
+                index.putAll(batch);
+                batch.clear();
+            }
+        }
+        index.putAll(batch);
+    }
+
+    @Benchmark
+    public CatalogIndex.SearchResult search() {
+        return index.search(query, 0, 20);
+    }
+
+    /** Product with the synthetic catalog's attributes: color, brand, weight and model. */
+    static CatalogDocument document(long id, Random random) {
+        String title = title(id, random);
+        List<CatalogDocument.Attribute> attributes = List.of(
+                new CatalogDocument.Attribute("Color", pick(COLORS, random)),
+                new CatalogDocument.Attribute("Marca", pick(BRANDS, random)),
+                new CatalogDocument.Attribute("Peso", (100 + random.nextInt(3_000)) + " g"),
+                new CatalogDocument.Attribute("Modelo", "M-" + random.nextInt(10_000)));
+        return new CatalogDocument(id, title, "Descripción de " + title + ".", attributes,
+                BigDecimal.valueOf(5 + random.nextInt(2_500)), "USD", null, pick(CONDITIONS, random),
+                random.nextInt(500), random.nextInt(10_000), 1 + id % 1_000);
+    }
+
+    /** Title shaped like the synthetic catalog's: brand, type, variant, color and a unique suffix. */
+    static String title(long id, Random random) {
+        return pick(BRANDS, random) + " " + pick(PRODUCT_TYPES, random) + " " + pick(VARIANTS, random) + " "
+                + pick(COLORS, random) + " #" + id;
+    }
+
+    static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,81 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.search.CatalogDocument;
+import com.hackerrank.sample.search.DuplicateDetector;
+import com.hackerrank.sample.search.SearchProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The duplicate check run on every product creation, over
+ * {@link CatalogSearchBenchmark}'s catalog of 1,000 sellers. Each call
+ * fingerprints a new title and description and looks it up among the
+ * seller's listings; half of the calls repost an existing listing. Prints
+ * the number of duplicate clusters and the time to find them for every
+ * seller once built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DuplicateDetectorBenchmark {
+
+    @Param({ "1000000" })
+    private int products;
+
+    private DuplicateDetector detector;
+    private Random random;
+    private List<CatalogDocument> reposts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        detector = new DuplicateDetector(new SearchProperties());
+        random = new Random(42);
+        reposts = new ArrayList<>();
+        List<CatalogDocument> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= products; id++) {
+            CatalogDocument document = CatalogSearchBenchmark.document(id, random);
+            batch.add(document);
+            if (reposts.size() < 10_000 && id % 97 == 0) {
+                reposts.add(document);
+            }
+            if (batch.size() == 10_000) {
+                detector.putAll(batch);
+                batch.clear();
+            }
+        }
+        detector.putAll(batch);
+        long start = System.nanoTime();
+        int clusters = 0;
+        for (long sellerId = 1; sellerId <= 1_000; sellerId++) {
+            clusters += detector.clusters(sellerId).size();
+        }
+        System.out.printf("%n%d products, %d duplicate clusters found in %d ms%n", detector.size(), clusters,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Benchmark
+    public List<DuplicateDetector.Duplicate> find() {
+        next++;
+        if ((next & 1) == 0) {
+            CatalogDocument repost = reposts.get(next / 2 % reposts.size());
+            return detector.find(repost.title(), repost.description(), repost.sellerId(), 1);
+        }
+        String title = CatalogSearchBenchmark.title(products + next, random);
+        return detector.find(title, "Descripción de " + title + ".", 1 + next % 1_000, 1);
+    }
+}
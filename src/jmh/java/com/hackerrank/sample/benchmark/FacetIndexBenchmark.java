@@ -0,0 +1,73 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.search.CatalogDocument;
+import com.hackerrank.sample.search.FacetIndex;
+import com.hackerrank.sample.search.SearchProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Facet filtering over {@link CatalogSearchBenchmark}'s catalog: no filter
+ * (every product counted), one broad attribute, and a narrow combination of
+ * condition, two colors and a brand. Each call intersects the bitmaps, counts
+ * the condition, currency, color and brand facets and reads a page of ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FacetIndexBenchmark {
+
+    private static final Map<String, Map<String, List<String>>> ATTRIBUTE_FILTERS = Map.of(
+            "none", Map.of(),
+            "color", Map.of("Color", List.of("Negro")),
+            "narrow", Map.of("Color", List.of("Rojo", "Azul"), "Marca", List.of("Sony")));
+
+    @Param({ "1000000" })
+    private int products;
+
+    @Param({ "none", "color", "narrow" })
+    private String filter;
+
+    private FacetIndex index;
+    private List<String> conditions;
+    private Map<String, List<String>> attributes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new FacetIndex(new SearchProperties());
+        Random random = new Random(42);
+        List<CatalogDocument> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= products; id++) {
+            batch.add(CatalogSearchBenchmark.document(id, random));
+            if (batch.size() == 10_000) {
+                index.putAll(batch);
+                batch.clear();
+            }
+        }
+        index.putAll(batch);
+        index.optimize();
+        conditions = filter.equals("narrow") ? List.of("used") : List.of();
+        attributes = ATTRIBUTE_FILTERS.get(filter);
+        System.out.printf("%n%d values, %d KB of bitmaps and columns%n", index.valueCount(), index.sizeInBytes() >> 10);
+    }
+
+    @Benchmark
+    public FacetIndex.FacetResult filter() {
+        return index.filter(conditions, List.of(), attributes, 0, 20);
+    }
+}
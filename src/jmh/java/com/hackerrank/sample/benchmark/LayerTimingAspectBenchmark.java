@@ -0,0 +1,77 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.dto.ReviewDTO;
+import com.hackerrank.sample.mapper.ReviewMapper;
+import com.hackerrank.sample.model.Review;
+import com.hackerrank.sample.observability.LayerTimingAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of LayerTimingAspect on a cheap mapper call: the same ReviewMapper
+ * called directly, through a plain Spring proxy and through a proxy with the
+ * aspect recording into a histogram-enabled timer, as in production.
+ * <p>
+ * Budget: {@code timed - proxied} must stay below 1 µs per intercepted call. A
+ * request crosses about ten intercepted calls, so the instrumentation stays
+ * under 1% of a millisecond-scale request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LayerTimingAspectBenchmark {
+
+    private Review review;
+    private ReviewMapper direct;
+    private ReviewMapper proxied;
+    private ReviewMapper timed;
+
+    @Setup
+    public void setUp() {
+        review = BenchmarkFixtures.product(1L, 1).getReviews().get(0);
+        direct = new ReviewMapper();
+
+        AspectJProxyFactory plain = new AspectJProxyFactory(new ReviewMapper());
+        plain.setProxyTargetClass(true);
+        proxied = plain.getProxy();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+        AspectJProxyFactory instrumented = new AspectJProxyFactory(new ReviewMapper());
+        instrumented.setProxyTargetClass(true);
+        instrumented.addAspect(new LayerTimingAspect(meterRegistry));
+        timed = instrumented.getProxy();
+    }
+
+    @Benchmark
+    public ReviewDTO direct() {
+        return direct.toDTO(review);
+    }
+
+    @Benchmark
+    public ReviewDTO proxied() {
+        return proxied.toDTO(review);
+    }
+
+    @Benchmark
+    public ReviewDTO timed() {
+        return timed.toDTO(review);
+    }
+}
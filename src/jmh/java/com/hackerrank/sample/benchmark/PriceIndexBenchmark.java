@@ -0,0 +1,78 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.search.CatalogDocument;
+import com.hackerrank.sample.search.FacetIndex;
+import com.hackerrank.sample.search.PriceIndex;
+import com.hackerrank.sample.search.SearchProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The filter endpoint's price paths over {@link CatalogSearchBenchmark}'s
+ * catalog, as {@code SearchService} runs them: the most expensive products
+ * overall, a narrow price range cheapest first, and one color most expensive
+ * first. Each call also counts the facets of every match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PriceIndexBenchmark {
+
+    @Param({ "1000000" })
+    private int products;
+
+    @Param({ "top", "range", "color" })
+    private String query;
+
+    private FacetIndex facets;
+    private PriceIndex prices;
+    private Map<String, List<String>> attributes;
+    private boolean descending;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SearchProperties properties = new SearchProperties();
+        facets = new FacetIndex(properties);
+        prices = new PriceIndex(properties);
+        Random random = new Random(42);
+        List<CatalogDocument> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= products; id++) {
+            batch.add(CatalogSearchBenchmark.document(id, random));
+            if (batch.size() == 10_000) {
+                facets.putAll(batch);
+                prices.putAll(batch);
+                batch.clear();
+            }
+        }
+        facets.putAll(batch);
+        prices.putAll(batch);
+        facets.optimize();
+        attributes = query.equals("color") ? Map.of("Color", List.of("Negro")) : Map.of();
+        descending = !query.equals("range");
+    }
+
+    @Benchmark
+    public FacetIndex.FacetResult filter() {
+        RoaringBitmap priced = query.equals("range") ? prices.between(new BigDecimal("100"), new BigDecimal("110"))
+                : prices.size() < facets.size() ? prices.priced() : null;
+        return facets.filter(List.of(), List.of(), attributes, priced,
+                matches -> prices.sorted(matches, descending, 0, 20));
+    }
+}
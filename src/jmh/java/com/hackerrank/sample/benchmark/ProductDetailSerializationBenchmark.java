@@ -0,0 +1,46 @@
+package com.hackerrank.sample.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hackerrank.sample.dto.ProductDetailDTO;
+import com.hackerrank.sample.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of ProductDetailDTO, configured like the
+ * application's ObjectMapper (ISO dates, JavaTimeModule).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductDetailSerializationBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int graphSize;
+
+    private ObjectMapper objectMapper;
+    private ProductDetailDTO detail;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Product product = BenchmarkFixtures.product(1L, graphSize);
+        detail = BenchmarkFixtures.productMapper(product).toDetailDTO(product);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(detail);
+    }
+}
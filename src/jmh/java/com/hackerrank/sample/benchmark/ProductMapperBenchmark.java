@@ -0,0 +1,47 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.dto.ProductDetailDTO;
+import com.hackerrank.sample.dto.ProductSummaryDTO;
+import com.hackerrank.sample.mapper.ProductMapper;
+import com.hackerrank.sample.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductMapper on synthetic product graphs of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductMapperBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int graphSize;
+
+    private Product product;
+    private ProductMapper productMapper;
+
+    @Setup
+    public void setUp() {
+        product = BenchmarkFixtures.product(1L, graphSize);
+        productMapper = BenchmarkFixtures.productMapper(product);
+    }
+
+    @Benchmark
+    public ProductSummaryDTO toSummaryDTO() {
+        return productMapper.toSummaryDTO(product);
+    }
+
+    @Benchmark
+    public ProductDetailDTO toDetailDTO() {
+        return productMapper.toDetailDTO(product);
+    }
+}
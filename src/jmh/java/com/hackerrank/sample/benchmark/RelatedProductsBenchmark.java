@@ -0,0 +1,70 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.search.CatalogDocument;
+import com.hackerrank.sample.search.RelatedProducts;
+import com.hackerrank.sample.search.SearchProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Related products over {@link CatalogSearchBenchmark}'s catalog, whose
+ * titles repeat a few brands, types, variants and colors, so LSH bands are
+ * crowded. Each call looks up the next product, scores up to
+ * related-max-candidates of them and keeps the best ten. A second benchmark
+ * re-indexes a product, as an update does. Prints the index size once built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RelatedProductsBenchmark {
+
+    @Param({ "1000000" })
+    private int products;
+
+    private RelatedProducts related;
+    private Random random;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        related = new RelatedProducts(new SearchProperties());
+        random = new Random(42);
+        List<CatalogDocument> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= products; id++) {
+            batch.add(CatalogSearchBenchmark.document(id, random));
+            if (batch.size() == 10_000) {
+                related.putAll(batch);
+                batch.clear();
+            }
+        }
+        related.putAll(batch);
+        System.out.printf("%n%d products, %d MB of signatures and bands%n", related.size(),
+                related.sizeInBytes() >> 20);
+    }
+
+    @Benchmark
+    public List<RelatedProducts.Related> related() {
+        next = next % products + 1;
+        return related.related(next, 10);
+    }
+
+    @Benchmark
+    public void update() {
+        next = next % products + 1;
+        related.put(CatalogSearchBenchmark.document(next, random));
+    }
+}
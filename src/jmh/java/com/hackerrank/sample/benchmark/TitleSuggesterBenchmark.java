@@ -0,0 +1,64 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.search.CatalogDocument;
+import com.hackerrank.sample.search.SearchProperties;
+import com.hackerrank.sample.search.TitleSuggester;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title suggestions over the titles of {@link CatalogSearchBenchmark}'s
+ * catalog: exact prefixes of growing length and prefixes with one or two
+ * typos, which fall back to the fuzzy walk. Prints the estimated trie size
+ * once built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TitleSuggesterBenchmark {
+
+    @Param({ "1000000" })
+    private int products;
+
+    @Param({ "s", "samsung cel", "samsung celular pro negro #12", "smasung", "samsugn celulra" })
+    private String prefix;
+
+    private TitleSuggester suggester;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        suggester = new TitleSuggester(new SearchProperties());
+        Random random = new Random(42);
+        List<CatalogDocument> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= products; id++) {
+            batch.add(new CatalogDocument(id, CatalogSearchBenchmark.title(id, random), null, List.of(), null, null,
+                    null, null, 0, random.nextInt(10_000), null));
+            if (batch.size() == 10_000) {
+                suggester.putAll(batch);
+                batch.clear();
+            }
+        }
+        suggester.putAll(batch);
+        System.out.printf("%n%d titles, %d nodes, ~%d MB%n", suggester.keyCount(), suggester.nodeCount(),
+                suggester.estimatedBytes() >> 20);
+    }
+
+    @Benchmark
+    public List<TitleSuggester.Suggestion> suggest() {
+        return suggester.suggest(prefix, 10);
+    }
+}
@@ -0,0 +1,72 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.search.SearchProperties;
+import com.hackerrank.sample.search.TrendingProducts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording a product view and reading the trending products, with views
+ * skewed over a million products (log-uniform ids: a few products get most
+ * of the traffic, as on a real home page). The sketches are warmed with ten
+ * million views before measuring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TrendingProductsBenchmark {
+
+    private static final int VIEWS = 1 << 20;
+
+    @Param({ "1000000" })
+    private int products;
+
+    @Param({ "1h", "24h" })
+    private String window;
+
+    private TrendingProducts trending;
+    private TrendingProducts.Window range;
+    private long[] views;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        trending = new TrendingProducts(new SearchProperties(), new SimpleMeterRegistry());
+        range = TrendingProducts.Window.of(window);
+        Random random = new Random(42);
+        views = new long[VIEWS];
+        for (int i = 0; i < VIEWS; i++) {
+            views[i] = (long) Math.pow(products, random.nextDouble());
+        }
+        for (int i = 0; i < 10_000_000; i++) {
+            trending.recordView(views[i & (VIEWS - 1)]);
+        }
+        System.out.printf("%n%d KB of counters%n", trending.sizeInBytes() >> 10);
+    }
+
+    @Benchmark
+    public long recordView() {
+        long productId = views[next++ & (VIEWS - 1)];
+        trending.recordView(productId);
+        return productId;
+    }
+
+    @Benchmark
+    public List<TrendingProducts.Trend> top() {
+        return trending.top(range, 20);
+    }
+}
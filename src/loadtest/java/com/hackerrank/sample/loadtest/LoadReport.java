@@ -0,0 +1,140 @@
+package com.hackerrank.sample.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-endpoint throughput and latency percentiles of a measured run, printed as
+ * a table and written as JSON.
+ */
+class LoadReport {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private final Map<String, Object> summary = new LinkedHashMap<>();
+    private final List<Map<String, Object>> endpoints = new ArrayList<>();
+
+    LoadReport(LoadTestSettings settings, Collection<EndpointStats> stats, Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (EndpointStats endpointStats : stats) {
+            Histogram latency = endpointStats.getLatency();
+            if (latency.getTotalCount() == 0 && endpointStats.getErrors() == 0) {
+                // not part of the mix (e.g. writes in the read-only mix)
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpointStats.getEndpoint());
+            row.put("requests", latency.getTotalCount());
+            row.put("errors", endpointStats.getErrors());
+            row.put("throughput", round(latency.getTotalCount() / seconds));
+            Map<String, Object> latencyMs = new LinkedHashMap<>();
+            for (double percentile : PERCENTILES) {
+                latencyMs.put("p" + format(percentile), millis(latency.getValueAtPercentile(percentile)));
+            }
+            latencyMs.put("max", millis(latency.getMaxValue()));
+            row.put("latencyMs", latencyMs);
+            endpoints.add(row);
+            totalRequests += latency.getTotalCount();
+            totalErrors += endpointStats.getErrors();
+        }
+        summary.put("users", settings.users());
+        summary.put("durationSeconds", round(seconds));
+        summary.put("requests", totalRequests);
+        summary.put("errors", totalErrors);
+        summary.put("throughput", round(totalRequests / seconds));
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n%-48s %9s %7s %9s %9s %9s %9s %9s %9s%n", "Endpoint", "Requests", "Errors", "Req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map<String, Object> row : endpoints) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> latency = (Map<String, Object>) row.get("latencyMs");
+            out.printf("%-48s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", row.get("endpoint"), row.get("requests"),
+                    row.get("errors"), row.get("throughput"), latency.get("p50"), latency.get("p90"),
+                    latency.get("p99"), latency.get("p99.9"), latency.get("max"));
+        }
+        out.printf("%nTotal: %d requests, %d errors, %.1f req/s with %d users over %.1f s%n", summary.get("requests"),
+                summary.get("errors"), summary.get("throughput"), summary.get("users"), summary.get("durationSeconds"));
+    }
+
+    void write(Path file, ObjectMapper objectMapper) throws IOException {
+        writeDocument(file, objectMapper, toDocument());
+    }
+
+    /** Writes several runs of the same mix, keyed by run name. */
+    static void write(Path file, ObjectMapper objectMapper, Map<String, LoadReport> reports) throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>();
+        reports.forEach((name, report) -> document.put(name, report.toDocument()));
+        writeDocument(file, objectMapper, document);
+    }
+
+    /** Throughput and p50/p99 of each endpoint across runs, one column pair per run. */
+    static void printComparison(PrintStream out, Map<String, LoadReport> reports) {
+        out.printf("%n%-48s", "Endpoint");
+        reports.keySet().forEach(name -> out.printf(" %27s", name + " req/s p50 p99"));
+        out.println();
+        LoadReport first = reports.values().iterator().next();
+        for (Map<String, Object> row : first.endpoints) {
+            out.printf("%-48s", row.get("endpoint"));
+            for (LoadReport report : reports.values()) {
+                Map<String, Object> other = report.endpoint((String) row.get("endpoint"));
+                if (other == null) {
+                    out.printf(" %27s", "-");
+                    continue;
+                }
+                @SuppressWarnings("unchecked")
+                Map<String, Object> latency = (Map<String, Object>) other.get("latencyMs");
+                out.printf(" %9.1f %8.2f %8.2f", other.get("throughput"), latency.get("p50"), latency.get("p99"));
+            }
+            out.println();
+        }
+        out.printf("%-48s", "Total req/s");
+        reports.values().forEach(report -> out.printf(" %9.1f %17s", report.summary.get("throughput"), ""));
+        out.println();
+    }
+
+    private Map<String, Object> endpoint(String endpoint) {
+        return endpoints.stream().filter(row -> endpoint.equals(row.get("endpoint"))).findFirst().orElse(null);
+    }
+
+    private Map<String, Object> toDocument() {
+        Map<String, Object> document = new LinkedHashMap<>(summary);
+        document.put("endpoints", endpoints);
+        return document;
+    }
+
+    private static void writeDocument(Path file, ObjectMapper objectMapper, Map<String, Object> document)
+            throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), document);
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,131 @@
+package com.hackerrank.sample.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackerrank.sample.Application;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * End-to-end load test: boots the application on a random port, logs in as the
+ * seeded seller and buyer and drives the {@link Operation} mix from
+ * {@code users} concurrent virtual threads (closed model, no think time).
+ * <p>
+ * Run with {@code mvn -Ploadtest -DskipTests verify}. The warm-up phase is
+ * discarded; the measured phase is reported per endpoint on stdout and in
+ * {@code target/loadtest-result.json}. With {@code -Dloadtest.compareThreads=true}
+ * the same run is repeated on platform and on virtual request threads and the
+ * two are compared side by side.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        // System properties override application.properties; loadtest.appArgs still override these
+        System.setProperty("server.port", "0");
+        System.setProperty("spring.main.banner-mode", "off");
+        System.setProperty("logging.level.com.hackerrank.sample", "WARN");
+        // No collector runs next to the harness; exporting would only add failed connections
+        System.setProperty("management.otlp.metrics.export.enabled", "false");
+        System.setProperty("management.tracing.enabled", "false");
+
+        if (!settings.compareThreads()) {
+            LoadReport report = run(settings, settings.applicationArgs());
+            report.print(System.out);
+            report.write(settings.resultFile(), new ObjectMapper());
+        } else {
+            // same mix against a fresh application per mode; the in-memory database is rebuilt each boot
+            Map<String, LoadReport> reports = new LinkedHashMap<>();
+            for (boolean virtual : new boolean[] { false, true }) {
+                String mode = virtual ? "virtual" : "platform";
+                System.out.printf("%n=== %s threads ===%n", mode);
+                String[] applicationArgs = Arrays.copyOf(settings.applicationArgs(),
+                        settings.applicationArgs().length + 1);
+                applicationArgs[applicationArgs.length - 1] = "--spring.threads.virtual.enabled=" + virtual;
+                LoadReport report = run(settings, applicationArgs);
+                report.print(System.out);
+                reports.put(mode, report);
+            }
+            LoadReport.printComparison(System.out, reports);
+            LoadReport.write(settings.resultFile(), new ObjectMapper(), reports);
+        }
+        System.out.println("Results written to " + settings.resultFile().toAbsolutePath());
+    }
+
+    /** Boots the application with the given arguments, warms it up and measures one run. */
+    private static LoadReport run(LoadTestSettings settings, String[] applicationArgs) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .run(applicationArgs);
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            Session session = new Session(URI.create("http://localhost:" + port), clientExecutor, objectMapper);
+            session.initialize();
+
+            System.out.printf("Warming up for %ds with %d users%n", settings.warmup().toSeconds(), settings.users());
+            run(session, settings, settings.warmup());
+
+            System.out.printf("Measuring for %ds with %d users%n", settings.duration().toSeconds(), settings.users());
+            long start = System.nanoTime();
+            Map<Operation, EndpointStats> stats = run(session, settings, settings.duration());
+            return new LoadReport(settings, stats.values(), Duration.ofNanos(System.nanoTime() - start));
+        } finally {
+            SpringApplication.exit(context);
+        }
+    }
+
+    private static Map<Operation, EndpointStats> run(Session session, LoadTestSettings settings, Duration duration) {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation.getEndpoint()));
+        }
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService virtualUsers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.users(); i++) {
+                virtualUsers.submit(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        execute(session, stats, settings.readsOnly());
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+
+    private static void execute(Session session, Map<Operation, EndpointStats> stats, boolean readsOnly) {
+        Operation operation = Operation.next(readsOnly);
+        HttpRequest request = operation.request(session);
+        if (request == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = session.send(request);
+        } catch (IOException e) {
+            stats.get(operation).record(System.nanoTime() - start, false);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        boolean success = response.statusCode() / 100 == 2;
+        stats.get(operation).record(System.nanoTime() - start, success);
+        if (success) {
+            operation.onSuccess(session, request, response);
+        }
+    }
+}
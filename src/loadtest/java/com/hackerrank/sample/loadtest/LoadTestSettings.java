@@ -0,0 +1,29 @@
+package com.hackerrank.sample.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Load test knobs, read from {@code loadtest.*} system properties so they can be
+ * overridden from the Maven command line. {@code loadtest.appArgs} is passed to
+ * the application as command line arguments, e.g.
+ * {@code --spring.profiles.active=scale}. {@code loadtest.mix=read} restricts
+ * the mix to the catalog reads; {@code loadtest.compareThreads=true} runs it
+ * once on platform threads and once on virtual threads.
+ */
+record LoadTestSettings(int users, Duration warmup, Duration duration, Path resultFile, String[] applicationArgs,
+        boolean readsOnly, boolean compareThreads) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.users", 32),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 30)),
+                Path.of(System.getProperty("loadtest.resultFile", "target/loadtest-result.json")),
+                Arrays.stream(System.getProperty("loadtest.appArgs", "").split("\\s+"))
+                        .filter(arg -> !arg.isEmpty()).toArray(String[]::new),
+                "read".equalsIgnoreCase(System.getProperty("loadtest.mix", "default")),
+                Boolean.getBoolean("loadtest.compareThreads"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.hackerrank.sample.loadtest;
+
+import com.hackerrank.sample.dto.AnswerQuestionRequest;
+import com.hackerrank.sample.dto.CreateProductRequest;
+import com.hackerrank.sample.dto.CreateQuestionRequest;
+import com.hackerrank.sample.dto.CreateReviewRequest;
+
+import java.math.BigDecimal;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Requests of the load mix with their relative weights. The default mix is read
+ * heavy, as the catalog is in production: about 85% reads and 15% writes.
+ */
+enum Operation {
+
+    LIST_PRODUCTS("GET /api/products", 25) {
+        @Override
+        HttpRequest request(Session session) {
+            return session.get("/api/products");
+        }
+    },
+    GET_PRODUCT("GET /api/products/{id}", 40) {
+        @Override
+        HttpRequest request(Session session) {
+            return session.get("/api/products/" + session.randomProductId());
+        }
+    },
+    LIST_REVIEWS("GET /api/products/{id}/reviews", 10) {
+        @Override
+        HttpRequest request(Session session) {
+            return session.get("/api/products/" + session.randomProductId() + "/reviews");
+        }
+    },
+    LIST_QUESTIONS("GET /api/products/{id}/questions", 10) {
+        @Override
+        HttpRequest request(Session session) {
+            return session.get("/api/products/" + session.randomProductId() + "/questions");
+        }
+    },
+    ADD_REVIEW("POST /api/products/{id}/reviews", 5) {
+        @Override
+        HttpRequest request(Session session) {
+            CreateReviewRequest review = new CreateReviewRequest(ThreadLocalRandom.current().nextInt(1, 6),
+                    "Load test review", "loadtest_buyer");
+            return session.post("/api/products/" + session.randomProductId() + "/reviews", review, false);
+        }
+    },
+    ADD_QUESTION("POST /api/products/{id}/questions", 5) {
+        @Override
+        HttpRequest request(Session session) {
+            long productId = session.randomProductId();
+            return session.post("/api/products/" + productId + "/questions",
+                    new CreateQuestionRequest("Does it ship today?", "loadtest_buyer"), false);
+        }
+
+        @Override
+        void onSuccess(Session session, HttpRequest request, HttpResponse<String> response) {
+            String path = request.uri().getPath();
+            long productId = Long.parseLong(path.split("/")[3]);
+            session.getUnansweredQuestions().add(new long[] { productId, session.readTree(response).get("id").asLong() });
+        }
+    },
+    CREATE_PRODUCT("POST /api/products", 3) {
+        @Override
+        HttpRequest request(Session session) {
+            CreateProductRequest product = new CreateProductRequest("Load test product", new BigDecimal("99.99"),
+                    new BigDecimal("129.99"), "USD", 10, "new", "Created by the load test", null,
+                    session.getSellerId(), null, List.of("https://example.com/loadtest.jpg"),
+                    List.of(new CreateProductRequest.AttributeRequest("Color", "Black")));
+            return session.post("/api/products", product, true);
+        }
+    },
+    ANSWER_QUESTION("PUT /api/products/{id}/questions/{questionId}", 2) {
+        @Override
+        HttpRequest request(Session session) {
+            long[] question = session.getUnansweredQuestions().poll();
+            if (question == null) {
+                return null;
+            }
+            return session.put("/api/products/" + question[0] + "/questions/" + question[1],
+                    new AnswerQuestionRequest("Yes, it ships today."), true);
+        }
+    };
+
+    private static final Operation[] VALUES = values();
+    private static final int TOTAL_WEIGHT = totalWeight(false);
+    private static final int READ_WEIGHT = totalWeight(true);
+
+    private final String endpoint;
+    private final int weight;
+
+    Operation(String endpoint, int weight) {
+        this.endpoint = endpoint;
+        this.weight = weight;
+    }
+
+    /**
+     * Builds the next request of this kind, or {@code null} when there is
+     * nothing to act on yet (e.g. no unanswered question).
+     */
+    abstract HttpRequest request(Session session);
+
+    void onSuccess(Session session, HttpRequest request, HttpResponse<String> response) {
+    }
+
+    String getEndpoint() {
+        return endpoint;
+    }
+
+    boolean isRead() {
+        return endpoint.startsWith("GET ");
+    }
+
+    /** Picks the next operation by weight, among the reads only when {@code readsOnly}. */
+    static Operation next(boolean readsOnly) {
+        int ticket = ThreadLocalRandom.current().nextInt(readsOnly ? READ_WEIGHT : TOTAL_WEIGHT);
+        for (Operation operation : VALUES) {
+            if (readsOnly && !operation.isRead()) {
+                continue;
+            }
+            ticket -= operation.weight;
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        return LIST_PRODUCTS;
+    }
+
+    private static int totalWeight(boolean readsOnly) {
+        int total = 0;
+        for (Operation operation : values()) {
+            if (!readsOnly || operation.isRead()) {
+                total += operation.weight;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,123 @@
+package com.hackerrank.sample.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shared state of a load test run against one application instance: the HTTP
+ * client, the seller and buyer tokens and the ids the operations pick from.
+ */
+class Session {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Queue<long[]> unansweredQuestions = new ConcurrentLinkedQueue<>();
+    private String sellerToken;
+    private String buyerToken;
+    private long sellerId;
+    private long[] productIds;
+
+    Session(URI baseUri, ExecutorService executor, ObjectMapper objectMapper) {
+        this.baseUri = baseUri;
+        this.httpClient = HttpClient.newBuilder().executor(executor).connectTimeout(REQUEST_TIMEOUT).build();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Logs in as the seeded seller and buyer and loads the product ids to read.
+     */
+    void initialize() throws IOException, InterruptedException {
+        sellerToken = login("seller");
+        buyerToken = login("buyer");
+
+        JsonNode products = readTree(send(get("/api/products")));
+        if (products.isEmpty()) {
+            throw new IllegalStateException("The catalog is empty, nothing to load test");
+        }
+        productIds = new long[products.size()];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = products.get(i).get("id").asLong();
+        }
+        sellerId = readTree(send(get("/api/products/" + productIds[0]))).path("seller").path("id").asLong(1);
+    }
+
+    HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    HttpRequest post(String path, Object body, boolean asSeller) {
+        return authenticated(request(path), asSeller).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(write(body))).build();
+    }
+
+    HttpRequest put(String path, Object body, boolean asSeller) {
+        return authenticated(request(path), asSeller).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(write(body))).build();
+    }
+
+    long randomProductId() {
+        return productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+    }
+
+    long getSellerId() {
+        return sellerId;
+    }
+
+    Queue<long[]> getUnansweredQuestions() {
+        return unansweredQuestions;
+    }
+
+    JsonNode readTree(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String login(String username) throws IOException, InterruptedException {
+        String body = write(Map.of("username", username, "password", "password"));
+        HttpResponse<String> response = send(request("/api/auth/login").header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": HTTP " + response.statusCode());
+        }
+        return readTree(response).get("token").asText();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private HttpRequest.Builder authenticated(HttpRequest.Builder builder, boolean asSeller) {
+        return builder.header("Authorization", "Bearer " + (asSeller ? sellerToken : buyerToken));
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
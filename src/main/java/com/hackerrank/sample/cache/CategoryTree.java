@@ -0,0 +1,82 @@
+package com.hackerrank.sample.cache;
+
+import com.hackerrank.sample.model.Category;
+import com.hackerrank.sample.repository.CategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the category tree, so breadcrumbs and the category menu
+ * never query the database. Categories are few and rarely change: warmed at
+ * startup and kept in sync by {@link CategoryTreeListener}.
+ */
+@Component
+@Slf4j
+public class CategoryTree {
+
+    private final CategoryRepository categoryRepository;
+    private final Map<Long, Node> nodes = new ConcurrentHashMap<>();
+
+    public CategoryTree(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        categoryRepository.findAll().forEach(category -> put(Node.of(category)));
+        log.info("Category tree warmed with {} categories", nodes.size());
+    }
+
+    /** Returns null for an unknown category. */
+    public Node get(Long categoryId) {
+        return categoryId == null ? null : nodes.get(categoryId);
+    }
+
+    /** The category and its ancestors, root first; empty for an unknown category. */
+    public List<Node> breadcrumbs(Long categoryId) {
+        List<Node> path = new ArrayList<>();
+        for (Node node = get(categoryId); node != null && path.size() <= nodes.size(); node = get(node.parentId())) {
+            path.add(0, node);
+        }
+        return path;
+    }
+
+    /** Children of every category by name, under the {@code null} key for the roots. */
+    public Map<Long, List<Node>> childrenByParent() {
+        Map<Long, List<Node>> children = new HashMap<>();
+        nodes.values().stream().sorted(Comparator.comparing(Node::name).thenComparing(Node::id))
+                .forEach(node -> children.computeIfAbsent(node.parentId(), id -> new ArrayList<>()).add(node));
+        return children;
+    }
+
+    public void put(Node node) {
+        nodes.put(node.id(), node);
+    }
+
+    public void evict(Long categoryId) {
+        nodes.remove(categoryId);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public record Node(Long id, String name, Long parentId) {
+
+        public static Node of(Category category) {
+            return new Node(category.getId(), category.getName(),
+                    category.getParent() != null ? category.getParent().getId() : null);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.hackerrank.sample.cache;
+
+import com.hackerrank.sample.model.Category;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that keeps {@link CategoryTree} in sync with category
+ * writes, after commit like {@link SellerCacheListener}.
+ */
+@Component
+public class CategoryTreeListener {
+
+    private final CategoryTree categoryTree;
+
+    public CategoryTreeListener(@Lazy CategoryTree categoryTree) {
+        this.categoryTree = categoryTree;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Category category) {
+        CategoryTree.Node node = CategoryTree.Node.of(category);
+        afterCommit(() -> categoryTree.put(node));
+    }
+
+    @PostRemove
+    public void onRemove(Category category) {
+        Long categoryId = category.getId();
+        afterCommit(() -> categoryTree.evict(categoryId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.hackerrank.sample.cache;
+
+import com.hackerrank.sample.dto.SellerDTO;
+import com.hackerrank.sample.mapper.SellerMapper;
+import com.hackerrank.sample.model.Seller;
+import com.hackerrank.sample.repository.SellerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Local near-cache of seller reference data. Sellers are few and rarely
+ * change, so the seller block of product responses is served from memory
+ * instead of a JOIN or a lazy load. Warmed at startup and kept in sync by
+ * {@link SellerCacheListener}.
+ */
+@Component
+@Slf4j
+public class SellerCache {
+
+    private final SellerRepository sellerRepository;
+    private final SellerMapper sellerMapper;
+    private final Map<Long, SellerDTO> sellers = new ConcurrentHashMap<>();
+
+    public SellerCache(SellerRepository sellerRepository, SellerMapper sellerMapper) {
+        this.sellerRepository = sellerRepository;
+        this.sellerMapper = sellerMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        sellerRepository.findAll().forEach(this::put);
+        log.info("Seller cache warmed with {} sellers", sellers.size());
+    }
+
+    /**
+     * Returns the cached seller, falling back to {@code loader} on a miss. The
+     * loader result is cached so the next lookup is served from memory.
+     */
+    public SellerDTO get(Long sellerId, Supplier<Seller> loader) {
+        SellerDTO cached = sellers.get(sellerId);
+        if (cached != null) {
+            return cached;
+        }
+        Seller seller = loader.get();
+        if (seller == null) {
+            return null;
+        }
+        SellerDTO dto = sellerMapper.toDTO(seller);
+        sellers.putIfAbsent(sellerId, dto);
+        return dto;
+    }
+
+    public SellerDTO get(Long sellerId) {
+        return get(sellerId, () -> sellerRepository.findById(sellerId).orElse(null));
+    }
+
+    public void put(Seller seller) {
+        sellers.put(seller.getId(), sellerMapper.toDTO(seller));
+    }
+
+    public void evict(Long sellerId) {
+        sellers.remove(sellerId);
+    }
+
+    public int size() {
+        return sellers.size();
+    }
+}
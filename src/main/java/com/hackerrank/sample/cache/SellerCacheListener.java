@@ -0,0 +1,50 @@
+package com.hackerrank.sample.cache;
+
+import com.hackerrank.sample.model.Seller;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that keeps {@link SellerCache} in sync with seller
+ * writes. Changes are applied after commit so a rolled back transaction never
+ * leaks into the cache.
+ */
+@Component
+public class SellerCacheListener {
+
+    private final SellerCache sellerCache;
+
+    public SellerCacheListener(@Lazy SellerCache sellerCache) {
+        this.sellerCache = sellerCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Seller seller) {
+        afterCommit(() -> sellerCache.put(seller));
+    }
+
+    @PostRemove
+    public void onRemove(Seller seller) {
+        Long sellerId = seller.getId();
+        afterCommit(() -> sellerCache.evict(sellerId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.hackerrank.sample.changes;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Change feed (app.changes.*): page sizes of {@code GET /api/changes} and how
+ * often superseded entries are compacted away.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.changes")
+public class ChangeFeedProperties {
+
+    private int defaultLimit = 100;
+    private int maxLimit = 1000;
+
+    /** Delay between compactions, also before the first one; ISO-8601 (PT10M), as @Scheduled reads it too. */
+    private Duration compactionInterval = Duration.ofMinutes(10);
+}
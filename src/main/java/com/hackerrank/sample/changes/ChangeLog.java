@@ -0,0 +1,152 @@
+package com.hackerrank.sample.changes;
+
+import com.hackerrank.sample.model.ChangeLogEntry;
+import com.hackerrank.sample.model.ChangeLogEntry.EntityType;
+import com.hackerrank.sample.model.ChangeLogEntry.Operation;
+import com.hackerrank.sample.repository.ChangeLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write side of the change feed. Services record every product, review and
+ * question write here inside the write's own transaction, so an entry exists
+ * exactly when the write committed.
+ * <p>
+ * Entry ids come from a sequence, which orders them but not their commits: the
+ * transaction holding id 11 may commit after the one holding id 12. Ids held by
+ * open transactions are tracked, and {@link #visibleUpTo()} stays below the
+ * oldest of them, so a reader never moves its token past an entry that may
+ * still appear. While a writer waits for its id, the feed stays at or below
+ * the highest id allocated when it started: the id it gets is above that.
+ * Only writes of this instance are tracked.
+ */
+@Component
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+@Slf4j
+public class ChangeLog {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final Counter compacted;
+    private final Timer compaction;
+    // guards the fields below; the sequence call runs outside it, covered by a reservation
+    private final ReentrantLock lock = new ReentrantLock();
+    private final NavigableSet<Long> pending = new TreeSet<>();
+    // highest id allocated when a writer started taking its id -> writers still taking one
+    private final NavigableMap<Long, Integer> reserved = new TreeMap<>();
+    private long allocated;
+
+    public ChangeLog(ChangeLogRepository changeLogRepository, MeterRegistry meterRegistry) {
+        this.changeLogRepository = changeLogRepository;
+        this.compacted = Counter.builder("catalog.changes.compacted")
+                .description("Change log entries removed because a later entry superseded them")
+                .register(meterRegistry);
+        this.compaction = Timer.builder("catalog.changes.compaction").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadPosition() {
+        long last = changeLogRepository.findMaxId();
+        lock.lock();
+        try {
+            allocated = Math.max(allocated, last);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(EntityType entityType, Long entityId, Long productId, Operation operation) {
+        ChangeLogEntry entry = ChangeLogEntry.builder().entityType(entityType).entityId(entityId)
+                .productId(productId).operation(operation).changedAt(LocalDateTime.now()).build();
+        long floor;
+        lock.lock();
+        try {
+            floor = allocated;
+            reserved.merge(floor, 1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+        long id;
+        try {
+            // takes the id from the sequence; the insert itself is flushed with the transaction
+            id = changeLogRepository.save(entry).getId();
+        } catch (RuntimeException e) {
+            register(floor, null);
+            throw e;
+        }
+        register(floor, id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.lock();
+                try {
+                    pending.remove(id);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    // ends the reservation taken at floor and, once the id is known, tracks it until completion
+    private void register(long floor, Long id) {
+        lock.lock();
+        try {
+            reserved.merge(floor, -1, (count, one) -> count + one == 0 ? null : count + one);
+            if (id != null) {
+                allocated = Math.max(allocated, id);
+                pending.add(id);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Highest id below which every entry is settled: committed (and visible) or
+     * rolled back for good.
+     */
+    public long visibleUpTo() {
+        lock.lock();
+        try {
+            long visible = pending.isEmpty() ? allocated : pending.first() - 1;
+            return reserved.isEmpty() ? visible : Math.min(visible, reserved.firstKey());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes entries a consumer no longer needs: those followed by a later
+     * entry of the same entity, which it will read anyway, and those of
+     * reviews and questions whose product was deleted afterwards.
+     */
+    @Scheduled(fixedDelayString = "${app.changes.compaction-interval:PT10M}",
+            initialDelayString = "${app.changes.compaction-interval:PT10M}")
+    @Transactional
+    public int compact() {
+        int removed = compaction.record(changeLogRepository::deleteSuperseded);
+        compacted.increment(removed);
+        log.info("Change log compacted, {} superseded entries removed", removed);
+        return removed;
+    }
+}
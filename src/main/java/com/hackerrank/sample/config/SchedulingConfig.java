@@ -0,0 +1,12 @@
+package com.hackerrank.sample.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} methods, such as the change log compaction.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
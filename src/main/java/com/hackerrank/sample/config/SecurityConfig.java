@@ -67,9 +67,13 @@ public class SecurityConfig {
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Catalog-wide duplicate scan; ahead of the public GET rule below
+                        .requestMatchers(HttpMethod.GET, "/api/products/duplicates").hasRole(ROLE_SELLER)
                         // Public Endpoints
                         .requestMatchers("/api/auth/**").permitAll().requestMatchers(HttpMethod.GET, "/api/products/**")
                         .permitAll().requestMatchers("/h2-console/**").permitAll() // H2 Console
+                        .requestMatchers(HttpMethod.GET, "/api/categories/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/changes").permitAll()
 
                         // ... inside filterChain ...
                         // Swagger / OpenAPI
@@ -78,9 +82,12 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/users").permitAll()
                         .requestMatchers(HttpMethod.GET, "/products/**").permitAll()
+                        // Profiling recordings expose code and data; keep them behind a login
+                        .requestMatchers("/actuator/jfr/**").hasRole(ROLE_SELLER)
                         .requestMatchers(HttpMethod.GET, "/actuator/**").permitAll()
                         // SELLER Rules
                         .requestMatchers(HttpMethod.POST, "/api/products").hasRole(ROLE_SELLER)
+                        .requestMatchers(HttpMethod.POST, "/api/categories").hasRole(ROLE_SELLER)
                         .requestMatchers(HttpMethod.PUT, "/api/products/{id}").hasRole(ROLE_SELLER)
                         .requestMatchers(HttpMethod.DELETE, "/api/products/{id}").hasRole(ROLE_SELLER)
                         .requestMatchers(HttpMethod.PUT, "/api/products/{id}/questions/{qid}").hasRole(ROLE_SELLER)
@@ -0,0 +1,56 @@
+package com.hackerrank.sample.controller;
+
+import com.hackerrank.sample.dto.CategoryDTO;
+import com.hackerrank.sample.dto.CategoryProductsDTO;
+import com.hackerrank.sample.dto.CategoryTreeDTO;
+import com.hackerrank.sample.dto.CreateCategoryRequest;
+import com.hackerrank.sample.service.CategoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/categories")
+public class CategoryController {
+
+    private final CategoryService categoryService;
+
+    public CategoryController(CategoryService categoryService) {
+        this.categoryService = categoryService;
+    }
+
+    /**
+     * Category tree GET /api/categories
+     */
+    @Operation(summary = "Árbol de categorías", description = "Obtiene todas las categorías con sus subcategorías, ordenadas por nombre.")
+    @GetMapping
+    public ResponseEntity<List<CategoryTreeDTO>> getCategoryTree() {
+        List<CategoryTreeDTO> tree = categoryService.getTree();
+        return ResponseEntity.ok(tree);
+    }
+
+    /**
+     * Products under a category GET /api/categories/{id}/products?after=
+     */
+    @Operation(summary = "Productos de una categoría", description = "Lista los productos de la categoría y de todas sus subcategorías, con el camino de categorías (breadcrumbs). Paginado por clave: pasar nextAfter como after para la página siguiente.")
+    @GetMapping("/{id}/products")
+    public ResponseEntity<CategoryProductsDTO> getCategoryProducts(@PathVariable Long id,
+            @RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit) {
+        CategoryProductsDTO products = categoryService.getProducts(id, after, limit);
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * Create a category POST /api/categories
+     */
+    @Operation(summary = "Crear una categoría", description = "Crea una categoría, opcionalmente debajo de otra.")
+    @PostMapping
+    public ResponseEntity<CategoryDTO> createCategory(@Valid @RequestBody CreateCategoryRequest request) {
+        CategoryDTO category = categoryService.createCategory(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(category);
+    }
+}
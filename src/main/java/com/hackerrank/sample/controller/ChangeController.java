@@ -0,0 +1,29 @@
+package com.hackerrank.sample.controller;
+
+import com.hackerrank.sample.dto.ChangeFeedDTO;
+import com.hackerrank.sample.service.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeController {
+
+    private final ChangeFeedService changeFeedService;
+
+    public ChangeController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * Change feed GET /api/changes?since=
+     */
+    @Operation(summary = "Feed de cambios", description = "Devuelve, en orden, los cambios de productos, reseñas y preguntas posteriores al token since (sin since, desde el principio). Pasar next como since en la siguiente llamada para recibir sólo lo nuevo.")
+    @GetMapping
+    public ResponseEntity<ChangeFeedDTO> getChanges(@RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer limit) {
+        ChangeFeedDTO changes = changeFeedService.getChanges(since, limit);
+        return ResponseEntity.ok(changes);
+    }
+}
@@ -0,0 +1,223 @@
+package com.hackerrank.sample.datagen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bulk-loads a synthetic catalog with JDBC batch inserts when the {@code scale}
+ * profile is active (data.sql is skipped there). Review counts per product follow
+ * a Zipf distribution, so a few products carry most of the reviews as in
+ * production. The seeded {@code seller}/{@code buyer} users are created as well.
+ * <p>
+ * With {@code app.datagen.dump-file} set, the generated data is written as an H2
+ * script and restored from it on the next start instead of being regenerated.
+ */
+@Component
+@Profile("scale")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@EnableConfigurationProperties(CatalogGeneratorProperties.class)
+@Slf4j
+public class CatalogGenerator implements ApplicationRunner {
+
+    private static final String[] BRANDS = { "Samsung", "Apple", "Sony", "Xiaomi", "Motorola", "LG", "Lenovo",
+            "Philips", "JBL", "Logitech", "HP", "Asus", "Nikon", "Canon", "Bose", "Huawei" };
+    private static final String[] PRODUCT_TYPES = { "Celular", "Notebook", "Auriculares Inalámbricos", "Televisor",
+            "Parlante Bluetooth", "Tablet", "Cámara Réflex", "Smartwatch", "Monitor", "Teclado Mecánico", "Mouse",
+            "Consola", "Cafetera Eléctrica", "Aspiradora Robot", "Impresora", "Router WiFi" };
+    private static final String[] VARIANTS = { "Pro", "Max", "Lite", "Plus", "Ultra", "Mini", "Edición Especial",
+            "2da Generación", "Básico", "Gamer" };
+    private static final String[] COLORS = { "Negro", "Blanco", "Gris", "Azul", "Rojo", "Plateado", "Dorado",
+            "Verde" };
+    private static final String[] CONDITIONS = { "new", "new", "new", "used", "refurbished" };
+    private static final String[] REVIEW_COMMENTS = { "Excelente producto, llegó rápido.",
+            "Cumple con lo esperado.", "Buena relación precio-calidad.", "No me convenció la batería.",
+            "Muy buena calidad de construcción.", "Llegó con la caja dañada pero funciona bien." };
+    private static final String[] QUESTIONS = { "¿Tiene garantía oficial?", "¿Hacen envíos hoy?",
+            "¿Es compatible con Windows 11?", "¿Incluye cargador?", "¿Cuánto dura la batería?",
+            "¿Viene con factura?" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final CatalogGeneratorProperties properties;
+
+    public CatalogGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+            CatalogGeneratorProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Path dumpFile = properties.getDumpFile() == null || properties.getDumpFile().isBlank() ? null
+                : Path.of(properties.getDumpFile());
+        long start = System.nanoTime();
+        if (dumpFile != null && Files.exists(dumpFile)) {
+            log.info("Restoring synthetic catalog from {}", dumpFile);
+            jdbcTemplate.execute("RUNSCRIPT FROM " + quote(dumpFile) + " COMPRESSION \"GZIP\"");
+        } else {
+            generate();
+            if (dumpFile != null) {
+                log.info("Writing synthetic catalog dump to {}", dumpFile);
+                jdbcTemplate.execute("SCRIPT DROP TO " + quote(dumpFile) + " COMPRESSION \"GZIP\"");
+            }
+        }
+        log.info("Synthetic catalog ready in {} ms: {} products, {} reviews, {} questions",
+                (System.nanoTime() - start) / 1_000_000, count("products"), count("reviews"), count("questions"));
+    }
+
+    void generate() {
+        Random random = new Random(properties.getSeed());
+        long now = System.currentTimeMillis();
+        ZipfDistribution reviewCounts = new ZipfDistribution(properties.getMaxReviewsPerProduct() + 1,
+                properties.getReviewSkew());
+
+        insertUsers();
+        insertSellers(random);
+
+        int batchSize = properties.getBatchSize();
+        int progressStep = Math.max(properties.getProducts() / 10, 1);
+        List<Object[]> products = new ArrayList<>(batchSize);
+        List<Object[]> images = new ArrayList<>();
+        List<Object[]> attributes = new ArrayList<>();
+        List<Object[]> reviews = new ArrayList<>();
+        List<Object[]> questions = new ArrayList<>();
+        for (long productId = 1; productId <= properties.getProducts(); productId++) {
+            products.add(product(productId, random, now));
+            for (int i = 0; i < properties.getImagesPerProduct(); i++) {
+                images.add(new Object[] { "https://images.example.com/products/" + productId + "/" + i + ".jpg",
+                        i == 0, productId });
+            }
+            for (int i = 0; i < properties.getAttributesPerProduct(); i++) {
+                attributes.add(attribute(i, productId, random));
+            }
+            int reviewCount = reviewCounts.sample(random) - 1;
+            for (int i = 0; i < reviewCount; i++) {
+                reviews.add(new Object[] { 1 + random.nextInt(5), pick(REVIEW_COMMENTS, random),
+                        "buyer_" + random.nextInt(100_000), productId, timestamp(now, random) });
+            }
+            int questionCount = random.nextInt(2 * properties.getQuestionsPerProduct() + 1);
+            for (int i = 0; i < questionCount; i++) {
+                boolean answered = random.nextBoolean();
+                Timestamp askedAt = timestamp(now, random);
+                questions.add(new Object[] { pick(QUESTIONS, random), answered ? "Sí, consultanos por privado." : null,
+                        "buyer_" + random.nextInt(100_000), productId, askedAt, answered ? askedAt : null });
+            }
+            if (products.size() == batchSize) {
+                flush(products, images, attributes, reviews, questions);
+            }
+            if (productId % progressStep == 0) {
+                log.info("Generated {} of {} products", productId, properties.getProducts());
+            }
+        }
+        flush(products, images, attributes, reviews, questions);
+        // Explicit ids were used for sellers and products; move the identities past them
+        jdbcTemplate.execute("ALTER TABLE sellers ALTER COLUMN id RESTART WITH " + (properties.getSellers() + 1));
+        jdbcTemplate.execute("ALTER TABLE products ALTER COLUMN id RESTART WITH " + (properties.getProducts() + 1));
+    }
+
+    private void insertUsers() {
+        String password = passwordEncoder.encode("password");
+        jdbcTemplate.update("INSERT INTO users (username, password, role) VALUES (?, ?, ?), (?, ?, ?)", "seller",
+                password, "ROLE_SELLER", "buyer", password, "ROLE_BUYER");
+    }
+
+    private void insertSellers(Random random) {
+        List<Object[]> sellers = new ArrayList<>(properties.getSellers());
+        for (long sellerId = 1; sellerId <= properties.getSellers(); sellerId++) {
+            sellers.add(new Object[] { sellerId, "Tienda " + sellerId, 50 + random.nextInt(51),
+                    random.nextInt(50_000), 1 + random.nextInt(15), (1 + random.nextInt(24)) + " horas" });
+        }
+        batchInsert("INSERT INTO sellers (id, name, reputation, total_sales, years_active, response_time) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", sellers);
+    }
+
+    private Object[] product(long productId, Random random, long now) {
+        String title = pick(BRANDS, random) + " " + pick(PRODUCT_TYPES, random) + " " + pick(VARIANTS, random)
+                + " " + pick(COLORS, random) + " #" + productId;
+        BigDecimal price = BigDecimal.valueOf(5 + random.nextDouble() * 2_500).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal originalPrice = random.nextInt(3) == 0
+                ? price.multiply(BigDecimal.valueOf(1.15)).setScale(2, RoundingMode.HALF_UP)
+                : null;
+        return new Object[] { productId, title, price, originalPrice, "USD", random.nextInt(500),
+                random.nextInt(10_000), pick(CONDITIONS, random), "Descripción de " + title + ".",
+                (1 + random.nextInt(3)) + " año(s) de garantía", 1 + random.nextInt(properties.getSellers()),
+                timestamp(now, random) };
+    }
+
+    private static Object[] attribute(int index, long productId, Random random) {
+        return switch (index % 4) {
+        case 0 -> new Object[] { "Color", pick(COLORS, random), productId };
+        case 1 -> new Object[] { "Marca", pick(BRANDS, random), productId };
+        case 2 -> new Object[] { "Peso", (100 + random.nextInt(3_000)) + " g", productId };
+        default -> new Object[] { "Modelo", "M-" + random.nextInt(10_000), productId };
+        };
+    }
+
+    private void flush(List<Object[]> products, List<Object[]> images, List<Object[]> attributes,
+            List<Object[]> reviews, List<Object[]> questions) {
+        batchInsert("INSERT INTO products (id, title, price, original_price, currency, available_quantity, "
+                + "sold_quantity, condition, description, warranty, seller_id, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", products);
+        batchInsert("INSERT INTO product_images (url, is_primary, product_id) VALUES (?, ?, ?)", images);
+        batchInsert("INSERT INTO product_attributes (name, attribute_value, product_id) VALUES (?, ?, ?)",
+                attributes);
+        batchInsert("INSERT INTO reviews (rating, comment, user_name, product_id, created_at) "
+                + "VALUES (?, ?, ?, ?, ?)", reviews);
+        batchInsert("INSERT INTO questions (question, answer, user_name, product_id, created_at, answered_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", questions);
+    }
+
+    /** Inserts the rows in JDBC batches of {@code batchSize} and clears the list. */
+    private void batchInsert(String sql, List<Object[]> rows) {
+        int batchSize = properties.getBatchSize();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Object[]> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            jdbcTemplate.batchUpdate(sql, batch, batch.size(), CatalogGenerator::bind);
+        }
+        rows.clear();
+    }
+
+    private static void bind(PreparedStatement statement, Object[] row) throws SQLException {
+        for (int i = 0; i < row.length; i++) {
+            statement.setObject(i + 1, row[i]);
+        }
+    }
+
+    private long count(String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /** A random instant within the last year. */
+    private static Timestamp timestamp(long now, Random random) {
+        return new Timestamp(now - random.nextInt(525_600) * 60_000L);
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String quote(Path file) {
+        return "'" + file.toAbsolutePath().toString().replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,46 @@
+package com.hackerrank.sample.datagen;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Size and shape of the synthetic catalog (app.datagen.*), used with the
+ * {@code scale} profile.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datagen")
+public class CatalogGeneratorProperties {
+
+    private int sellers = 1_000;
+
+    private int products = 100_000;
+
+    private int imagesPerProduct = 3;
+
+    private int attributesPerProduct = 4;
+
+    /** Upper bound of the Zipfian review count; only a few products get close to it. */
+    private int maxReviewsPerProduct = 1_000;
+
+    /**
+     * Zipf exponent of the review counts. With 2.0 most products have no or few
+     * reviews (about 3.6 on average) and a long tail reaches the upper bound.
+     */
+    private double reviewSkew = 2.0;
+
+    /** Average questions per product, drawn uniformly from 0 to twice this value. */
+    private int questionsPerProduct = 2;
+
+    private int batchSize = 1_000;
+
+    /** Seed of the random generator, so that the same settings always produce the same catalog. */
+    private long seed = 42;
+
+    /**
+     * Optional H2 script file (gzip). When it exists the catalog is restored from
+     * it; otherwise the generated catalog is written to it.
+     */
+    private String dumpFile;
+}
@@ -0,0 +1,87 @@
+package com.hackerrank.sample.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the main "dataSource" bean with {@link ConnectionBulkheadDataSource}
+ * when app.datasource.bulkhead.enabled=true, sized to the Hikari pool unless
+ * max-concurrent is set. With read/write routing the wrapped "dataSource"
+ * reaches the primary and every replica pool, so the permits add up all of
+ * their sizes and replica reads no longer eat into the primary's. The
+ * permits are shared, though: a burst on one pool can still hold more than
+ * that pool has and wait inside Hikari for the rest.
+ * <p>
+ * Runs first of the "dataSource" wrappers, so the bulkhead sits next to the
+ * pool and a permit stands for one physical connection. The deadline and
+ * statement counting wrappers go around it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.bulkhead.enabled", havingValue = "true")
+@EnableConfigurationProperties(ConnectionBulkheadProperties.class)
+@Slf4j
+public class ConnectionBulkheadPostProcessor implements BeanPostProcessor, Ordered {
+
+    /** Innermost "dataSource" wrapper. */
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 300;
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+    private static final String POOL_SIZE_PROPERTY = "spring.datasource.hikari.maximum-pool-size";
+    private static final String ROUTING_PREFIX = "app.datasource.routing";
+    // Hikari's default
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final ObjectProvider<ConnectionBulkheadProperties> properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Environment environment;
+
+    public ConnectionBulkheadPostProcessor(ObjectProvider<ConnectionBulkheadProperties> properties,
+            ObjectProvider<MeterRegistry> meterRegistry, Environment environment) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                && !(bean instanceof ConnectionBulkheadDataSource)) {
+            ConnectionBulkheadProperties bulkhead = properties.getObject();
+            int maxConcurrent = bulkhead.getMaxConcurrent() > 0 ? bulkhead.getMaxConcurrent() : poolSize();
+            log.info("Database bulkhead admits {} concurrent connections, {} waiting", maxConcurrent,
+                    bulkhead.getMaxWaiting());
+            return new ConnectionBulkheadDataSource(dataSource, maxConcurrent, bulkhead.getMaxWaiting(),
+                    bulkhead.getMaxWait(), meterRegistry.getObject());
+        }
+        return bean;
+    }
+
+    // read from the configuration: the routing "dataSource" does not unwrap to its pools
+    private int poolSize() {
+        int size = environment.getProperty(POOL_SIZE_PROPERTY, Integer.class, DEFAULT_POOL_SIZE);
+        size = size > 0 ? size : DEFAULT_POOL_SIZE;
+        RoutingDataSourceProperties routing = Binder.get(environment)
+                .bind(ROUTING_PREFIX, RoutingDataSourceProperties.class).orElse(null);
+        if (routing != null && routing.isEnabled()) {
+            for (RoutingDataSourceProperties.Replica replica : routing.getReplicas()) {
+                size += replica.getMaximumPoolSize();
+            }
+        }
+        return size;
+    }
+}
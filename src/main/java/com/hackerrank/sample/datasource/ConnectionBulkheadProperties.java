@@ -0,0 +1,29 @@
+package com.hackerrank.sample.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Bulkhead in front of the connection pool (app.datasource.bulkhead.*). Meant
+ * for virtual-thread mode, where request concurrency is no longer bounded by
+ * the servlet thread pool.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datasource.bulkhead")
+public class ConnectionBulkheadProperties {
+
+    private boolean enabled = false;
+
+    /** Connections handed out at the same time; 0 uses the pool's maximum size. */
+    private int maxConcurrent = 0;
+
+    /** Threads allowed to wait for a connection; further ones fail at once. */
+    private int maxWaiting = 1_000;
+
+    /** Longest wait for a connection before failing. */
+    private Duration maxWait = Duration.ofSeconds(2);
+}
@@ -0,0 +1,135 @@
+package com.hackerrank.sample.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to a set of replica pools and everything else
+ * to the primary. Must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so
+ * the connection is only fetched once the transaction's read-only flag is
+ * known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    public enum Strategy {
+        ROUND_ROBIN, LEAST_LOADED
+    }
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final Strategy strategy;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger[] activeConnections;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Strategy strategy,
+            ReadYourWritesTracker readYourWritesTracker) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.activeConnections = new AtomicInteger[replicas.size()];
+        for (int i = 0; i < activeConnections.length; i++) {
+            activeConnections[i] = new AtomicInteger();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (shouldReadFromReplica()) {
+            return replicaConnection(selectReplica());
+        }
+        recordWrite();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (shouldReadFromReplica()) {
+            return replicaConnection(selectReplica());
+        }
+        recordWrite();
+        return primary.getConnection(username, password);
+    }
+
+    public int getActiveConnections(int replicaIndex) {
+        return activeConnections[replicaIndex].get();
+    }
+
+    private boolean shouldReadFromReplica() {
+        return !replicas.isEmpty() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !readYourWritesTracker.hasRecentWrite(ReadYourWritesTracker.currentUser());
+    }
+
+    private int selectReplica() {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        if (strategy == Strategy.ROUND_ROBIN) {
+            return start;
+        }
+        int selected = start;
+        for (int i = 1; i < replicas.size(); i++) {
+            int candidate = (start + i) % replicas.size();
+            if (activeConnections[candidate].get() < activeConnections[selected].get()) {
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+
+    private Connection replicaConnection(int index) throws SQLException {
+        Connection target = replicas.get(index).getConnection();
+        AtomicInteger active = activeConnections[index];
+        active.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new InvocationHandler() {
+                    private boolean closed;
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                            throws Throwable {
+                        if ("close".equals(method.getName()) && !closed) {
+                            closed = true;
+                            active.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+
+    // Writes are stamped again at commit so the window starts when the data
+    // actually becomes visible on the primary.
+    private void recordWrite() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        String user = ReadYourWritesTracker.currentUser();
+        if (user == null) {
+            return;
+        }
+        readYourWritesTracker.recordWrite(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    readYourWritesTracker.recordWrite(user);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.hackerrank.sample.datasource;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last wrote to the primary. For the configured
+ * window (which should exceed the expected replication lag) that user's reads
+ * stay on the primary so they always see their own writes.
+ */
+public class ReadYourWritesTracker {
+
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final Duration window;
+    private final Clock clock;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    public void recordWrite(String user) {
+        lastWrites.put(user, clock.millis());
+        if (lastWrites.size() > CLEANUP_THRESHOLD) {
+            long cutoff = clock.millis() - window.toMillis();
+            lastWrites.values().removeIf(writtenAt -> writtenAt < cutoff);
+        }
+    }
+
+    public boolean hasRecentWrite(String user) {
+        if (user == null || window.isZero()) {
+            return false;
+        }
+        Long writtenAt = lastWrites.get(user);
+        return writtenAt != null && clock.millis() - writtenAt < window.toMillis();
+    }
+
+    static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
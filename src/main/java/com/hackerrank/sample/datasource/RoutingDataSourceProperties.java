@@ -0,0 +1,36 @@
+package com.hackerrank.sample.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replica configuration for read/write routing (app.datasource.routing.*).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled = false;
+
+    private ReadWriteRoutingDataSource.Strategy strategy = ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN;
+
+    /** How long a user's reads stay on the primary after they write. */
+    private Duration readYourWritesWindow = Duration.ofSeconds(2);
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,21 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryProductsDTO {
+    /** The category and its ancestors, root first. */
+    private List<CategoryDTO> breadcrumbs;
+    private Integer limit;
+    /** Pass as {@code after} for the next page; null on the last page. */
+    private Long nextAfter;
+    private List<ProductSummaryDTO> results;
+}
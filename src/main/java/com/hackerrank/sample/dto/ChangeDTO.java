@@ -0,0 +1,24 @@
+package com.hackerrank.sample.dto;
+
+import com.hackerrank.sample.model.ChangeLogEntry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeDTO {
+    /** Position in the feed. */
+    private Long token;
+    private ChangeLogEntry.EntityType entityType;
+    private Long entityId;
+    /** The product itself, or the product the review or question belongs to. */
+    private Long productId;
+    private ChangeLogEntry.Operation operation;
+    private LocalDateTime changedAt;
+}
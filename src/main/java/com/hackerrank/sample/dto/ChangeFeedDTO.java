@@ -0,0 +1,21 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDTO {
+    private Integer limit;
+    /** Pass as {@code since} on the next call; the same token when there was nothing new. */
+    private Long next;
+    /** Whether more changes are already available after {@code next}. */
+    private boolean hasMore;
+    private List<ChangeDTO> changes;
+}
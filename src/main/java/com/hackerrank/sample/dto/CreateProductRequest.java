@@ -53,6 +53,9 @@ public class CreateProductRequest {
     @NotNull(message = "Seller ID is required")
     private Long sellerId;
 
+    @Schema(example = "4")
+    private Long categoryId;
+
     @Schema(example = "[\"http://example.com/image1.jpg\", \"http://example.com/image2.jpg\"]")
     private List<String> imageUrls;
 
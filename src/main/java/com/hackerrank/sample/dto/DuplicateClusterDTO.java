@@ -0,0 +1,20 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateClusterDTO {
+    private Long sellerId;
+    /** Title of the oldest listing in the cluster. */
+    private String title;
+    /** Near-duplicate listings of the seller, in ascending id order. */
+    private List<Long> productIds;
+}
@@ -0,0 +1,24 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilterResultDTO {
+    private Integer total;
+    private Integer offset;
+    private Integer limit;
+    /** price_asc or price_desc; null for id order. */
+    private String sort;
+    private List<ProductSummaryDTO> results;
+    /** Field (condition, currency or attribute name) to its most frequent values among all matches. */
+    private Map<String, Map<String, Integer>> facets;
+}
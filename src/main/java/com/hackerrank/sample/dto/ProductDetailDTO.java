@@ -25,10 +25,13 @@ public class ProductDetailDTO {
     private String description;
     private String warranty;
     private LocalDateTime createdAt;
+    private Long duplicateOf;
 
     private List<String> images;
     private List<AttributeDTO> attributes;
     private SellerDTO seller;
+    /** The product's category and its ancestors, root first. */
+    private List<CategoryDTO> breadcrumbs;
     private ReviewSummaryDTO reviewSummary;
     private List<ReviewDTO> recentReviews;
     private List<QuestionDTO> questions;
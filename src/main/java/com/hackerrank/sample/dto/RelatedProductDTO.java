@@ -0,0 +1,16 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedProductDTO {
+    private ProductSummaryDTO product;
+    /** Estimated Jaccard similarity of title words and attributes, 0 to 1. */
+    private Double similarity;
+}
@@ -0,0 +1,22 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDTO {
+    private String query;
+    private Integer total;
+    /** False when {@code total} is a lower bound: ranking skipped matches that could not reach this page. */
+    private Boolean totalExact;
+    private Integer offset;
+    private Integer limit;
+    private List<ProductSummaryDTO> results;
+}
@@ -0,0 +1,21 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarQuestionDTO {
+    private Long id;
+    private String question;
+    private String answer;
+    private LocalDateTime answeredAt;
+    /** Weighted share of the typed question's trigrams found in this one and its answer, 0 to 1. */
+    private Double similarity;
+}
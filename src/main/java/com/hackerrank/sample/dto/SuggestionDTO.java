@@ -0,0 +1,18 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+    private String title;
+    private Long productId;
+    private Integer soldQuantity;
+    /** Typo corrections applied to the prefix; 0 for an exact prefix match. */
+    private Integer edits;
+}
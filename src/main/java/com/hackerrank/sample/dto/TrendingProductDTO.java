@@ -0,0 +1,16 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingProductDTO {
+    private ProductSummaryDTO product;
+    /** Estimated detail views in the window; may overcount, never undercounts. */
+    private Long views;
+}
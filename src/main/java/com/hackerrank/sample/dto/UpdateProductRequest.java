@@ -35,6 +35,9 @@ public class UpdateProductRequest {
     @Schema(example = "2 years extended warranty")
     private String warranty;
 
+    @Schema(example = "4")
+    private Long categoryId;
+
     @Schema(example = "[\"http://example.com/new_image.jpg\"]")
     private List<String> imageUrls;
 
@@ -0,0 +1,26 @@
+package com.hackerrank.sample.mapper;
+
+import com.hackerrank.sample.cache.CategoryTree;
+import com.hackerrank.sample.dto.CategoryDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class CategoryMapper {
+
+    private final CategoryTree categoryTree;
+
+    public CategoryMapper(CategoryTree categoryTree) {
+        this.categoryTree = categoryTree;
+    }
+
+    public CategoryDTO toDTO(CategoryTree.Node node) {
+        return CategoryDTO.builder().id(node.id()).name(node.name()).build();
+    }
+
+    /** Root-first path to the category from the in-memory tree; empty when there is none. */
+    public List<CategoryDTO> toBreadcrumbs(Long categoryId) {
+        return categoryTree.breadcrumbs(categoryId).stream().map(this::toDTO).toList();
+    }
+}
@@ -1,8 +1,11 @@
 package com.hackerrank.sample.mapper;
 
+import com.hackerrank.sample.cache.SellerCache;
 import com.hackerrank.sample.dto.*;
 import com.hackerrank.sample.model.*;
+import com.hackerrank.sample.repository.QuestionRepository;
 import com.hackerrank.sample.repository.ReviewRepository;
+import com.hackerrank.sample.search.CatalogDocument;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -14,25 +17,36 @@ import java.util.stream.Collectors;
 public class ProductMapper {
 
         private final ReviewRepository reviewRepository;
+        private final QuestionRepository questionRepository;
         private final ReviewMapper reviewMapper;
         private final QuestionMapper questionMapper;
-        private final SellerMapper sellerMapper;
+        private final SellerCache sellerCache;
+        private final CategoryMapper categoryMapper;
 
-        public ProductMapper(ReviewRepository reviewRepository, ReviewMapper reviewMapper,
-                        QuestionMapper questionMapper, SellerMapper sellerMapper) {
+        public ProductMapper(ReviewRepository reviewRepository, QuestionRepository questionRepository,
+                        ReviewMapper reviewMapper, QuestionMapper questionMapper, SellerCache sellerCache,
+                        CategoryMapper categoryMapper) {
                 this.reviewRepository = reviewRepository;
+                this.questionRepository = questionRepository;
                 this.reviewMapper = reviewMapper;
                 this.questionMapper = questionMapper;
-                this.sellerMapper = sellerMapper;
+                this.sellerCache = sellerCache;
+                this.categoryMapper = categoryMapper;
         }
 
         public ProductSummaryDTO toSummaryDTO(Product product) {
+                return toSummaryDTO(product, reviewRepository.findAverageRatingByProductId(product.getId()));
+        }
+
+        /**
+         * List endpoints load ratings for the whole page up front and pass them in,
+         * avoiding one rating query per product.
+         */
+        public ProductSummaryDTO toSummaryDTO(Product product, Double avgRating) {
                 String thumbnail = product.getImages().stream().filter(ProductImage::getIsPrimary).findFirst()
                                 .map(ProductImage::getUrl).orElseGet(() -> product.getImages().isEmpty() ? null
                                                 : product.getImages().get(0).getUrl());
 
-                Double avgRating = reviewRepository.findAverageRatingByProductId(product.getId());
-
                 return ProductSummaryDTO.builder().id(product.getId()).title(product.getTitle())
                                 .price(product.getPrice()).currency(product.getCurrency())
                                 .condition(product.getCondition()).availableQuantity(product.getAvailableQuantity())
@@ -40,6 +54,17 @@ public class ProductMapper {
                                 .averageRating(avgRating != null ? avgRating : 0.0).build();
         }
 
+        /**
+         * Search hits are rendered from the index snapshot instead of the entity.
+         */
+        public ProductSummaryDTO toSummaryDTO(CatalogDocument document, Double avgRating) {
+                return ProductSummaryDTO.builder().id(document.id()).title(document.title()).price(document.price())
+                                .currency(document.currency()).condition(document.condition())
+                                .availableQuantity(document.availableQuantity())
+                                .soldQuantity(document.soldQuantity()).thumbnail(document.thumbnail())
+                                .averageRating(avgRating != null ? avgRating : 0.0).build();
+        }
+
         public ProductDetailDTO toDetailDTO(Product product) {
                 int discount = 0;
                 if (product.getOriginalPrice() != null && product.getOriginalPrice().compareTo(BigDecimal.ZERO) > 0) {
@@ -55,12 +80,12 @@ public class ProductMapper {
                                 .map(attr -> new AttributeDTO(attr.getName(), attr.getAttributeValue()))
                                 .collect(Collectors.toList());
 
-                List<ReviewDTO> recentReviews = product.getReviews().stream()
-                                .sorted((r1, r2) -> r2.getCreatedAt().compareTo(r1.getCreatedAt())).limit(5)
-                                .map(reviewMapper::toDTO).collect(Collectors.toList());
+                // Only the rows shown are loaded instead of the full review/question collections
+                List<ReviewDTO> recentReviews = reviewRepository.findTop5ByProductIdOrderByCreatedAtDesc(product.getId())
+                                .stream().map(reviewMapper::toDTO).collect(Collectors.toList());
 
-                List<QuestionDTO> questions = product.getQuestions().stream()
-                                .sorted((q1, q2) -> q2.getCreatedAt().compareTo(q1.getCreatedAt())).limit(10)
+                List<QuestionDTO> questions = questionRepository
+                                .findTop10ByProductIdOrderByCreatedAtDesc(product.getId()).stream()
                                 .map(questionMapper::toDTO).collect(Collectors.toList());
 
                 return ProductDetailDTO.builder().id(product.getId()).title(product.getTitle())
@@ -68,23 +93,43 @@ public class ProductMapper {
                                 .currency(product.getCurrency()).availableQuantity(product.getAvailableQuantity())
                                 .soldQuantity(product.getSoldQuantity()).condition(product.getCondition())
                                 .description(product.getDescription()).warranty(product.getWarranty())
-                                .createdAt(product.getCreatedAt()).discount(discount).images(imageUrls)
-                                .attributes(attributes).seller(sellerMapper.toDTO(product.getSeller()))
+                                .createdAt(product.getCreatedAt()).duplicateOf(product.getDuplicateOf())
+                                .discount(discount).images(imageUrls).attributes(attributes)
+                                .seller(toSellerDTO(product)).breadcrumbs(toBreadcrumbs(product))
                                 .reviewSummary(getReviewSummary(product.getId())).recentReviews(recentReviews)
                                 .questions(questions).build();
         }
 
+        // Reading the id of the lazy seller proxy does not initialize it, so a cache
+        // hit costs no query at all.
+        private SellerDTO toSellerDTO(Product product) {
+                Seller seller = product.getSeller();
+                return seller == null ? null : sellerCache.get(seller.getId(), () -> seller);
+        }
+
+        // Like the seller, the category is only needed for its id
+        private List<CategoryDTO> toBreadcrumbs(Product product) {
+                Category category = product.getCategory();
+                return category == null ? List.of() : categoryMapper.toBreadcrumbs(category.getId());
+        }
+
         private ReviewSummaryDTO getReviewSummary(Long productId) {
-                Double avgRating = reviewRepository.findAverageRatingByProductId(productId);
-                List<Review> allReviews = reviewRepository.findByProductIdOrderByCreatedAtDesc(productId);
-
-                return ReviewSummaryDTO.builder()
-                                .averageRating(avgRating != null ? Math.round(avgRating * 10.0) / 10.0 : 0.0)
-                                .totalReviews(allReviews.size())
-                                .fiveStars(reviewRepository.countByProductIdAndRating(productId, 5))
-                                .fourStars(reviewRepository.countByProductIdAndRating(productId, 4))
-                                .threeStars(reviewRepository.countByProductIdAndRating(productId, 3))
-                                .twoStars(reviewRepository.countByProductIdAndRating(productId, 2))
-                                .oneStar(reviewRepository.countByProductIdAndRating(productId, 1)).build();
+                int[] stars = new int[6];
+                int total = 0;
+                long ratingSum = 0;
+                for (ReviewRepository.RatingCount count : reviewRepository.countRatingsByProductId(productId)) {
+                        int rating = count.getRating();
+                        int reviews = count.getTotal().intValue();
+                        if (rating >= 1 && rating <= 5) {
+                                stars[rating] = reviews;
+                        }
+                        total += reviews;
+                        ratingSum += (long) rating * reviews;
+                }
+                double avgRating = total == 0 ? 0.0 : Math.round((double) ratingSum / total * 10.0) / 10.0;
+
+                return ReviewSummaryDTO.builder().averageRating(avgRating).totalReviews(total).fiveStars(stars[5])
+                                .fourStars(stars[4]).threeStars(stars[3]).twoStars(stars[2]).oneStar(stars[1])
+                                .build();
         }
 }
@@ -0,0 +1,36 @@
+package com.hackerrank.sample.model;
+
+import com.hackerrank.sample.cache.CategoryTreeListener;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Node of the category tree. Ancestry is also stored in {@link CategoryPath}
+ * so that a whole subtree can be queried without recursion.
+ */
+@Entity
+@Table(name = "categories")
+@EntityListeners(CategoryTreeListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Category implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    private Category parent;
+}
@@ -0,0 +1,45 @@
+package com.hackerrank.sample.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Closure table of the category tree: one row per ancestor/descendant pair,
+ * including each category with itself at depth 0. The primary key leads with
+ * the ancestor, so the descendants of a category are one index range.
+ */
+@Entity
+@Table(name = "category_paths", indexes = @Index(name = "idx_category_paths_descendant", columnList = "descendant_id, depth"))
+@IdClass(CategoryPath.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryPath implements Serializable {
+
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private Integer depth;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -0,0 +1,55 @@
+package com.hackerrank.sample.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One committed write to a product, review or question, in the order of the
+ * change feed. The id is the feed position; entries only carry what changed,
+ * consumers fetch the current state from the regular endpoints.
+ */
+@Entity
+@Table(name = "change_log", indexes = @Index(name = "idx_change_log_entity", columnList = "entity_type, entity_id, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeLogEntry {
+
+    public enum EntityType {
+        PRODUCT, REVIEW, QUESTION
+    }
+
+    public enum Operation {
+        UPSERT, DELETE
+    }
+
+    // a sequence rather than IDENTITY, so the id is known before the insert is flushed
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_log_seq")
+    @SequenceGenerator(name = "change_log_seq", sequenceName = "change_log_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Operation operation;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -1,6 +1,9 @@
 package com.hackerrank.sample.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,7 +16,8 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_category", columnList = "category_id, id"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.product")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -52,15 +56,25 @@ public class Product implements Serializable {
 
     private String warranty;
 
+    /** The seller's listing this one nearly duplicates, when flagged on creation. */
+    @Column(name = "duplicate_of")
+    private Long duplicateOf;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seller_id", nullable = false)
     private Seller seller;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id")
+    private Category category;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.product.images")
     @Builder.Default
     private List<ProductImage> images = new ArrayList<>();
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.product.attributes")
     @Builder.Default
     private List<ProductAttribute> attributes = new ArrayList<>();
 
@@ -75,6 +89,12 @@ public class Product implements Serializable {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    /** Bumped by every committed update; orders the in-memory index updates. */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // Constructors
     // Constructors
 
@@ -1,6 +1,8 @@
 package com.hackerrank.sample.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.io.Serializable;
 import lombok.Getter;
 import lombok.Setter;
@@ -8,6 +10,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "product_attributes")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.productAttribute")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,6 +1,7 @@
 package com.hackerrank.sample.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import lombok.Builder;
@@ -36,6 +37,12 @@ public class Question implements Serializable {
 
     private LocalDateTime answeredAt;
 
+    /** Bumped by every committed update; orders the in-memory question index updates. */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
@@ -1,6 +1,9 @@
 package com.hackerrank.sample.model;
 
+import com.hackerrank.sample.cache.SellerCacheListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,6 +15,8 @@ import lombok.AllArgsConstructor;
 
 @Entity
 @Table(name = "sellers")
+@EntityListeners(SellerCacheListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.seller")
 @Getter
 @Setter
 @NoArgsConstructor
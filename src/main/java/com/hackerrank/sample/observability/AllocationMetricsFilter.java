@@ -0,0 +1,83 @@
+package com.hackerrank.sample.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records the bytes allocated by the request thread while serving each request
+ * as http.server.allocation, tagged by route. Reads the per-thread allocation
+ * counter of the HotSpot ThreadMXBean, which costs about as much as a
+ * System.nanoTime() call. Allocations on other threads (e.g. async work) are not
+ * attributed to the request. The counter is not kept for virtual threads
+ * (JDK 21 returns -1), so with spring.threads.virtual.enabled=true nothing is
+ * recorded; a warning is logged on the first such request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 11)
+@Slf4j
+public class AllocationMetricsFilter extends OncePerRequestFilter {
+
+    static final String METRIC_NAME = "http.server.allocation";
+
+    private final MeterRegistry meterRegistry;
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final AtomicBoolean virtualThreadsReported = new AtomicBoolean();
+
+    public AllocationMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.threadMXBean = allocationCounter();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (threadMXBean == null || Thread.currentThread().isVirtual()) {
+            if (threadMXBean != null && virtualThreadsReported.compareAndSet(false, true)) {
+                log.warn("Requests run on virtual threads, which have no allocation counter; {} will not be "
+                        + "recorded", METRIC_NAME);
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long after = threadMXBean.getCurrentThreadAllocatedBytes();
+            if (before >= 0 && after >= 0) {
+                record(request, after - before);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, long allocated) {
+        DistributionSummary.builder(METRIC_NAME).description("Bytes allocated by the request thread per request")
+                .baseUnit("bytes").tags("uri", SqlStatementMetricsFilter.uriTag(request), "method",
+                        request.getMethod())
+                .register(meterRegistry).record(allocated);
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        log.warn("Per-thread allocation accounting is not supported by this JVM; {} will not be recorded",
+                METRIC_NAME);
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.hackerrank.sample.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Heaviest allocating endpoints since startup, by total bytes allocated:
+ * GET /actuator/allocations?limit=10
+ */
+@Component
+@Endpoint(id = "allocations")
+public class AllocationsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final MeterRegistry meterRegistry;
+
+    public AllocationsEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> allocations(@Nullable Integer limit) {
+        List<Map<String, Object>> endpoints = meterRegistry.find(AllocationMetricsFilter.METRIC_NAME).summaries()
+                .stream().filter(summary -> summary.count() > 0)
+                .sorted(Comparator.comparingDouble(DistributionSummary::totalAmount).reversed())
+                .limit(limit != null && limit > 0 ? limit : DEFAULT_LIMIT).map(this::toMap).toList();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("endpoints", endpoints);
+        return body;
+    }
+
+    private Map<String, Object> toMap(DistributionSummary summary) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("uri", summary.getId().getTag("uri"));
+        stats.put("method", summary.getId().getTag("method"));
+        stats.put("requests", summary.count());
+        stats.put("totalBytes", (long) summary.totalAmount());
+        stats.put("meanBytes", (long) summary.mean());
+        stats.put("maxBytes", (long) summary.max());
+        return stats;
+    }
+}
@@ -0,0 +1,242 @@
+package com.hackerrank.sample.observability;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * On-demand Java Flight Recorder profiling without a restart:
+ * <ul>
+ * <li>POST /actuator/jfr {"durationSeconds": 30, "settings": "profile"} starts a
+ * time-limited recording (one at a time)</li>
+ * <li>GET /actuator/jfr lists the recordings kept on disk</li>
+ * <li>GET /actuator/jfr/{id} summarises a finished recording (hot methods,
+ * allocation sites, lock contention)</li>
+ * <li>GET /actuator/jfr/{id}/download streams the .jfr file for JDK Mission
+ * Control</li>
+ * </ul>
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@Slf4j
+public class JfrEndpoint {
+
+    private static final int SUMMARY_TOP = 15;
+
+    private final Path directory;
+    private final Duration maxDuration;
+    private final int retained;
+    private final Deque<ProfilingRecording> recordings = new ConcurrentLinkedDeque<>();
+
+    public JfrEndpoint(@Value("${app.jfr.directory:${java.io.tmpdir}/jfr}") String directory,
+            @Value("${app.jfr.max-duration:5m}") Duration maxDuration,
+            @Value("${app.jfr.retained-recordings:5}") int retained) {
+        this.directory = Path.of(directory);
+        this.maxDuration = maxDuration;
+        this.retained = retained;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Integer durationSeconds, @Nullable String settings)
+            throws IOException {
+        ProfilingRecording latest = recordings.peekFirst();
+        if (latest != null && !latest.isFinished()) {
+            throw new InvalidEndpointRequestException("Recording " + latest.id + " is still running",
+                    "A recording is already running");
+        }
+        Duration duration = Duration.ofSeconds(durationSeconds != null ? durationSeconds : 30);
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new InvalidEndpointRequestException("Duration must be between 1s and " + maxDuration,
+                    "Invalid duration");
+        }
+        Configuration configuration = configuration(settings != null ? settings : "profile");
+
+        Files.createDirectories(directory);
+        Recording recording = new Recording(configuration);
+        recording.setName("actuator-" + Instant.now().toEpochMilli());
+        recording.setDuration(duration);
+        recording.setToDisk(true);
+        Path file = directory.resolve(recording.getName() + ".jfr");
+        recording.start();
+
+        ProfilingRecording profilingRecording = new ProfilingRecording(recording, configuration.getName(), file);
+        recordings.addFirst(profilingRecording);
+        evictOldRecordings();
+        log.info("Started JFR recording {} with settings '{}' for {}", profilingRecording.id, configuration.getName(),
+                duration);
+        return profilingRecording.toMap();
+    }
+
+    @ReadOperation
+    public Map<String, Object> recordings() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        recordings.forEach(recording -> list.add(recording.toMap()));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("settings", Configuration.getConfigurations().stream().map(Configuration::getName).toList());
+        body.put("recordings", list);
+        return body;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Map<String, Object>> summary(@Selector long id) throws IOException {
+        ProfilingRecording recording = find(id);
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (!recording.isFinished()) {
+            return new WebEndpointResponse<>(recording.toMap(), HttpStatus.CONFLICT.value());
+        }
+        Map<String, Object> body = recording.toMap();
+        body.putAll(recording.summary());
+        return new WebEndpointResponse<>(body);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector long id, @Selector String action) {
+        ProfilingRecording recording = find(id);
+        if (recording == null || !"download".equals(action)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (!recording.isFinished()) {
+            return new WebEndpointResponse<>(HttpStatus.CONFLICT.value());
+        }
+        if (!Files.exists(recording.file)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(recording.file));
+    }
+
+    @PreDestroy
+    public void close() {
+        recordings.forEach(ProfilingRecording::close);
+    }
+
+    private Configuration configuration(String settings) {
+        try {
+            return Configuration.getConfiguration(settings);
+        } catch (ParseException | IOException e) {
+            throw new InvalidEndpointRequestException("Unknown JFR settings '" + settings + "'",
+                    "Unknown JFR settings");
+        }
+    }
+
+    private ProfilingRecording find(long id) {
+        return recordings.stream().filter(recording -> recording.id == id).findFirst().orElse(null);
+    }
+
+    private void evictOldRecordings() {
+        while (recordings.size() > retained) {
+            ProfilingRecording oldest = recordings.pollLast();
+            if (oldest != null) {
+                oldest.close();
+                try {
+                    Files.deleteIfExists(oldest.file);
+                } catch (IOException e) {
+                    log.warn("Could not delete JFR recording {}", oldest.file, e);
+                }
+            }
+        }
+    }
+
+    private static final class ProfilingRecording {
+        private final long id;
+        private final Recording recording;
+        private final String settings;
+        private final Path file;
+        private final Instant startedAt = Instant.now();
+        private boolean dumped;
+        private Map<String, Object> summary;
+
+        ProfilingRecording(Recording recording, String settings, Path file) {
+            this.id = recording.getId();
+            this.recording = recording;
+            this.settings = settings;
+            this.file = file;
+        }
+
+        /**
+         * A recording stopped by its duration reports STOPPED before JFR has
+         * written its destination file, so the file is dumped here instead, once,
+         * by the first caller that sees it stopped.
+         */
+        synchronized boolean isFinished() {
+            if (dumped) {
+                return true;
+            }
+            RecordingState state = recording.getState();
+            if (state == RecordingState.CLOSED) {
+                return true;
+            }
+            if (state != RecordingState.STOPPED) {
+                return false;
+            }
+            try {
+                recording.dump(file);
+                dumped = true;
+            } catch (IOException e) {
+                log.warn("Could not write JFR recording {} to {}", id, file, e);
+                return false;
+            }
+            recording.close();
+            return true;
+        }
+
+        /** Parsed once and cached; recordings are immutable once finished. */
+        synchronized Map<String, Object> summary() throws IOException {
+            if (summary == null) {
+                summary = JfrRecordingSummary.summarize(file, SUMMARY_TOP);
+            }
+            return summary;
+        }
+
+        void close() {
+            recording.close();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", id);
+            map.put("state", recording.getState().name());
+            map.put("settings", settings);
+            map.put("startedAt", startedAt.toString());
+            map.put("duration", String.valueOf(recording.getDuration()));
+            map.put("sizeBytes", sizeOf(file));
+            return map;
+        }
+
+        private static long sizeOf(Path file) {
+            try {
+                return Files.exists(file) ? Files.size(file) : 0;
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.hackerrank.sample.observability;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Condenses a JFR recording into the top hot methods (execution samples by top
+ * frame), allocation sites (sampled bytes by top frame and class) and contended
+ * locks (monitor enter and park events by class and frame). Each entry also
+ * names the first application frame, since the top frame is often JDK code.
+ */
+final class JfrRecordingSummary {
+
+    private static final String APPLICATION_PACKAGE = "com.hackerrank.sample.";
+
+    private JfrRecordingSummary() {
+    }
+
+    static Map<String, Object> summarize(Path recording, int top) throws IOException {
+        Map<String, Counter> hotMethods = new HashMap<>();
+        Map<String, Counter> allocations = new HashMap<>();
+        Map<String, Counter> contention = new HashMap<>();
+        long events = 0;
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                events++;
+                switch (event.getEventType().getName()) {
+                case "jdk.ExecutionSample" -> count(hotMethods, frames(event), null).add(1);
+                case "jdk.ObjectAllocationSample" ->
+                    count(allocations, frames(event), className(event, "objectClass")).add(event.getLong("weight"));
+                case "jdk.JavaMonitorEnter" -> count(contention, frames(event), className(event, "monitorClass"))
+                        .add(event.getDuration().toNanos());
+                case "jdk.ThreadPark" -> count(contention, frames(event), className(event, "parkedClass"))
+                        .add(event.getDuration().toNanos());
+                default -> {
+                }
+                }
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("events", events);
+        summary.put("hotMethods", top(hotMethods, top, "samples"));
+        summary.put("allocationSites", top(allocations, top, "bytes"));
+        summary.put("lockContention", top(contention, top, "blockedNanos"));
+        return summary;
+    }
+
+    private static Counter count(Map<String, Counter> counters, String[] frames, String className) {
+        String key = frames[0] + (className != null ? " [" + className + "]" : "");
+        return counters.computeIfAbsent(key, k -> new Counter(frames[0], frames[1], className));
+    }
+
+    /** Top frame and first application frame of the event's stack trace. */
+    private static String[] frames(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return new String[] { "<unknown>", null };
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        String application = null;
+        for (RecordedFrame frame : frames) {
+            String name = frameName(frame);
+            if (name.startsWith(APPLICATION_PACKAGE)) {
+                application = name;
+                break;
+            }
+        }
+        return new String[] { frameName(frames.get(0)), application };
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static String className(RecordedEvent event, String field) {
+        if (!event.hasField(field) || event.getClass(field) == null) {
+            return null;
+        }
+        return event.getClass(field).getName();
+    }
+
+    private static List<Map<String, Object>> top(Map<String, Counter> counters, int top, String valueName) {
+        return counters.values().stream().sorted(Comparator.comparingLong(Counter::getTotal).reversed()).limit(top)
+                .map(counter -> counter.toMap(valueName)).toList();
+    }
+
+    private static final class Counter {
+        private final String frame;
+        private final String applicationFrame;
+        private final String className;
+        private long events;
+        private long total;
+
+        Counter(String frame, String applicationFrame, String className) {
+            this.frame = frame;
+            this.applicationFrame = applicationFrame;
+            this.className = className;
+        }
+
+        void add(long value) {
+            events++;
+            total += value;
+        }
+
+        long getTotal() {
+            return total;
+        }
+
+        Map<String, Object> toMap(String valueName) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("frame", frame);
+            if (className != null) {
+                map.put("class", className);
+            }
+            map.put("applicationFrame", applicationFrame);
+            map.put("events", events);
+            map.put(valueName, total);
+            if ("blockedNanos".equals(valueName)) {
+                map.put("blockedMs", Duration.ofNanos(total).toMillis());
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.hackerrank.sample.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call into the controller, service, mapper and repository layers as
+ * app.layer.duration tagged with layer, class and method. Layers are inclusive:
+ * a controller timing contains the service, mapper and repository calls made
+ * under it, so the difference between layers shows where a request spends its
+ * time. Only calls through the Spring proxy are timed, not calls within a bean.
+ * <p>
+ * Timers are cached per class and method, so the hot path is one map lookup
+ * plus the timer itself; see LayerTimingAspectBenchmark for the overhead bound.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.metrics.layers.enabled", havingValue = "true", matchIfMissing = true)
+public class LayerTimingAspect {
+
+    static final String METRIC_NAME = "app.layer.duration";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public LayerTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("within(com.hackerrank.sample.controller..*)")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "controller");
+    }
+
+    @Around("within(com.hackerrank.sample.service..*)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "service");
+    }
+
+    @Around("within(com.hackerrank.sample.mapper..*)")
+    public Object timeMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "mapper");
+    }
+
+    /** Spring Data repositories are JDK proxies, so match on the repository interfaces instead of the class. */
+    @Around("execution(* com.hackerrank.sample.repository..*+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "repository");
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        Timer timer = timer(joinPoint, layer);
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint, String layer) {
+        Object target = joinPoint.getTarget();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return timers.computeIfAbsent(new TimerKey(target.getClass(), method),
+                key -> Timer.builder(METRIC_NAME).description("Time spent per call in each application layer")
+                        .tags("layer", layer, "class", className(target), "method", method.getName())
+                        .register(meterRegistry));
+    }
+
+    private static String className(Object target) {
+        if (Proxy.isProxyClass(target.getClass())) {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(target);
+            return interfaces.length > 0 ? interfaces[0].getSimpleName() : target.getClass().getSimpleName();
+        }
+        return ClassUtils.getUserClass(target).getSimpleName();
+    }
+
+    private record TimerKey(Class<?> targetClass, Method method) {
+    }
+}
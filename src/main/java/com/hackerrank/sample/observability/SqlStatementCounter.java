@@ -0,0 +1,31 @@
+package com.hackerrank.sample.observability;
+
+/**
+ * Thread-bound entry point for SQL statement counting. Statements executed
+ * outside of a started scope are not counted.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void stop(SqlStatementStats stats) {
+        if (stats.getParent() == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats.getParent());
+        }
+    }
+
+    static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+}
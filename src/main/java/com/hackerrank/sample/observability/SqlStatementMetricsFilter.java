@@ -0,0 +1,77 @@
+package com.hackerrank.sample.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts SQL statements, fetched rows and database time per HTTP request.
+ * Published as sql.statements, sql.rows and sql.time tagged by endpoint, and
+ * added to the current trace span. Runs inside the server observation filter
+ * so the request span is current.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<Tracer> tracer;
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry, ObjectProvider<Tracer> tracer) {
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.stop(stats);
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        String uri = uriTag(request);
+        String method = request.getMethod();
+
+        DistributionSummary.builder("sql.statements").description("SQL statements executed per request")
+                .tags("uri", uri, "method", method).register(meterRegistry).record(stats.getStatements());
+        DistributionSummary.builder("sql.rows").description("Rows fetched per request")
+                .tags("uri", uri, "method", method).register(meterRegistry).record(stats.getRows());
+        Timer.builder("sql.time").description("Time spent executing SQL per request")
+                .tags("uri", uri, "method", method).register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        Tracer currentTracer = tracer.getIfAvailable();
+        Span span = currentTracer != null ? currentTracer.currentSpan() : null;
+        if (span != null) {
+            span.tag("db.statement.count", stats.getStatements());
+            span.tag("db.row.count", stats.getRows());
+            span.tag("db.time.ms", TimeUnit.NANOSECONDS.toMillis(stats.getNanos()));
+        }
+    }
+
+    public static String uriTag(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
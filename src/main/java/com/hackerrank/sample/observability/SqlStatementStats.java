@@ -0,0 +1,52 @@
+package com.hackerrank.sample.observability;
+
+/**
+ * Statement, row and database time counters for one unit of work (usually an
+ * HTTP request). Scopes nest: everything recorded in an inner scope is also
+ * recorded in its parent.
+ */
+public class SqlStatementStats {
+
+    private final SqlStatementStats parent;
+    private long statements;
+    private long rows;
+    private long nanos;
+
+    SqlStatementStats(SqlStatementStats parent) {
+        this.parent = parent;
+    }
+
+    SqlStatementStats getParent() {
+        return parent;
+    }
+
+    void recordStatement(long elapsedNanos) {
+        for (SqlStatementStats stats = this; stats != null; stats = stats.parent) {
+            stats.statements++;
+            stats.nanos += elapsedNanos;
+        }
+    }
+
+    void recordRow() {
+        for (SqlStatementStats stats = this; stats != null; stats = stats.parent) {
+            stats.rows++;
+        }
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "statements=" + statements + ", rows=" + rows + ", dbTimeMs=" + nanos / 1_000_000;
+    }
+}
@@ -0,0 +1,103 @@
+package com.hackerrank.sample.observability;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * JDBC-level instrumentation that feeds {@link SqlStatementCounter}. Every
+ * execute* call counts as one statement (a batch counts once) and every
+ * successful ResultSet.next() as one fetched row.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, obtainTargetDataSource().getConnection(username, password));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+                new CountingHandler(target));
+    }
+
+    private static Object wrap(Object result) {
+        if (result instanceof CallableStatement callable) {
+            return proxy(CallableStatement.class, callable);
+        }
+        if (result instanceof PreparedStatement prepared) {
+            return proxy(PreparedStatement.class, prepared);
+        }
+        if (result instanceof Statement statement) {
+            return proxy(Statement.class, statement);
+        }
+        if (result instanceof ResultSet resultSet) {
+            return proxy(ResultSet.class, resultSet);
+        }
+        return result;
+    }
+
+    private static final class CountingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        private CountingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            SqlStatementStats stats = SqlStatementCounter.current();
+
+            if (stats != null && target instanceof Statement && name.startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    return wrap(call(method, args));
+                } finally {
+                    stats.recordStatement(System.nanoTime() - start);
+                }
+            }
+
+            Object result = call(method, args);
+            if (target instanceof ResultSet) {
+                if (stats != null && "next".equals(name) && Boolean.TRUE.equals(result)) {
+                    stats.recordRow();
+                }
+                return result;
+            }
+            if ("unwrap".equals(name) || "isWrapperFor".equals(name)) {
+                return result;
+            }
+            return wrap(result);
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
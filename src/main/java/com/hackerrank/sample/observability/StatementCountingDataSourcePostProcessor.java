@@ -0,0 +1,37 @@
+package com.hackerrank.sample.observability;
+
+import com.hackerrank.sample.resilience.DeadlineDataSourcePostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's main "dataSource" bean with
+ * {@link StatementCountingDataSource}. Only that bean is wrapped so pools
+ * injected by concrete type (e.g. the routing primary) keep their type.
+ * Runs last, so it is the outermost wrapper and counts every statement the
+ * application issues, including those the deadline refuses to send.
+ */
+@Component
+public class StatementCountingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+    public static final int ORDER = DeadlineDataSourcePostProcessor.ORDER + 100;
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                && !(bean instanceof StatementCountingDataSource)) {
+            return new StatementCountingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
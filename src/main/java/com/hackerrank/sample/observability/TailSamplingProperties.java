@@ -0,0 +1,35 @@
+package com.hackerrank.sample.observability;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tail-based sampling of exported traces (app.tracing.tail-sampling.*). Head
+ * sampling must stay at 1.0 so every span reaches the sampler, which then keeps
+ * error and slow traces and a fraction of the rest.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.tracing.tail-sampling")
+public class TailSamplingProperties {
+
+    private boolean enabled = true;
+
+    /** Traces whose local root span lasts at least this long are always exported. */
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    /** Fraction of fast, successful traces that are exported, between 0.0 and 1.0. */
+    private double successRatio = 0.1;
+
+    /**
+     * Upper bound of spans held while waiting for their root span. When full, the
+     * oldest pending trace is decided on the spans it has so far.
+     */
+    private int maxBufferedSpans = 10_000;
+
+    /** Pending traces whose root span has not ended after this long are decided as they are. */
+    private Duration traceTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,232 @@
+package com.hackerrank.sample.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Tail-based sampling in front of the real span exporter. Spans are held per
+ * trace until the trace's local root span ends, then the whole trace is
+ * exported or dropped:
+ * <ul>
+ * <li>traces with a server error (span status ERROR, outcome SERVER_ERROR or a
+ * recorded exception) are always kept</li>
+ * <li>traces whose root span lasts at least the latency threshold are always
+ * kept</li>
+ * <li>other traces are kept for a fixed fraction of trace ids, so a kept trace
+ * is kept in full</li>
+ * </ul>
+ * The buffer is bounded by span count. Pending traces that overflow it or whose
+ * root never ends within the timeout are decided on the spans they have: kept
+ * if they already show an error, otherwise dropped and counted.
+ * <p>
+ * Called by the batch span processor's worker thread, never by request threads.
+ */
+public class TailSamplingSpanExporter implements SpanExporter {
+
+    static final String TRACES_METRIC = "tracing.tail.sampling.traces";
+    static final String DROPPED_SPANS_METRIC = "tracing.tail.sampling.spans.dropped";
+
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final AttributeKey<String> EXCEPTION = AttributeKey.stringKey("exception");
+
+    private final SpanExporter delegate;
+    private final long latencyThresholdNanos;
+    private final long successBound;
+    private final int maxBufferedSpans;
+    private final long traceTimeoutNanos;
+    private final LongSupplier nanoTime;
+
+    /** Pending traces by trace id, oldest first. */
+    private final Map<String, PendingTrace> pending = new LinkedHashMap<>();
+    private int bufferedSpans;
+
+    private final Counter keptError;
+    private final Counter keptSlow;
+    private final Counter keptSampled;
+    private final Counter notSampled;
+    private final Counter droppedBufferFull;
+    private final Counter droppedTimeout;
+
+    public TailSamplingSpanExporter(SpanExporter delegate, TailSamplingProperties properties,
+            MeterRegistry meterRegistry) {
+        this(delegate, properties, meterRegistry, System::nanoTime);
+    }
+
+    TailSamplingSpanExporter(SpanExporter delegate, TailSamplingProperties properties, MeterRegistry meterRegistry,
+            LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        double ratio = Math.max(0.0, Math.min(1.0, properties.getSuccessRatio()));
+        this.successBound = ratio >= 1.0 ? Long.MAX_VALUE : (long) (ratio * Long.MAX_VALUE);
+        this.maxBufferedSpans = properties.getMaxBufferedSpans();
+        this.traceTimeoutNanos = properties.getTraceTimeout().toNanos();
+        this.nanoTime = nanoTime;
+
+        this.keptError = traces(meterRegistry, "kept_error");
+        this.keptSlow = traces(meterRegistry, "kept_slow");
+        this.keptSampled = traces(meterRegistry, "kept_sampled");
+        this.notSampled = traces(meterRegistry, "not_sampled");
+        this.droppedBufferFull = droppedSpans(meterRegistry, "buffer_full");
+        this.droppedTimeout = droppedSpans(meterRegistry, "timeout");
+        Gauge.builder("tracing.tail.sampling.buffered.spans", this, TailSamplingSpanExporter::bufferedSpans)
+                .description("Spans held while waiting for their trace's root span").register(meterRegistry);
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        List<SpanData> export = new ArrayList<>();
+        for (SpanData span : spans) {
+            if (isLocalRoot(span)) {
+                PendingTrace trace = pending.remove(span.getTraceId());
+                List<SpanData> traceSpans = trace != null ? trace.spans : new ArrayList<>(1);
+                bufferedSpans -= trace != null ? trace.spans.size() : 0;
+                traceSpans.add(span);
+                decide(span, traceSpans, export);
+            } else {
+                buffer(span, export);
+            }
+        }
+        expire(export);
+        return export.isEmpty() ? CompletableResultCode.ofSuccess() : delegate.export(export);
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    /** Pending traces are decided on the spans they have, as for a timeout. */
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        List<SpanData> export = new ArrayList<>();
+        while (!pending.isEmpty()) {
+            evictOldest(export, droppedTimeout);
+        }
+        if (!export.isEmpty()) {
+            delegate.export(export);
+        }
+        return delegate.shutdown();
+    }
+
+    synchronized int bufferedSpans() {
+        return bufferedSpans;
+    }
+
+    private void decide(SpanData root, List<SpanData> traceSpans, List<SpanData> export) {
+        if (hasError(traceSpans)) {
+            keptError.increment();
+        } else if (root.getEndEpochNanos() - root.getStartEpochNanos() >= latencyThresholdNanos) {
+            keptSlow.increment();
+        } else if (sampled(root.getTraceId())) {
+            keptSampled.increment();
+        } else {
+            notSampled.increment();
+            return;
+        }
+        export.addAll(traceSpans);
+    }
+
+    private void buffer(SpanData span, List<SpanData> export) {
+        while (bufferedSpans >= maxBufferedSpans && !pending.isEmpty()) {
+            evictOldest(export, droppedBufferFull);
+        }
+        if (bufferedSpans >= maxBufferedSpans) {
+            droppedBufferFull.increment();
+            return;
+        }
+        pending.computeIfAbsent(span.getTraceId(), id -> new PendingTrace(nanoTime.getAsLong())).spans.add(span);
+        bufferedSpans++;
+    }
+
+    private void expire(List<SpanData> export) {
+        long now = nanoTime.getAsLong();
+        Iterator<PendingTrace> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            PendingTrace trace = iterator.next();
+            if (now - trace.createdAt < traceTimeoutNanos) {
+                break;
+            }
+            iterator.remove();
+            bufferedSpans -= trace.spans.size();
+            decidePartial(trace, export, droppedTimeout);
+        }
+    }
+
+    private void evictOldest(List<SpanData> export, Counter dropped) {
+        Iterator<PendingTrace> iterator = pending.values().iterator();
+        PendingTrace trace = iterator.next();
+        iterator.remove();
+        bufferedSpans -= trace.spans.size();
+        decidePartial(trace, export, dropped);
+    }
+
+    /** Without a root span only errors are known, so anything else is dropped. */
+    private void decidePartial(PendingTrace trace, List<SpanData> export, Counter dropped) {
+        if (hasError(trace.spans)) {
+            keptError.increment();
+            export.addAll(trace.spans);
+        } else {
+            dropped.increment(trace.spans.size());
+        }
+    }
+
+    /** Same decision for every span of a trace, and for every service sharing the trace id. */
+    private boolean sampled(String traceId) {
+        long random = Long.parseUnsignedLong(traceId, 16, 32, 16) >>> 1;
+        return random < successBound;
+    }
+
+    private static boolean isLocalRoot(SpanData span) {
+        SpanContext parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    private static boolean hasError(List<SpanData> spans) {
+        for (SpanData span : spans) {
+            if (span.getStatus().getStatusCode() == StatusCode.ERROR
+                    || "SERVER_ERROR".equals(span.getAttributes().get(OUTCOME))) {
+                return true;
+            }
+            String exception = span.getAttributes().get(EXCEPTION);
+            if (exception != null && !"none".equals(exception)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter traces(MeterRegistry meterRegistry, String decision) {
+        return Counter.builder(TRACES_METRIC).description("Traces by tail sampling decision")
+                .tag("decision", decision).register(meterRegistry);
+    }
+
+    private static Counter droppedSpans(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(DROPPED_SPANS_METRIC)
+                .description("Spans dropped before their trace could be fully decided").tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class PendingTrace {
+        private final long createdAt;
+        private final List<SpanData> spans = new ArrayList<>();
+
+        PendingTrace(long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+}
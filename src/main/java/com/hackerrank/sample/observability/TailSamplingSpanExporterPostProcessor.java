@@ -0,0 +1,38 @@
+package com.hackerrank.sample.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Puts {@link TailSamplingSpanExporter} in front of every span exporter (the
+ * OTLP one in production). The batch span processor still receives every span,
+ * but only sampled traces are serialised and sent.
+ */
+@Component
+@ConditionalOnProperty(name = "app.tracing.tail-sampling.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(TailSamplingProperties.class)
+public class TailSamplingSpanExporterPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<TailSamplingProperties> properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    /** Resolved lazily: post-processors are created before the beans they depend on are bound. */
+    public TailSamplingSpanExporterPostProcessor(ObjectProvider<TailSamplingProperties> properties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof SpanExporter exporter && !(bean instanceof TailSamplingSpanExporter)) {
+            return new TailSamplingSpanExporter(exporter, properties.getObject(), meterRegistry.getObject());
+        }
+        return bean;
+    }
+}
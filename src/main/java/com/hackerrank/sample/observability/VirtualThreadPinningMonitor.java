@@ -0,0 +1,177 @@
+package com.hackerrank.sample.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detects virtual threads pinned to their carrier thread, typically by blocking
+ * inside a {@code synchronized} block (e.g. in a JDBC driver or connection
+ * pool). Streams JFR's jdk.VirtualThreadPinned events above the threshold and
+ * reports them per blocking site: the first frame outside the JDK, plus the
+ * first application frame.
+ * <ul>
+ * <li>jvm.threads.virtual.pinned timer, tagged by site</li>
+ * <li>a warning with the stack trace the first time a site pins</li>
+ * <li>GET /actuator/pinning, sites by total pinned time</li>
+ * </ul>
+ * Active in virtual-thread mode only.
+ */
+@Component
+@Endpoint(id = "pinning")
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    static final String METRIC_NAME = "jvm.threads.virtual.pinned";
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.hackerrank.sample.";
+    private static final int LOGGED_FRAMES = 20;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Map<String, PinnedSite> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+            @Value("${app.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {}", threshold);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    @ReadOperation
+    public Map<String, Object> pinning() {
+        List<Map<String, Object>> list = sites.values().stream()
+                .sorted(Comparator.comparingLong(PinnedSite::totalNanos).reversed()).map(PinnedSite::toMap).toList();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("threshold", threshold.toString());
+        body.put("sites", list);
+        return body;
+    }
+
+    void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = frames(event);
+        String site = blockingSite(frames);
+        Duration duration = event.getDuration();
+
+        Timer.builder(METRIC_NAME).description("Time virtual threads spent pinned to their carrier thread")
+                .tag("site", site).register(meterRegistry).record(duration);
+        PinnedSite pinnedSite = sites.computeIfAbsent(site, key -> new PinnedSite(key, applicationFrame(frames)));
+        if (pinnedSite.record(duration)) {
+            log.warn("Virtual thread pinned for {} ms at {} (application frame: {}):{}", duration.toMillis(), site,
+                    pinnedSite.applicationFrame, stackTrace(frames));
+        }
+    }
+
+    private static List<RecordedFrame> frames(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        return stackTrace != null ? stackTrace.getFrames() : List.of();
+    }
+
+    /** First frame outside the JDK: the library or application code that blocked while pinned. */
+    private static String blockingSite(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String name = frameName(frame);
+            if (!name.startsWith("java.") && !name.startsWith("jdk.") && !name.startsWith("sun.")) {
+                return name;
+            }
+        }
+        return frames.isEmpty() ? "<unknown>" : frameName(frames.get(0));
+    }
+
+    private static String applicationFrame(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String name = frameName(frame);
+            if (name.startsWith(APPLICATION_PACKAGE)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private static String stackTrace(List<RecordedFrame> frames) {
+        StringBuilder builder = new StringBuilder();
+        frames.stream().limit(LOGGED_FRAMES).forEach(frame -> builder.append(System.lineSeparator())
+                .append("\tat ").append(frameName(frame)).append(':').append(frame.getLineNumber()));
+        return builder.toString();
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static final class PinnedSite {
+        private final String site;
+        private final String applicationFrame;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private volatile long maxNanos;
+
+        PinnedSite(String site, String applicationFrame) {
+            this.site = site;
+            this.applicationFrame = applicationFrame;
+        }
+
+        /** Returns true for the first event of this site. */
+        boolean record(Duration duration) {
+            long nanos = duration.toNanos();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+            count.increment();
+            return count.sum() == 1;
+        }
+
+        long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("site", site);
+            map.put("applicationFrame", applicationFrame);
+            map.put("events", count.sum());
+            map.put("totalMs", TimeUnit.NANOSECONDS.toMillis(totalNanos.sum()));
+            map.put("maxMs", TimeUnit.NANOSECONDS.toMillis(maxNanos));
+            return map;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.model.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    /** Adds the closure rows of a new category: its parent's ancestors one level deeper, and itself. */
+    @Modifying
+    @Query(value = "INSERT INTO category_paths (ancestor_id, descendant_id, depth) "
+            + "SELECT ancestor_id, CAST(:id AS BIGINT), depth + 1 FROM category_paths "
+            + "WHERE descendant_id = :parentId "
+            + "UNION ALL SELECT CAST(:id AS BIGINT), CAST(:id AS BIGINT), 0", nativeQuery = true)
+    void addPaths(Long id, Long parentId);
+}
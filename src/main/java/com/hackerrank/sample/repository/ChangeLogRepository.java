@@ -0,0 +1,32 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.model.ChangeLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    @Query("SELECT e FROM ChangeLogEntry e WHERE e.id > :since AND e.id <= :upTo ORDER BY e.id")
+    List<ChangeLogEntry> findPage(Long since, Long upTo, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM ChangeLogEntry e")
+    long findMaxId();
+
+    /**
+     * Deletes entries superseded by a later entry of the same entity, and
+     * review and question entries followed by the deletion of their product.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM change_log e WHERE EXISTS (SELECT 1 FROM change_log n "
+            + "WHERE n.entity_type = e.entity_type AND n.entity_id = e.entity_id AND n.id > e.id) "
+            + "OR (e.entity_type <> 'PRODUCT' AND EXISTS (SELECT 1 FROM change_log d "
+            + "WHERE d.entity_type = 'PRODUCT' AND d.entity_id = e.product_id AND d.operation = 'DELETE' "
+            + "AND d.id > e.id))", nativeQuery = true)
+    int deleteSuperseded();
+}
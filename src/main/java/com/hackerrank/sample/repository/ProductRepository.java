@@ -1,16 +1,22 @@
 package com.hackerrank.sample.repository;
 
 import com.hackerrank.sample.model.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    @Query("SELECT DISTINCT p FROM Product p " + "LEFT JOIN FETCH p.seller " + "WHERE p.id = :id")
-    Optional<Product> findByIdWithDetails(@Param("id") Long id);
+    /**
+     * Products in the category or any category below it, after the given id:
+     * a range of the closure table joined to the (category_id, id) index.
+     */
+    @Query("SELECT p FROM Product p WHERE p.category.id IN "
+            + "(SELECT cp.descendantId FROM CategoryPath cp WHERE cp.ancestorId = :categoryId) "
+            + "AND p.id > :afterId ORDER BY p.id")
+    List<Product> findInCategoryAfter(Long categoryId, Long afterId, Limit limit);
 }
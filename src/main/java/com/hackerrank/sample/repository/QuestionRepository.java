@@ -10,4 +10,6 @@ import java.util.List;
 public interface QuestionRepository extends JpaRepository<Question, Long> {
 
     List<Question> findByProductIdOrderByCreatedAtDesc(Long productId);
+
+    List<Question> findTop10ByProductIdOrderByCreatedAtDesc(Long productId);
 }
@@ -3,8 +3,12 @@ package com.hackerrank.sample.repository;
 import com.hackerrank.sample.model.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,9 +16,33 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     List<Review> findByProductIdOrderByCreatedAtDesc(Long productId);
 
+    List<Review> findTop5ByProductIdOrderByCreatedAtDesc(Long productId);
+
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog.reviewAggregates") })
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.product.id = :productId")
     Double findAverageRatingByProductId(Long productId);
 
-    @Query("SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId AND r.rating = :rating")
-    Integer countByProductIdAndRating(Long productId, Integer rating);
+    // Star histogram in a single query; average and total are derived from it
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog.reviewAggregates") })
+    @Query("SELECT r.rating AS rating, COUNT(r) AS total FROM Review r WHERE r.product.id = :productId GROUP BY r.rating")
+    List<RatingCount> countRatingsByProductId(Long productId);
+
+    // Average rating for a page of products in a single query
+    @Query("SELECT r.product.id AS productId, AVG(r.rating) AS averageRating FROM Review r "
+            + "WHERE r.product.id IN :productIds GROUP BY r.product.id")
+    List<ProductRating> findAverageRatingsByProductIds(Collection<Long> productIds);
+
+    interface RatingCount {
+        Integer getRating();
+
+        Long getTotal();
+    }
+
+    interface ProductRating {
+        Long getProductId();
+
+        Double getAverageRating();
+    }
 }
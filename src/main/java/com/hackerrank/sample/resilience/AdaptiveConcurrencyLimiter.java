@@ -0,0 +1,111 @@
+package com.hackerrank.sample.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency-gradient concurrency limit, after Netflix's Gradient2 limiter. Request
+ * latencies are averaged over windows of {@code windowSize} requests; each
+ * window is compared with a long-term moving average:
+ *
+ * <pre>
+ * gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1.0)
+ * newLimit = limit * gradient + sqrt(limit)
+ * </pre>
+ *
+ * While latency is stable the limit grows by about sqrt(limit) per window;
+ * once queueing pushes recent latency above the tolerated ratio, it shrinks
+ * towards the concurrency the backend can sustain. Windows where fewer than
+ * half the permits were in use say nothing about the limit and are only used
+ * for the long-term average.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int windowSize;
+    private final double longAlpha;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // guarded by this
+    private double longRtt;
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.tolerance = properties.getTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.windowSize = properties.getWindowSize();
+        this.longAlpha = 2.0 / (properties.getLongWindow() + 1);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+    }
+
+    /**
+     * Takes a permit if fewer than {@link #getLimit()} requests are in flight.
+     *
+     * @return the number of requests in flight including this one, or 0 when
+     *         the request must be rejected
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return 0;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /** Returns a permit and feeds the request latency into the limit. */
+    public void release(int inFlightAtAcquire, long rttNanos) {
+        inFlight.decrementAndGet();
+        sample(inFlightAtAcquire, rttNanos);
+    }
+
+    /** Returns a permit without a latency sample, e.g. for failed requests. */
+    public void releaseIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void sample(int inFlightAtAcquire, long rttNanos) {
+        windowRttSum += rttNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtAcquire);
+        if (++windowCount < windowSize) {
+            return;
+        }
+        double shortRtt = (double) windowRttSum / windowCount;
+        int maxInFlight = windowMaxInFlight;
+        windowRttSum = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+
+        longRtt = longRtt == 0 ? shortRtt : longRtt + longAlpha * (shortRtt - longRtt);
+        if (longRtt / shortRtt > 2) {
+            // latency dropped for good (e.g. warm caches): let the baseline follow quickly
+            longRtt *= 0.95;
+        }
+        if (maxInFlight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
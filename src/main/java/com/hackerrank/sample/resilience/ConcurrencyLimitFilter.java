@@ -0,0 +1,97 @@
+package com.hackerrank.sample.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load above the adaptive concurrency limit with 503 and Retry-After,
+ * instead of letting Tomcat queue requests until they time out. Runs before
+ * security so rejected requests cost no token parsing, and after the server
+ * observation so they still show up in http.server.requests.
+ * <p>
+ * Server errors do not feed the limiter: they often fail fast and would make
+ * an unhealthy backend look faster than it is.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final String retryAfterSeconds;
+    private final Counter shed;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry,
+            ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.limiter = new AdaptiveConcurrencyLimiter(properties);
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = FilterErrorResponse.retryAfterSeconds(properties.getRetryAfter());
+        this.shed = Counter.builder("http.server.requests.shed")
+                .description("Requests rejected by the adaptive concurrency limit").register(meterRegistry);
+        Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit").register(meterRegistry);
+        Gauge.builder("http.server.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently holding a concurrency permit").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.getMethods().isEmpty() && !properties.getMethods().contains(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return properties.getPaths().stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int inFlight = limiter.tryAcquire();
+        if (inFlight == 0) {
+            shed.increment();
+            log.debug("Shedding {} {}: concurrency limit {} reached", request.getMethod(), request.getRequestURI(),
+                    limiter.getLimit());
+            FilterErrorResponse.write(request, response, objectMapper, retryAfterSeconds,
+                    "Server is overloaded, please retry after " + retryAfterSeconds + "s.");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            if (failed) {
+                limiter.releaseIgnored();
+            } else {
+                limiter.release(inFlight, System.nanoTime() - start);
+            }
+        }
+    }
+
+    AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+}
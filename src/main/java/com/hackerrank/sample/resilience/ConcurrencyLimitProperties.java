@@ -0,0 +1,48 @@
+package com.hackerrank.sample.resilience;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Adaptive concurrency limit in front of the API (app.concurrency-limit.*).
+ * The limit moves between min-limit and max-limit following the gradient
+ * between the long-term and the recent request latency.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Request paths (Ant patterns) that count against the limit. */
+    private List<String> paths = List.of("/api/products/**");
+
+    /** HTTP methods that count against the limit; empty for all. */
+    private List<String> methods = List.of();
+
+    private int initialLimit = 50;
+
+    private int minLimit = 10;
+
+    private int maxLimit = 500;
+
+    /** Recent latency may exceed the long-term latency by this factor before the limit shrinks. */
+    private double tolerance = 1.5;
+
+    /** Weight of each new limit estimate, between 0.0 and 1.0. */
+    private double smoothing = 0.2;
+
+    /** Requests averaged into one recent latency sample. */
+    private int windowSize = 50;
+
+    /** Number of recent samples the long-term latency average spans. */
+    private int longWindow = 100;
+
+    /** Sent as Retry-After on shed requests. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
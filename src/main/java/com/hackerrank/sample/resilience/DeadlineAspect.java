@@ -0,0 +1,28 @@
+package com.hackerrank.sample.resilience;
+
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks the request deadline on entry to every service and mapper call, so a
+ * request whose client has given up stops before the next query or the next
+ * DTO is built. Mapping a product list goes through the mapper proxy once per
+ * product, which bounds the overrun to one element.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineAspect {
+
+    @Before("within(com.hackerrank.sample.service..*)")
+    public void checkService() {
+        RequestDeadline.check("service");
+    }
+
+    @Before("within(com.hackerrank.sample.mapper..*)")
+    public void checkMapper() {
+        RequestDeadline.check("mapper");
+    }
+}
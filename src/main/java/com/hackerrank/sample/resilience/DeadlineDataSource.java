@@ -0,0 +1,111 @@
+package com.hackerrank.sample.resilience;
+
+import com.hackerrank.sample.exception.DeadlineExceededException;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds every JDBC statement by the remaining {@link RequestDeadline}: a
+ * statement is not sent once the deadline has passed, and otherwise runs with
+ * the remaining budget as query timeout (rounded up to whole seconds, the
+ * JDBC granularity; the aspect checks catch the rest). A statement cancelled
+ * after the deadline surfaces as DeadlineExceededException instead of a
+ * database error, so it maps to 504 and is not counted by circuit breakers.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    static final String STAGE = "query";
+
+    public DeadlineDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, obtainTargetDataSource().getConnection(username, password));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(DeadlineDataSource.class.getClassLoader(), new Class<?>[] { type },
+                new DeadlineHandler(target));
+    }
+
+    private static Object wrap(Object result) {
+        if (result instanceof CallableStatement callable) {
+            return proxy(CallableStatement.class, callable);
+        }
+        if (result instanceof PreparedStatement prepared) {
+            return proxy(PreparedStatement.class, prepared);
+        }
+        if (result instanceof Statement statement) {
+            return proxy(Statement.class, statement);
+        }
+        return result;
+    }
+
+    private static final class DeadlineHandler implements InvocationHandler {
+
+        private final Object target;
+
+        private DeadlineHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            RequestDeadline deadline = RequestDeadline.current();
+
+            if (deadline != null && target instanceof Statement statement && name.startsWith("execute")) {
+                long remaining = deadline.remainingNanos();
+                if (remaining <= 0) {
+                    throw deadline.exceeded(STAGE);
+                }
+                int timeout = (int) Math.max(1, (TimeUnit.NANOSECONDS.toMillis(remaining) + 999) / 1000);
+                int configured = statement.getQueryTimeout();
+                statement.setQueryTimeout(configured > 0 ? Math.min(configured, timeout) : timeout);
+                try {
+                    return call(method, args);
+                } catch (SQLException e) {
+                    if (deadline.remainingNanos() <= 0) {
+                        DeadlineExceededException exceeded = deadline.exceeded(STAGE);
+                        exceeded.initCause(e);
+                        throw exceeded;
+                    }
+                    throw e;
+                }
+            }
+
+            Object result = call(method, args);
+            if (target instanceof Connection && !"unwrap".equals(name)) {
+                return wrap(result);
+            }
+            return result;
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.hackerrank.sample.resilience;
+
+import com.hackerrank.sample.datasource.ConnectionBulkheadPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the main "dataSource" bean with {@link DeadlineDataSource}, around
+ * the connection bulkhead and inside statement counting.
+ */
+@Component
+@ConditionalOnProperty(name = "app.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+    public static final int ORDER = ConnectionBulkheadPostProcessor.ORDER + 100;
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                && !(bean instanceof DeadlineDataSource)) {
+            return new DeadlineDataSource(dataSource);
+        }
+        return bean;
+    }
+}
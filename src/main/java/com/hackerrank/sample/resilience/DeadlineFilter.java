@@ -0,0 +1,108 @@
+package com.hackerrank.sample.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackerrank.sample.observability.SqlStatementMetricsFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the {@link RequestDeadline} of every API request from the client's
+ * deadline header (remaining budget in milliseconds) or the server default.
+ * Services and mappers check it on entry (DeadlineAspect) and JDBC statements
+ * get it as query timeout (DeadlineDataSource), so work for a client that has
+ * already given up stops with a 504.
+ * <p>
+ * Aborted requests are counted by stage, and the work they saved is estimated
+ * as the route's mean successful latency minus the time spent before the
+ * abort (http.server.deadline.saved).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@ConditionalOnProperty(name = "app.deadline.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(DeadlineProperties.class)
+@Slf4j
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    static final String EXCEEDED_METRIC = "http.server.deadline.exceeded";
+    static final String SAVED_METRIC = "http.server.deadline.saved";
+
+    private final DeadlineProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    public DeadlineFilter(DeadlineProperties properties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long budgetMillis = budgetMillis(request);
+        if (budgetMillis <= 0) {
+            exceeded("arrival", "UNKNOWN", request.getMethod(), 0);
+            FilterErrorResponse.write(request, response, objectMapper, HttpStatus.GATEWAY_TIMEOUT,
+                    "Request deadline already expired on arrival");
+            return;
+        }
+        RequestDeadline deadline = RequestDeadline.start(budgetMillis, TimeUnit.MILLISECONDS);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+            if (deadline.getExceededStage() != null) {
+                exceeded(deadline.getExceededStage(), SqlStatementMetricsFilter.uriTag(request), request.getMethod(),
+                        deadline.elapsedNanos());
+            }
+        }
+    }
+
+    private long budgetMillis(HttpServletRequest request) {
+        long max = properties.getMaxTimeout().toMillis();
+        String header = request.getHeader(properties.getHeader());
+        if (header != null) {
+            try {
+                return Math.min(Long.parseLong(header.trim()), max);
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring invalid {} header '{}'", properties.getHeader(), header);
+            }
+        }
+        return Math.min(properties.getDefaultTimeout().toMillis(), max);
+    }
+
+    private void exceeded(String stage, String uri, String method, long elapsedNanos) {
+        Counter.builder(EXCEEDED_METRIC).description("Requests aborted because their deadline passed")
+                .tags("stage", stage, "uri", uri, "method", method).register(meterRegistry).increment();
+
+        Timer completed = meterRegistry.find("http.server.requests").tags("uri", uri, "method", method)
+                .tag("outcome", "SUCCESS").timer();
+        if (completed != null && completed.count() > 0) {
+            long savedNanos = (long) completed.mean(TimeUnit.NANOSECONDS) - elapsedNanos;
+            Timer.builder(SAVED_METRIC).description("Estimated server time saved by aborting expired requests")
+                    .tags("uri", uri, "method", method).register(meterRegistry)
+                    .record(Math.max(0, savedNanos), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.hackerrank.sample.resilience;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Request deadlines (app.deadline.*). Clients send their remaining budget in
+ * milliseconds in the deadline header; requests without it get the default.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+
+    private String header = "X-Request-Deadline";
+
+    /** Budget of requests that do not send the header. */
+    private Duration defaultTimeout = Duration.ofSeconds(5);
+
+    /** Upper bound of client budgets. */
+    private Duration maxTimeout = Duration.ofSeconds(30);
+}
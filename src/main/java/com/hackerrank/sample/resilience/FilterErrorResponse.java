@@ -0,0 +1,49 @@
+package com.hackerrank.sample.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Error responses written by filters (503 with Retry-After for shed requests,
+ * 504 for expired deadlines), with the same body as the errors written by
+ * GlobalExceptionHandler.
+ */
+final class FilterErrorResponse {
+
+    private FilterErrorResponse() {
+    }
+
+    static String retryAfterSeconds(Duration retryAfter) {
+        return String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    static void write(HttpServletRequest request, HttpServletResponse response, ObjectMapper objectMapper,
+            String retryAfterSeconds, String message) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        write(request, response, objectMapper, HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+
+    static void write(HttpServletRequest request, HttpServletResponse response, ObjectMapper objectMapper,
+            HttpStatus status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        body.put("path", request.getRequestURI());
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,71 @@
+package com.hackerrank.sample.resilience;
+
+import com.hackerrank.sample.exception.DeadlineExceededException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-bound deadline of the current request, started by DeadlineFilter. Code
+ * outside a request (schedulers, startup) has no deadline and is never
+ * aborted.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos;
+    private final long deadlineNanos;
+    private volatile String exceededStage;
+
+    private RequestDeadline(long startNanos, long budgetNanos) {
+        this.startNanos = startNanos;
+        this.deadlineNanos = startNanos + budgetNanos;
+    }
+
+    public static RequestDeadline start(long budget, TimeUnit unit) {
+        RequestDeadline deadline = new RequestDeadline(System.nanoTime(), unit.toNanos(budget));
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /** The current request's deadline, or {@code null} outside a request. */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Aborts the current request with {@link DeadlineExceededException} if its
+     * deadline has passed. A no-op outside a request.
+     */
+    public static void check(String stage) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null && deadline.remainingNanos() <= 0) {
+            throw deadline.exceeded(stage);
+        }
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /** Marks the deadline as exceeded at the given stage; the first stage wins. */
+    public DeadlineExceededException exceeded(String stage) {
+        if (exceededStage == null) {
+            exceededStage = stage;
+        }
+        return new DeadlineExceededException(stage);
+    }
+
+    /** The stage that first hit the deadline, or {@code null} if it was met. */
+    public String getExceededStage() {
+        return exceededStage;
+    }
+}
@@ -0,0 +1,48 @@
+package com.hackerrank.sample.resilience;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Priority classes of API traffic, each served by its own bulkhead so that one
+ * class cannot take the servlet threads the others need.
+ */
+public enum RequestLane {
+
+    /**
+     * Catalog reads: GET and HEAD on /api/products/** and /api/categories/**,
+     * and the change feed, which is read from the primary pool.
+     */
+    BROWSE,
+
+    /** Product, review, question and category changes: any other method on those paths. */
+    WRITE,
+
+    /** Login and logout; BCrypt makes logins CPU-bound. */
+    AUTH;
+
+    private static final String PRODUCTS = "/api/products";
+    private static final String CATEGORIES = "/api/categories";
+    private static final String CHANGES = "/api/changes";
+    private static final String AUTH_PATH = "/api/auth";
+
+    /** The lane of a request, or {@code null} for traffic outside the lanes (actuator, Swagger, H2 console). */
+    public static RequestLane of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (isUnder(path, AUTH_PATH)) {
+            return AUTH;
+        }
+        if (isUnder(path, PRODUCTS) || isUnder(path, CATEGORIES) || isUnder(path, CHANGES)) {
+            String method = request.getMethod();
+            return "GET".equals(method) || "HEAD".equals(method) ? BROWSE : WRITE;
+        }
+        return null;
+    }
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+
+    private static boolean isUnder(String path, String prefix) {
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+}
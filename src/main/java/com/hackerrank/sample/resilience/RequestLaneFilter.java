@@ -0,0 +1,140 @@
+package com.hackerrank.sample.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves each {@link RequestLane} through its own Resilience4j semaphore
+ * bulkhead (browseLane, writeLane, authLane) with a bounded wait queue. A lane
+ * that is full rejects its own requests with 503 and Retry-After while the
+ * other lanes keep their permits, so a write storm or a burst of logins cannot
+ * take the servlet threads catalog reads need.
+ * <p>
+ * Runs before the adaptive concurrency limit and before security. Besides the
+ * resilience4j.bulkhead.* gauges, each lane publishes its queue depth, permit
+ * wait time and rejections.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 4)
+@ConditionalOnProperty(name = "app.lanes.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RequestLaneProperties.class)
+@Slf4j
+public class RequestLaneFilter extends OncePerRequestFilter {
+
+    private final Map<RequestLane, LaneBulkhead> lanes = new EnumMap<>(RequestLane.class);
+    private final ObjectMapper objectMapper;
+
+    public RequestLaneFilter(RequestLaneProperties properties, ObjectProvider<BulkheadRegistry> bulkheadRegistry,
+            MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        BulkheadRegistry registry = bulkheadRegistry.getIfAvailable(BulkheadRegistry::ofDefaults);
+        for (RequestLane lane : RequestLane.values()) {
+            lanes.put(lane, new LaneBulkhead(lane, properties.get(lane), registry, meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return RequestLane.of(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LaneBulkhead lane = lanes.get(RequestLane.of(request));
+        String rejection = lane.acquire();
+        if (rejection != null) {
+            log.debug("Rejecting {} {}: {} lane {}", request.getMethod(), request.getRequestURI(), lane.tag,
+                    rejection);
+            FilterErrorResponse.write(request, response, objectMapper, lane.retryAfterSeconds,
+                    "Too many " + lane.tag + " requests, please retry after " + lane.retryAfterSeconds + "s.");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            lane.bulkhead.onComplete();
+        }
+    }
+
+    Bulkhead bulkhead(RequestLane lane) {
+        return lanes.get(lane).bulkhead;
+    }
+
+    private static final class LaneBulkhead {
+        private final String tag;
+        private final Bulkhead bulkhead;
+        private final int maxQueue;
+        private final String retryAfterSeconds;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final Timer wait;
+        private final Counter queueFull;
+        private final Counter timedOut;
+
+        LaneBulkhead(RequestLane lane, RequestLaneProperties.Lane properties, BulkheadRegistry registry,
+                MeterRegistry meterRegistry) {
+            this.tag = lane.tag();
+            this.bulkhead = registry.bulkhead(tag + "Lane", BulkheadConfig.custom()
+                    .maxConcurrentCalls(properties.getMaxConcurrent()).maxWaitDuration(properties.getMaxWait())
+                    .build());
+            this.maxQueue = properties.getMaxQueue();
+            this.retryAfterSeconds = FilterErrorResponse.retryAfterSeconds(properties.getMaxWait());
+            this.wait = Timer.builder("http.server.lane.wait").description("Time spent waiting for a lane permit")
+                    .tag("lane", tag).register(meterRegistry);
+            this.queueFull = rejected(meterRegistry, "queue_full");
+            this.timedOut = rejected(meterRegistry, "timeout");
+            Gauge.builder("http.server.lane.queued", queued, AtomicInteger::get)
+                    .description("Requests waiting for a lane permit").tag("lane", tag).register(meterRegistry);
+        }
+
+        /** Takes a permit, waiting up to max-wait; returns the rejection reason, or null when admitted. */
+        String acquire() {
+            int waiting = queued.incrementAndGet();
+            try {
+                if (waiting > maxQueue && bulkhead.getMetrics().getAvailableConcurrentCalls() == 0) {
+                    queueFull.increment();
+                    return "queue is full";
+                }
+                long start = System.nanoTime();
+                boolean admitted = bulkhead.tryAcquirePermission();
+                wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (!admitted) {
+                    timedOut.increment();
+                    return "wait timed out";
+                }
+                return null;
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        private Counter rejected(MeterRegistry meterRegistry, String reason) {
+            return Counter.builder("http.server.lane.rejected").description("Requests rejected by a full lane")
+                    .tags("lane", tag, "reason", reason).register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.hackerrank.sample.resilience;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Concurrency and queue limits of each request lane (app.lanes.*). Queued
+ * requests hold a servlet thread while they wait, so the sum of max-concurrent
+ * and max-queue over all lanes should stay below server.tomcat.threads.max.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.lanes")
+public class RequestLaneProperties {
+
+    private boolean enabled = true;
+
+    private Lane browse = new Lane(110, 40, Duration.ofMillis(500));
+
+    private Lane write = new Lane(10, 10, Duration.ofSeconds(1));
+
+    private Lane auth = new Lane(4, 16, Duration.ofSeconds(2));
+
+    public Lane get(RequestLane lane) {
+        return switch (lane) {
+        case BROWSE -> browse;
+        case WRITE -> write;
+        case AUTH -> auth;
+        };
+    }
+
+    @Getter
+    @Setter
+    public static class Lane {
+
+        /** Requests of this lane served at the same time. */
+        private int maxConcurrent;
+
+        /** Requests of this lane allowed to wait for a permit; further ones are rejected at once. */
+        private int maxQueue;
+
+        /** Longest wait for a permit before the request is rejected. */
+        private Duration maxWait;
+
+        public Lane() {
+        }
+
+        public Lane(int maxConcurrent, int maxQueue, Duration maxWait) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.maxWait = maxWait;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.hackerrank.sample.search;
+
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.model.ProductImage;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a product as the in-memory catalog indexes see it: the
+ * searchable text plus the fields needed to render a search hit without going
+ * back to the database.
+ *
+ * @param version the product's row version, so an older snapshot never replaces a newer one
+ */
+public record CatalogDocument(Long id, String title, String description, List<Attribute> attributes,
+        BigDecimal price, String currency, String thumbnail, String condition, int availableQuantity,
+        int soldQuantity, Long sellerId, long version) {
+
+    public CatalogDocument {
+        attributes = attributes == null ? List.of() : List.copyOf(attributes);
+    }
+
+    public CatalogDocument(Long id, String title, String description, List<Attribute> attributes, BigDecimal price,
+            String currency, String thumbnail, String condition, int availableQuantity, int soldQuantity,
+            Long sellerId) {
+        this(id, title, description, attributes, price, currency, thumbnail, condition, availableQuantity,
+                soldQuantity, sellerId, 0);
+    }
+
+    /** Copy without the indexed-only text, for structures that keep documents in memory. */
+    public CatalogDocument forDisplay() {
+        return new CatalogDocument(id, title, null, List.of(), price, currency, thumbnail, condition,
+                availableQuantity, soldQuantity, sellerId, version);
+    }
+
+    /** Must be called while the product's images and attributes can still be loaded. */
+    public static CatalogDocument from(Product product) {
+        String thumbnail = product.getImages().stream().filter(image -> Boolean.TRUE.equals(image.getIsPrimary()))
+                .findFirst().or(() -> product.getImages().stream().findFirst()).map(ProductImage::getUrl)
+                .orElse(null);
+        List<Attribute> attributes = product.getAttributes().stream()
+                .map(attribute -> new Attribute(attribute.getName(), attribute.getAttributeValue())).toList();
+        return new CatalogDocument(product.getId(), product.getTitle(), product.getDescription(), attributes,
+                product.getPrice(), product.getCurrency(), thumbnail, product.getCondition(),
+                product.getAvailableQuantity() != null ? product.getAvailableQuantity() : 0,
+                product.getSoldQuantity() != null ? product.getSoldQuantity() : 0,
+                product.getSeller() != null ? product.getSeller().getId() : null,
+                product.getVersion() != null ? product.getVersion() : 0);
+    }
+
+    public record Attribute(String name, String value) {
+    }
+}
@@ -0,0 +1,574 @@
+package com.hackerrank.sample.search;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product title, description and attribute
+ * values, ranked with BM25 and a popularity boost from sold quantity.
+ * <p>
+ * Every document gets an int ordinal in insertion order, so each term's
+ * postings list is a packed {@code [ordinal, frequency, ...]} array that stays
+ * sorted by appending. Term frequencies are weighted per field (a title match
+ * counts more than a description match). Queries walk the postings of all
+ * query terms in parallel (document-at-a-time) and keep the best hits in a
+ * bounded heap of primitives. Once the heap is full, MaxScore pruning stops
+ * enumerating documents from terms whose best possible contribution cannot
+ * lift a document into it; those terms are only looked up, by galloping
+ * search, for documents found through the others.
+ * <p>
+ * Postings also keep, per block of {@value #BLOCK} entries, the highest
+ * frequency, the shortest document and the highest popularity in the block.
+ * When a single term is left to enumerate (always, for one-word queries such
+ * as "celular"), a block whose best possible score cannot reach the heap is
+ * skipped after counting its live documents (block-max pruning), so the total
+ * stays exact.
+ * <p>
+ * Updates replace a document with a new ordinal and leave a tombstone, as
+ * Lucene does; like there, tombstones still count in document frequencies
+ * until they are purged, which happens once they exceed a quarter of the live
+ * documents. Only what a search hit renders is kept in memory, not the
+ * indexed text. Reads share a lock; writes are exclusive.
+ */
+@Component
+@EnableConfigurationProperties(SearchProperties.class)
+public class CatalogIndex {
+
+    private static final int MIN_PURGE = 1024;
+    private static final int BLOCK = 64;
+
+    private final double k1;
+    private final double b;
+    private final int titleWeight;
+    private final int attributeWeight;
+    private final int descriptionWeight;
+    private final double popularityBoost;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private CatalogDocument[] documents = new CatalogDocument[1024];
+    private int[] lengths = new int[1024];
+    private float[] popularity = new float[1024];
+    private int nextOrdinal;
+    private int deleted;
+    private long totalLength;
+    private int maxSold;
+
+    public CatalogIndex(SearchProperties properties) {
+        this.k1 = properties.getK1();
+        this.b = properties.getB();
+        this.titleWeight = properties.getTitleWeight();
+        this.attributeWeight = properties.getAttributeWeight();
+        this.descriptionWeight = properties.getDescriptionWeight();
+        this.popularityBoost = properties.getPopularityBoost();
+    }
+
+    /** Adds or replaces a document. */
+    public void put(CatalogDocument document) {
+        putAll(List.of(document));
+    }
+
+    public void putAll(Collection<CatalogDocument> batch) {
+        lock.writeLock().lock();
+        try {
+            for (CatalogDocument document : batch) {
+                delete(document.id());
+                add(document);
+            }
+            purgeIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Returns false if the product was not indexed. */
+    public boolean remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = delete(productId);
+            purgeIfNeeded();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            ordinals.clear();
+            documents = new CatalogDocument[1024];
+            lengths = new int[1024];
+            popularity = new float[1024];
+            nextOrdinal = 0;
+            deleted = 0;
+            totalLength = 0;
+            maxSold = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the documents matching any query term and returns the requested
+     * page of hits, best first.
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> terms = TextAnalyzer.tokens(query).stream().distinct().toList();
+        if (terms.isEmpty() || limit <= 0) {
+            return SearchResult.EMPTY;
+        }
+        lock.readLock().lock();
+        try {
+            int live = ordinals.size();
+            List<Postings> matched = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list != null) {
+                    matched.add(list);
+                }
+            }
+            if (live == 0 || matched.isEmpty()) {
+                return SearchResult.EMPTY;
+            }
+            // the heap never needs more than the live documents; past them only the total is counted
+            int topK = offset >= live ? 1 : (int) Math.min((long) offset + limit, live);
+            return collect(matched, live, topK, offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Indexed display document of a product (no description or attributes), or null. */
+    public CatalogDocument document(Long productId) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinals.get(productId);
+            return ordinal != null ? documents[ordinal] : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private SearchResult collect(List<Postings> matched, int live, int topK, int offset) {
+        double lengthFactor = k1 * b * live / totalLength;
+        double lengthBase = k1 * (1 - b);
+        double popularityFactor = maxSold > 0 ? popularityBoost / Math.log1p(maxSold) : 0;
+        double maxPopularity = maxSold > 0 ? 1 + popularityBoost : 1;
+
+        // terms ordered by the most they can add to a score, smallest first
+        int terms = matched.size();
+        Postings[] lists = new Postings[terms];
+        double[] idf = new double[terms];
+        double[] bound = new double[terms];
+        Integer[] order = new Integer[terms];
+        double[] termIdf = new double[terms];
+        double[] termBound = new double[terms];
+        for (int t = 0; t < terms; t++) {
+            Postings list = matched.get(t);
+            termIdf[t] = Math.log(1 + (nextOrdinal - list.size + 0.5) / (list.size + 0.5));
+            termBound[t] = termIdf[t] * list.maxFrequency * (k1 + 1) / (list.maxFrequency + lengthBase);
+            order[t] = t;
+        }
+        Arrays.sort(order, (x, y) -> Double.compare(termBound[x], termBound[y]));
+        double[] cumulative = new double[terms];
+        for (int i = 0; i < terms; i++) {
+            lists[i] = matched.get(order[i]);
+            idf[i] = termIdf[order[i]];
+            bound[i] = termBound[order[i]];
+            cumulative[i] = bound[i] + (i > 0 ? cumulative[i - 1] : 0);
+        }
+
+        int[] cursors = new int[terms];
+        TopHits top = new TopHits(topK);
+        double threshold = Double.NEGATIVE_INFINITY;
+        int essential = 0;
+        int total = 0;
+        while (true) {
+            int ordinal = Integer.MAX_VALUE;
+            for (int t = essential; t < terms; t++) {
+                if (cursors[t] < lists[t].size) {
+                    ordinal = Math.min(ordinal, lists[t].ordinal(cursors[t]));
+                }
+            }
+            if (ordinal == Integer.MAX_VALUE) {
+                break;
+            }
+            if (essential == terms - 1 && top.size() == topK) {
+                Postings list = lists[essential];
+                int cursor = cursors[essential];
+                int block = cursor / BLOCK;
+                double others = essential > 0 ? cumulative[essential - 1] : 0;
+                int frequency = list.blockMaxFrequency[block];
+                double blockBound = (idf[essential] * frequency * (k1 + 1)
+                        / (frequency + lengthBase + lengthFactor * list.blockMinLength[block]) + others)
+                        * (1 + popularityFactor * list.blockMaxPopularity[block]);
+                if (blockBound <= threshold) {
+                    int end = Math.min(list.size, (block + 1) * BLOCK);
+                    for (int i = cursor; i < end; i++) {
+                        if (lengths[list.ordinal(i)] != 0) {
+                            total++;
+                        }
+                    }
+                    cursors[essential] = end;
+                    continue;
+                }
+            }
+            int length = lengths[ordinal];
+            double norm = lengthBase + lengthFactor * length;
+            double score = 0;
+            for (int t = essential; t < terms; t++) {
+                Postings list = lists[t];
+                int cursor = cursors[t];
+                if (cursor < list.size && list.ordinal(cursor) == ordinal) {
+                    int frequency = list.frequency(cursor);
+                    score += idf[t] * frequency * (k1 + 1) / (frequency + norm);
+                    cursors[t] = cursor + 1;
+                }
+            }
+            if (length == 0) {
+                continue; // deleted
+            }
+            total++;
+            double boost = 1 + popularityFactor * popularity[ordinal];
+            boolean competitive = true;
+            for (int t = essential - 1; t >= 0; t--) {
+                if ((score + cumulative[t]) * boost <= threshold) {
+                    competitive = false;
+                    break;
+                }
+                Postings list = lists[t];
+                int cursor = list.advance(cursors[t], ordinal);
+                cursors[t] = cursor;
+                if (cursor < list.size && list.ordinal(cursor) == ordinal) {
+                    int frequency = list.frequency(cursor);
+                    score += idf[t] * frequency * (k1 + 1) / (frequency + norm);
+                }
+            }
+            if (competitive && top.add(ordinal, score * boost) && top.size() == topK) {
+                threshold = top.worstScore();
+                while (essential < terms && cumulative[essential] * maxPopularity <= threshold) {
+                    essential++;
+                }
+            }
+        }
+
+        Hit[] ranked = new Hit[top.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = new Hit(documents[top.worstOrdinal()], top.worstScore());
+            top.removeWorst();
+        }
+        List<Hit> page = offset >= ranked.length ? List.of()
+                : Arrays.asList(ranked).subList(offset, ranked.length);
+        return new SearchResult(total, essential == 0, page);
+    }
+
+    private void add(CatalogDocument document) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        addTerms(frequencies, document.title(), titleWeight);
+        for (CatalogDocument.Attribute attribute : document.attributes()) {
+            addTerms(frequencies, attribute.value(), attributeWeight);
+        }
+        addTerms(frequencies, document.description(), descriptionWeight);
+
+        int ordinal = nextOrdinal++;
+        if (ordinal == documents.length) {
+            documents = Arrays.copyOf(documents, ordinal * 2);
+            lengths = Arrays.copyOf(lengths, ordinal * 2);
+            popularity = Arrays.copyOf(popularity, ordinal * 2);
+        }
+        int length = 0;
+        for (int frequency : frequencies.values()) {
+            length += frequency;
+        }
+        float boost = (float) Math.log1p(document.soldQuantity());
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new Postings())
+                    .add(ordinal, entry.getValue(), length, boost);
+        }
+        documents[ordinal] = document.forDisplay();
+        lengths[ordinal] = length;
+        popularity[ordinal] = boost;
+        ordinals.put(document.id(), ordinal);
+        totalLength += length;
+        maxSold = Math.max(maxSold, document.soldQuantity());
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String token : TextAnalyzer.tokens(text)) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private boolean delete(Long productId) {
+        Integer ordinal = ordinals.remove(productId);
+        if (ordinal == null) {
+            return false;
+        }
+        documents[ordinal] = null;
+        totalLength -= lengths[ordinal];
+        lengths[ordinal] = 0;
+        deleted++;
+        return true;
+    }
+
+    /** Drops tombstones from all postings and renumbers the live documents. */
+    private void purgeIfNeeded() {
+        if (deleted < MIN_PURGE || deleted < ordinals.size() / 4) {
+            return;
+        }
+        int[] remap = new int[nextOrdinal];
+        int live = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (documents[ordinal] != null) {
+                remap[ordinal] = live;
+                documents[live] = documents[ordinal];
+                lengths[live] = lengths[ordinal];
+                popularity[live] = popularity[ordinal];
+                ordinals.put(documents[live].id(), live);
+                live++;
+            } else {
+                remap[ordinal] = -1;
+            }
+        }
+        Arrays.fill(documents, live, nextOrdinal, null);
+        Arrays.fill(lengths, live, nextOrdinal, 0);
+        postings.values().removeIf(list -> list.retain(remap, lengths, popularity) == 0);
+        nextOrdinal = live;
+        deleted = 0;
+    }
+
+    /** Packed, ordinal-sorted postings of one term, with per-block score bounds. */
+    private static final class Postings {
+        private int[] data = new int[2];
+        private int size;
+        private int maxFrequency;
+        // per block of BLOCK entries; deleted documents still count, which only loosens the bound
+        private int[] blockMaxFrequency = new int[1];
+        private int[] blockMinLength = new int[1];
+        private float[] blockMaxPopularity = new float[1];
+
+        void add(int ordinal, int frequency, int length, float popularity) {
+            if (size * 2 == data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size * 2] = ordinal;
+            data[size * 2 + 1] = frequency;
+            maxFrequency = Math.max(maxFrequency, frequency);
+            int block = size / BLOCK;
+            if (block == blockMaxFrequency.length) {
+                blockMaxFrequency = Arrays.copyOf(blockMaxFrequency, block * 2);
+                blockMinLength = Arrays.copyOf(blockMinLength, block * 2);
+                blockMaxPopularity = Arrays.copyOf(blockMaxPopularity, block * 2);
+            }
+            if (size % BLOCK == 0) {
+                blockMaxFrequency[block] = frequency;
+                blockMinLength[block] = length;
+                blockMaxPopularity[block] = popularity;
+            } else {
+                blockMaxFrequency[block] = Math.max(blockMaxFrequency[block], frequency);
+                blockMinLength[block] = Math.min(blockMinLength[block], length);
+                blockMaxPopularity[block] = Math.max(blockMaxPopularity[block], popularity);
+            }
+            size++;
+        }
+
+        int ordinal(int index) {
+            return data[index << 1];
+        }
+
+        int frequency(int index) {
+            return data[(index << 1) + 1];
+        }
+
+        /** First index at or after {@code from} whose ordinal is at least {@code target} (galloping search). */
+        int advance(int from, int target) {
+            if (from >= size || ordinal(from) >= target) {
+                return from;
+            }
+            int low = from;
+            int step = 1;
+            int high = from + step;
+            while (high < size && ordinal(high) < target) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            high = Math.min(high, size);
+            // ordinal(low) < target, and high == size or ordinal(high) >= target
+            while (low + 1 < high) {
+                int middle = (low + high) >>> 1;
+                if (ordinal(middle) < target) {
+                    low = middle;
+                } else {
+                    high = middle;
+                }
+            }
+            return high;
+        }
+
+        /**
+         * Keeps live entries under their new ordinals, whose lengths and
+         * popularity are given, and rebuilds the block bounds; returns the new size.
+         */
+        int retain(int[] remap, int[] lengths, float[] popularity) {
+            int[] old = data;
+            int oldSize = size;
+            size = 0;
+            maxFrequency = 0;
+            for (int i = 0; i < oldSize; i++) {
+                int ordinal = remap[old[i * 2]];
+                if (ordinal >= 0) {
+                    add(ordinal, old[i * 2 + 1], lengths[ordinal], popularity[ordinal]);
+                }
+            }
+            if (data.length > 2 * Math.max(1, size) * 2) {
+                data = Arrays.copyOf(data, Math.max(1, size) * 2);
+            }
+            int blocks = Math.max(1, (size + BLOCK - 1) / BLOCK);
+            if (blockMaxFrequency.length > 2 * blocks) {
+                blockMaxFrequency = Arrays.copyOf(blockMaxFrequency, blocks);
+                blockMinLength = Arrays.copyOf(blockMinLength, blocks);
+                blockMaxPopularity = Arrays.copyOf(blockMaxPopularity, blocks);
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Bounded min-heap of (score, ordinal) on primitive arrays; on equal
+     * scores the older document ranks first.
+     */
+    private static final class TopHits {
+        private final int[] ordinals;
+        private final double[] scores;
+        private int size;
+
+        TopHits(int capacity) {
+            this.ordinals = new int[capacity];
+            this.scores = new double[capacity];
+        }
+
+        /** Returns false if the hit did not make it into the top. */
+        boolean add(int ordinal, double score) {
+            if (size < ordinals.length) {
+                ordinals[size] = ordinal;
+                scores[size] = score;
+                siftUp(size++);
+                return true;
+            }
+            if (worse(ordinals[0], scores[0], ordinal, score)) {
+                ordinals[0] = ordinal;
+                scores[0] = score;
+                siftDown(0);
+                return true;
+            }
+            return false;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int worstOrdinal() {
+            return ordinals[0];
+        }
+
+        double worstScore() {
+            return scores[0];
+        }
+
+        void removeWorst() {
+            size--;
+            ordinals[0] = ordinals[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+
+        private static boolean worse(int ordinal, double score, int otherOrdinal, double otherScore) {
+            return score < otherScore || (score == otherScore && ordinal > otherOrdinal);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(ordinals[i], scores[i], ordinals[parent], scores[parent])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    return;
+                }
+                if (child + 1 < size && worse(ordinals[child + 1], scores[child + 1], ordinals[child], scores[child])) {
+                    child++;
+                }
+                if (!worse(ordinals[child], scores[child], ordinals[i], scores[i])) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int ordinal = ordinals[i];
+            ordinals[i] = ordinals[j];
+            ordinals[j] = ordinal;
+            double score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+    }
+
+    public record Hit(CatalogDocument document, double score) {
+    }
+
+    /**
+     * @param total      matching documents
+     * @param totalExact false when pruning skipped documents that could not
+     *                   make the requested page, in which case {@code total}
+     *                   is a lower bound
+     */
+    public record SearchResult(int total, boolean totalExact, List<Hit> hits) {
+
+        static final SearchResult EMPTY = new SearchResult(0, true, List.of());
+    }
+}
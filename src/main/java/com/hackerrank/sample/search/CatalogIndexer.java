@@ -0,0 +1,212 @@
+package com.hackerrank.sample.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@link CatalogIndex}, {@link TitleSuggester}, {@link FacetIndex},
+ * {@link PriceIndex}, {@link RelatedProducts} and {@link DuplicateDetector} in
+ * sync with the products table: a full build when the application is ready
+ * (after data.sql or the synthetic catalog has been loaded), then incremental
+ * updates from {@link ProductChangedEvent}s once their transaction commits, so
+ * rolled-back changes never become searchable.
+ * <p>
+ * The build reads products in id order with plain JDBC, one page of products,
+ * attribute values and primary images at a time. Changes that commit while it
+ * runs are held back and applied afterwards, so a page read before the change
+ * cannot overwrite it.
+ */
+@Component
+@Slf4j
+public class CatalogIndexer {
+
+    private static final String PRODUCTS = "SELECT id, title, description, price, currency, available_quantity, "
+            + "sold_quantity, condition, seller_id, version FROM products WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String ATTRIBUTES = "SELECT product_id, name, attribute_value FROM product_attributes "
+            + "WHERE product_id BETWEEN ? AND ? ORDER BY id";
+    private static final String IMAGES = "SELECT product_id, url FROM product_images "
+            + "WHERE product_id BETWEEN ? AND ? ORDER BY product_id, is_primary DESC, id";
+
+    private final CatalogIndex index;
+    private final TitleSuggester suggester;
+    private final FacetIndex facets;
+    private final PriceIndex prices;
+    private final RelatedProducts related;
+    private final DuplicateDetector duplicates;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    // guarded by this
+    private List<ProductChangedEvent> pending;
+    // guarded by this; ids are never reused, so any change arriving after a deletion is stale
+    private final Set<Long> deleted = new HashSet<>();
+
+    public CatalogIndexer(CatalogIndex index, TitleSuggester suggester, FacetIndex facets, PriceIndex prices,
+            RelatedProducts related, DuplicateDetector duplicates, JdbcTemplate jdbcTemplate, SearchProperties properties,
+            MeterRegistry meterRegistry) {
+        this.index = index;
+        this.suggester = suggester;
+        this.facets = facets;
+        this.prices = prices;
+        this.related = related;
+        this.duplicates = duplicates;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = properties.getBuildBatchSize();
+        Gauge.builder("catalog.search.documents", index, CatalogIndex::size)
+                .description("Products in the search index").register(meterRegistry);
+        Gauge.builder("catalog.search.terms", index, CatalogIndex::termCount)
+                .description("Distinct terms in the search index").register(meterRegistry);
+        Gauge.builder("catalog.suggest.keys", suggester, TitleSuggester::keyCount)
+                .description("Distinct folded titles in the suggester").register(meterRegistry);
+        Gauge.builder("catalog.suggest.nodes", suggester, TitleSuggester::nodeCount)
+                .description("Nodes in the suggester trie").register(meterRegistry);
+        Gauge.builder("catalog.suggest.memory", suggester, TitleSuggester::estimatedBytes).baseUnit("bytes")
+                .description("Estimated heap held by the suggester trie").register(meterRegistry);
+        Gauge.builder("catalog.facets.values", facets, FacetIndex::valueCount)
+                .description("Distinct filterable name/value pairs").register(meterRegistry);
+        Gauge.builder("catalog.facets.memory", facets, FacetIndex::sizeInBytes).baseUnit("bytes")
+                .description("Size of the facet bitmaps").register(meterRegistry);
+        Gauge.builder("catalog.prices.indexed", prices, PriceIndex::size)
+                .description("Products with a price comparable in the base currency").register(meterRegistry);
+        Gauge.builder("catalog.related.products", related, RelatedProducts::size)
+                .description("Products with a MinHash signature").register(meterRegistry);
+        Gauge.builder("catalog.related.memory", related, RelatedProducts::sizeInBytes).baseUnit("bytes")
+                .description("Size of the MinHash signatures and LSH bands").register(meterRegistry);
+        Gauge.builder("catalog.duplicates.fingerprints", duplicates, DuplicateDetector::size)
+                .description("Products with a SimHash fingerprint").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        try {
+            index.clear();
+            suggester.clear();
+            facets.clear();
+            prices.clear();
+            related.clear();
+            duplicates.clear();
+            long lastId = 0;
+            List<CatalogDocument> page;
+            do {
+                page = readPage(lastId);
+                index.putAll(page);
+                suggester.putAll(page);
+                facets.putAll(page);
+                prices.putAll(page);
+                related.putAll(page);
+                duplicates.putAll(page);
+                if (!page.isEmpty()) {
+                    lastId = page.get(page.size() - 1).id();
+                }
+            } while (page.size() == batchSize);
+            facets.optimize();
+        } finally {
+            List<ProductChangedEvent> changes;
+            synchronized (this) {
+                changes = pending;
+                pending = null;
+            }
+            changes.forEach(this::apply);
+        }
+        log.info("Search index built with {} products and {} terms, suggester with {} titles (~{} KB), "
+                + "facets with {} values ({} KB), in {} ms", index.size(), index.termCount(), suggester.keyCount(),
+                suggester.estimatedBytes() / 1024, facets.valueCount(), facets.sizeInBytes() / 1024,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (this) {
+            if (pending != null) {
+                pending.add(event);
+                return;
+            }
+        }
+        apply(event);
+    }
+
+    /**
+     * Listeners of concurrent commits run on their own threads and in no
+     * particular order, so changes are applied one at a time and a change older
+     * than the indexed version of the product is dropped.
+     */
+    private synchronized void apply(ProductChangedEvent event) {
+        if (deleted.contains(event.productId())) {
+            return;
+        }
+        // the suggester is keyed by title, so it needs the indexed version to find the old entry
+        CatalogDocument previous = index.document(event.productId());
+        if (!event.isDeleted() && previous != null && event.document().version() < previous.version()) {
+            return;
+        }
+        if (previous != null) {
+            suggester.remove(previous);
+        }
+        if (event.isDeleted()) {
+            deleted.add(event.productId());
+            index.remove(event.productId());
+            facets.remove(event.productId());
+            prices.remove(event.productId());
+            related.remove(event.productId());
+            duplicates.remove(event.productId());
+        } else {
+            index.put(event.document());
+            suggester.put(event.document());
+            facets.put(event.document());
+            prices.put(event.document());
+            related.put(event.document());
+            duplicates.put(event.document());
+        }
+    }
+
+    private List<CatalogDocument> readPage(long afterId) {
+        List<CatalogDocument> products = jdbcTemplate.query(PRODUCTS,
+                (rs, rowNum) -> new CatalogDocument(rs.getLong("id"), rs.getString("title"),
+                        rs.getString("description"), List.of(), rs.getBigDecimal("price"), rs.getString("currency"),
+                        null, rs.getString("condition"), rs.getInt("available_quantity"),
+                        rs.getInt("sold_quantity"), rs.getLong("seller_id"), rs.getLong("version")),
+                afterId, batchSize);
+        if (products.isEmpty()) {
+            return products;
+        }
+        Long first = products.get(0).id();
+        Long last = products.get(products.size() - 1).id();
+
+        Map<Long, List<CatalogDocument.Attribute>> attributes = new HashMap<>();
+        jdbcTemplate.query(ATTRIBUTES, rs -> {
+            attributes.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>())
+                    .add(new CatalogDocument.Attribute(rs.getString(2), rs.getString(3)));
+        }, first, last);
+        Map<Long, String> thumbnails = new HashMap<>();
+        jdbcTemplate.query(IMAGES, rs -> {
+            thumbnails.putIfAbsent(rs.getLong(1), rs.getString(2));
+        }, first, last);
+
+        List<CatalogDocument> page = new ArrayList<>(products.size());
+        for (CatalogDocument product : products) {
+            page.add(new CatalogDocument(product.id(), product.title(), product.description(),
+                    attributes.get(product.id()), product.price(), product.currency(), thumbnails.get(product.id()),
+                    product.condition(), product.availableQuantity(), product.soldQuantity(), product.sellerId(),
+                    product.version()));
+        }
+        return page;
+    }
+}
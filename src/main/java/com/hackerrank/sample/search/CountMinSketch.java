@@ -0,0 +1,81 @@
+package com.hackerrank.sample.search;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-Min Sketch over long keys: {@code depth} rows of {@code width}
+ * counters, one counter per row incremented for each occurrence. The estimate
+ * is the smallest of a key's counters, so it never undercounts and overcounts
+ * by at most about 2n/width with probability 1 - 2^-depth. Increments are
+ * atomic adds, so concurrent writers need no lock; sketches of the same shape
+ * merge by adding their counters.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final AtomicIntegerArray counters;
+
+    /** @param width rounded up to a power of two */
+    CountMinSketch(int depth, int width) {
+        this.depth = Math.max(1, depth);
+        int columns = Integer.highestOneBit(Math.max(2, width) - 1) << 1;
+        this.mask = columns - 1;
+        this.counters = new AtomicIntegerArray(this.depth * columns);
+    }
+
+    void add(long key) {
+        long hash = mix(key);
+        for (int row = 0; row < depth; row++) {
+            counters.incrementAndGet(index(hash, row));
+        }
+    }
+
+    long estimate(long key) {
+        long hash = mix(key);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(index(hash, row)));
+        }
+        return min;
+    }
+
+    /** Adds this sketch's counters to {@code merged}, which has {@link #counterCount()} slots. */
+    void addTo(long[] merged) {
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] += counters.get(i);
+        }
+    }
+
+    /** Estimate of {@code key} from counters merged with {@link #addTo(long[])}. */
+    long estimate(long[] merged, long key) {
+        long hash = mix(key);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, merged[index(hash, row)]);
+        }
+        return min;
+    }
+
+    int counterCount() {
+        return counters.length();
+    }
+
+    long sizeInBytes() {
+        return (long) counters.length() * Integer.BYTES;
+    }
+
+    // row hashes derived from the two halves of one mixed hash (Kirsch-Mitzenmacher)
+    private int index(long hash, int row) {
+        int column = ((int) hash + row * (int) (hash >>> 32)) & mask;
+        return row * (mask + 1) + column;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long key) {
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,342 @@
+package com.hackerrank.sample.search;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Near-duplicate listings by SimHash: a 64-bit fingerprint of the weighted
+ * title and description words in which similar texts differ in few bits.
+ * Fingerprints within {@code maxDistance} bits (Hamming distance, at most 3)
+ * of the same seller's listings count as duplicates.
+ * <p>
+ * Lookups use four tables, one per 16-bit block of the fingerprint: two
+ * fingerprints at most 3 bits apart agree on at least one whole block, so only
+ * the products in the query's four buckets are compared. Block values are
+ * salted with a hash of the seller, so a title that many sellers list spreads
+ * over many buckets instead of crowding one. Buckets are int arrays, so a
+ * lookup is a few array scans. Reads share a lock; writes are exclusive.
+ */
+@Component
+@EnableConfigurationProperties(SearchProperties.class)
+public class DuplicateDetector {
+
+    /** Fingerprints differing in up to BLOCKS - 1 bits share a block. */
+    private static final int BLOCKS = 4;
+    private static final int BLOCK_BITS = Long.SIZE / BLOCKS;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final int maxDistance;
+    private final int maxCandidates;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final RoaringBitmap indexed = new RoaringBitmap();
+    private long[] fingerprints = new long[1024];
+    private long[] sellers = new long[1024];
+    // block * 2^16 + (block value ^ seller salt) -> product ids
+    private final int[][] buckets = new int[BLOCKS << BLOCK_BITS][];
+    private final int[] bucketSizes = new int[BLOCKS << BLOCK_BITS];
+    private final Map<Long, RoaringBitmap> bySeller = new HashMap<>();
+
+    public DuplicateDetector(SearchProperties properties) {
+        this.maxDistance = Math.max(0, Math.min(BLOCKS - 1, properties.getDuplicateMaxDistance()));
+        this.maxCandidates = properties.getDuplicateMaxCandidates();
+    }
+
+    /** Adds or replaces a document. */
+    public void put(CatalogDocument document) {
+        putAll(List.of(document));
+    }
+
+    public void putAll(Collection<CatalogDocument> documents) {
+        long[] computed = new long[documents.size()];
+        int i = 0;
+        for (CatalogDocument document : documents) {
+            computed[i++] = fingerprint(document.title(), document.description());
+        }
+        lock.writeLock().lock();
+        try {
+            i = 0;
+            for (CatalogDocument document : documents) {
+                int id = Math.toIntExact(document.id());
+                delete(id);
+                insert(id, computed[i++], document.sellerId() != null ? document.sellerId() : 0);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Returns false if the product was not indexed. */
+    public boolean remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            return delete(Math.toIntExact(productId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            indexed.clear();
+            fingerprints = new long[1024];
+            sellers = new long[1024];
+            Arrays.fill(buckets, null);
+            Arrays.fill(bucketSizes, 0);
+            bySeller.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The seller's listings whose title and description are near duplicates of
+     * the given ones, closest first.
+     */
+    public List<Duplicate> find(String title, String description, long sellerId, int limit) {
+        long fingerprint = fingerprint(title, description);
+        lock.readLock().lock();
+        try {
+            return matches(fingerprint, sellerId, -1, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Groups of the seller's listings linked by near-duplicate pairs, the
+     * largest first; each cluster lists its product ids in ascending order.
+     * The lock is only held to copy the seller's fingerprints, so writers are
+     * not blocked by the comparison itself.
+     */
+    public List<List<Long>> clusters(long sellerId) {
+        int[] ids;
+        long[] prints;
+        lock.readLock().lock();
+        try {
+            RoaringBitmap listings = bySeller.get(sellerId);
+            if (listings == null) {
+                return List.of();
+            }
+            ids = listings.toArray();
+            prints = new long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                prints[i] = fingerprints[ids[i]];
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // same blocks as the lookup tables: sorting by block value lines up the candidates of each bucket
+        int[] parent = new int[ids.length];
+        Arrays.setAll(parent, i -> i);
+        long[] keys = new long[ids.length];
+        for (int block = 0; block < BLOCKS; block++) {
+            for (int i = 0; i < ids.length; i++) {
+                keys[i] = (long) bucket(prints[i], block, 0) << Integer.SIZE | i;
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < keys.length; i++) {
+                int first = (int) keys[i];
+                for (int j = i + 1; j < keys.length && j <= i + maxCandidates
+                        && keys[j] >>> Integer.SIZE == keys[i] >>> Integer.SIZE; j++) {
+                    int second = (int) keys[j];
+                    if (Long.bitCount(prints[first] ^ prints[second]) <= maxDistance) {
+                        union(parent, first, second);
+                    }
+                }
+            }
+        }
+        int[] sizes = new int[parent.length];
+        for (int i = 0; i < parent.length; i++) {
+            sizes[root(parent, i)]++;
+        }
+        Map<Integer, List<Long>> groups = new HashMap<>();
+        for (int i = 0; i < parent.length; i++) {
+            int root = root(parent, i);
+            if (sizes[root] > 1) {
+                groups.computeIfAbsent(root, key -> new ArrayList<>(sizes[root])).add((long) ids[i]);
+            }
+        }
+        List<List<Long>> clusters = new ArrayList<>(groups.values());
+        clusters.sort(Comparator.<List<Long>> comparingInt(List::size).reversed()
+                .thenComparing(cluster -> cluster.get(0)));
+        return clusters;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return indexed.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * SimHash of the analyzed words: each word's 64-bit hash votes, with its
+     * weight, for the bits it has set and against those it has not.
+     */
+    static long fingerprint(String title, String description) {
+        int[] votes = new int[Long.SIZE];
+        vote(votes, TextAnalyzer.tokens(title), TITLE_WEIGHT);
+        vote(votes, TextAnalyzer.tokens(description), DESCRIPTION_WEIGHT);
+        long fingerprint = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (votes[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    private static void vote(int[] votes, List<String> words, int weight) {
+        for (String word : words) {
+            long hash = hash(word);
+            for (int bit = 0; bit < Long.SIZE; bit++) {
+                votes[bit] += (hash >>> bit & 1) != 0 ? weight : -weight;
+            }
+        }
+    }
+
+    private List<Duplicate> matches(long fingerprint, long sellerId, int excluded, int limit) {
+        List<Duplicate> duplicates = new ArrayList<>();
+        int scanned = 0;
+        int salt = salt(sellerId);
+        for (int block = 0; block < BLOCKS && scanned < maxCandidates; block++) {
+            int bucket = bucket(fingerprint, block, salt);
+            int[] ids = buckets[bucket];
+            for (int i = 0; i < bucketSizes[bucket] && scanned < maxCandidates; i++) {
+                int id = ids[i];
+                long other = fingerprints[id];
+                if (id == excluded || sellers[id] != sellerId || sharesEarlierBlock(fingerprint, other, block)) {
+                    continue;
+                }
+                scanned++;
+                int distance = Long.bitCount(fingerprint ^ other);
+                if (distance <= maxDistance) {
+                    duplicates.add(new Duplicate(id, distance));
+                }
+            }
+        }
+        duplicates.sort(Comparator.comparingInt(Duplicate::distance).thenComparingLong(Duplicate::productId));
+        return duplicates.size() > limit ? duplicates.subList(0, limit) : duplicates;
+    }
+
+    // a product sharing several blocks with the query is only compared in the first
+    private static boolean sharesEarlierBlock(long fingerprint, long other, int block) {
+        for (int earlier = 0; earlier < block; earlier++) {
+            if (bucket(fingerprint, earlier, 0) == bucket(other, earlier, 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void insert(int id, long fingerprint, long sellerId) {
+        if (id >= fingerprints.length) {
+            int grown = Math.max(id + 1, fingerprints.length * 2);
+            fingerprints = Arrays.copyOf(fingerprints, grown);
+            sellers = Arrays.copyOf(sellers, grown);
+        }
+        fingerprints[id] = fingerprint;
+        sellers[id] = sellerId;
+        indexed.add(id);
+        bySeller.computeIfAbsent(sellerId, key -> new RoaringBitmap()).add(id);
+        int salt = salt(sellerId);
+        for (int block = 0; block < BLOCKS; block++) {
+            int bucket = bucket(fingerprint, block, salt);
+            int[] ids = buckets[bucket];
+            if (ids == null) {
+                ids = buckets[bucket] = new int[2];
+            } else if (bucketSizes[bucket] == ids.length) {
+                ids = buckets[bucket] = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[bucketSizes[bucket]++] = id;
+        }
+    }
+
+    private boolean delete(int id) {
+        if (!indexed.checkedRemove(id)) {
+            return false;
+        }
+        RoaringBitmap listings = bySeller.get(sellers[id]);
+        listings.remove(id);
+        if (listings.isEmpty()) {
+            bySeller.remove(sellers[id]);
+        }
+        int salt = salt(sellers[id]);
+        for (int block = 0; block < BLOCKS; block++) {
+            int bucket = bucket(fingerprints[id], block, salt);
+            int[] ids = buckets[bucket];
+            int size = bucketSizes[bucket];
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[size - 1];
+                    bucketSizes[bucket] = size - 1;
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int bucket(long fingerprint, int block, int salt) {
+        return block << BLOCK_BITS | ((int) (fingerprint >>> (block * BLOCK_BITS)) ^ salt) & ((1 << BLOCK_BITS) - 1);
+    }
+
+    private static int salt(long sellerId) {
+        return (int) mix(sellerId);
+    }
+
+    private static int root(int[] parent, int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    private static void union(int[] parent, int first, int second) {
+        int a = root(parent, first);
+        int b = root(parent, second);
+        if (a != b) {
+            parent[Math.max(a, b)] = Math.min(a, b);
+        }
+    }
+
+    // FNV-1a over the UTF-8 bytes, mixed so that every bit is a fair vote
+    private static long hash(String word) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : word.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** @param distance bits in which the fingerprints differ */
+    public record Duplicate(long productId, int distance) {
+    }
+}
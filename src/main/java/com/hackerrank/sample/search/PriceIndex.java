@@ -0,0 +1,232 @@
+package com.hackerrank.sample.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntConsumer;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Products ordered by price, converted to the base currency with the
+ * configured exchange rates so that prices in different currencies compare.
+ * Entries are single longs, price in base-currency cents in the high bits and
+ * product id in the low 31, kept in a balanced tree: a price range or the
+ * first page in price order costs O(log n) plus the entries returned.
+ * <p>
+ * When the result has to match other filters as well, the tree is walked in
+ * order and entries outside the filter are skipped; filters that keep only a
+ * small part of the catalog are sorted directly instead. Products in a
+ * currency without an exchange rate are left out, as are prices above about
+ * 42 million in the base currency. Reads share a lock; writes are exclusive.
+ */
+@Component
+@EnableConfigurationProperties(SearchProperties.class)
+@Slf4j
+public class PriceIndex {
+
+    private static final int ID_BITS = 31;
+    private static final long MAX_CENTS = (1L << (Long.SIZE - 1 - ID_BITS)) - 1;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final BigDecimal MAX_AMOUNT = BigDecimal.valueOf(MAX_CENTS, 2);
+
+    /** Filters keeping less than 1/64 of the catalog are sorted instead of walking the tree. */
+    private static final int SORT_SELECTIVITY = 64;
+
+    private final Map<String, BigDecimal> rates = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final TreeSet<Long> entries = new TreeSet<>();
+    private final RoaringBitmap priced = new RoaringBitmap();
+    // product id -> its entry, 0 when not indexed
+    private long[] entryById = new long[1024];
+
+    public PriceIndex(SearchProperties properties) {
+        properties.getExchangeRates().forEach((currency, rate) -> rates.put(currency.toUpperCase(Locale.ROOT), rate));
+        rates.putIfAbsent(properties.getBaseCurrency().toUpperCase(Locale.ROOT), BigDecimal.ONE);
+    }
+
+    /** Adds or replaces a document. */
+    public void put(CatalogDocument document) {
+        putAll(List.of(document));
+    }
+
+    public void putAll(Collection<CatalogDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            for (CatalogDocument document : documents) {
+                int id = Math.toIntExact(document.id());
+                delete(id);
+                long cents = toBaseCents(document.price(), document.currency());
+                if (cents < 0) {
+                    log.debug("Product {} has no comparable price ({} {})", id, document.price(),
+                            document.currency());
+                    continue;
+                }
+                long entry = cents << ID_BITS | id;
+                entries.add(entry);
+                priced.add(id);
+                if (id >= entryById.length) {
+                    entryById = Arrays.copyOf(entryById, Math.max(id + 1, entryById.length * 2));
+                }
+                entryById[id] = entry;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Returns false if the product was not indexed. */
+    public boolean remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            return delete(Math.toIntExact(productId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            priced.clear();
+            entryById = new long[1024];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Copy of the ids of all products with a comparable price. */
+    public RoaringBitmap priced() {
+        lock.readLock().lock();
+        try {
+            return priced.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Products priced between the bounds (inclusive, base currency); a null bound is open. */
+    public RoaringBitmap between(BigDecimal min, BigDecimal max) {
+        long minCents = min == null ? 0 : Math.max(0, cents(min));
+        long maxCents = max == null ? MAX_CENTS : Math.min(MAX_CENTS, cents(max));
+        RoaringBitmap ids = new RoaringBitmap();
+        if (minCents > maxCents) {
+            return ids;
+        }
+        long from = minCents << ID_BITS;
+        long to = maxCents << ID_BITS | ID_MASK;
+        lock.readLock().lock();
+        try {
+            for (long entry : entries.subSet(from, true, to, true)) {
+                ids.add((int) (entry & ID_MASK));
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A page of {@code matches} in price order, cheapest first unless
+     * {@code descending}; equal prices by id in the same direction. Matching
+     * products without a comparable price are left out.
+     */
+    public List<Long> sorted(RoaringBitmap matches, boolean descending, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            if (limit <= 0 || offset >= matches.getCardinality()) {
+                return List.of();
+            }
+            if ((long) matches.getCardinality() * SORT_SELECTIVITY < entries.size()) {
+                return sortMatches(matches, descending, offset, limit);
+            }
+            NavigableSet<Long> ordered = descending ? entries.descendingSet() : entries;
+            List<Long> page = new ArrayList<>(limit);
+            int skipped = 0;
+            Iterator<Long> iterator = ordered.iterator();
+            while (iterator.hasNext() && page.size() < limit) {
+                int id = (int) (iterator.next() & ID_MASK);
+                if (matches.contains(id) && skipped++ >= offset) {
+                    page.add((long) id);
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Price in base-currency cents, or -1 when it cannot be converted. */
+    long toBaseCents(BigDecimal price, String currency) {
+        BigDecimal rate = currency == null ? null : rates.get(currency.strip().toUpperCase(Locale.ROOT));
+        if (price == null || rate == null || price.signum() < 0) {
+            return -1;
+        }
+        long cents = cents(price.multiply(rate));
+        return cents <= MAX_CENTS ? cents : -1;
+    }
+
+    private List<Long> sortMatches(RoaringBitmap matches, boolean descending, int offset, int limit) {
+        long[] keys = new long[matches.getCardinality()];
+        int[] size = { 0 };
+        long[] byId = entryById;
+        matches.forEach((IntConsumer) id -> {
+            if (id < byId.length && byId[id] != 0) {
+                keys[size[0]++] = byId[id];
+            }
+        });
+        Arrays.sort(keys, 0, size[0]);
+        List<Long> page = new ArrayList<>(Math.min(limit, Math.max(0, size[0] - offset)));
+        for (int i = offset; i < size[0] && page.size() < limit; i++) {
+            long entry = descending ? keys[size[0] - 1 - i] : keys[i];
+            page.add(entry & ID_MASK);
+        }
+        return page;
+    }
+
+    private boolean delete(int id) {
+        if (id >= entryById.length || entryById[id] == 0) {
+            return false;
+        }
+        entries.remove(entryById[id]);
+        priced.remove(id);
+        entryById[id] = 0;
+        return true;
+    }
+
+    // compared before scaling, so that huge amounts cannot wrap around: negative is -1, too high MAX_CENTS + 1
+    private static long cents(BigDecimal amount) {
+        if (amount.signum() < 0) {
+            return -1;
+        }
+        if (amount.compareTo(MAX_AMOUNT) > 0) {
+            return MAX_CENTS + 1;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+}
@@ -0,0 +1,23 @@
+package com.hackerrank.sample.search;
+
+/**
+ * Published by ProductService when a product is created, updated or deleted,
+ * and applied to the in-memory catalog indexes once the transaction commits.
+ *
+ * @param productId the product that changed
+ * @param document  the new state of the product, or {@code null} if it was deleted
+ */
+public record ProductChangedEvent(Long productId, CatalogDocument document) {
+
+    public static ProductChangedEvent saved(CatalogDocument document) {
+        return new ProductChangedEvent(document.id(), document);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null);
+    }
+
+    public boolean isDeleted() {
+        return document == null;
+    }
+}
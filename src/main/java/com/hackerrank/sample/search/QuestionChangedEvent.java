@@ -0,0 +1,24 @@
+package com.hackerrank.sample.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by QuestionService when a question is asked, answered or deleted,
+ * and applied to {@link QuestionIndex} once the transaction commits.
+ *
+ * @param answer the answer, or {@code null} while unanswered or once deleted
+ * @param version the question's version as committed, so that a late event
+ *        cannot undo a newer one; a deletion supersedes every version
+ */
+public record QuestionChangedEvent(Long productId, Long questionId, String question, String answer,
+        LocalDateTime answeredAt, long version, boolean deleted) {
+
+    public static QuestionChangedEvent saved(Long productId, Long questionId, String question, String answer,
+            LocalDateTime answeredAt, long version) {
+        return new QuestionChangedEvent(productId, questionId, question, answer, answeredAt, version, false);
+    }
+
+    public static QuestionChangedEvent deleted(Long productId, Long questionId) {
+        return new QuestionChangedEvent(productId, questionId, null, null, null, Long.MAX_VALUE, true);
+    }
+}
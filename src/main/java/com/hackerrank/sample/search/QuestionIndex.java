@@ -0,0 +1,247 @@
+package com.hackerrank.sample.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answered questions of each product, indexed by character trigrams of the
+ * analyzed words of the question and its answer, so that a question being
+ * typed finds the ones already answered: partial words ("garan") and small
+ * typos still share most of their trigrams. A candidate scores the share of
+ * the query's trigrams it contains, those in the question counting double
+ * those only in the answer.
+ * <p>
+ * Products are loaded from the questions table on their first lookup and kept
+ * in a bounded least-recently-used cache; {@link QuestionChangedEvent}s update
+ * cached products in place once their transaction commits. Listeners may run
+ * out of commit order, so each product remembers the latest version of its
+ * questions, deleted ones included, and ignores older events. A load that
+ * overlaps any change is returned but not cached, so it cannot keep a stale
+ * copy.
+ */
+@Component
+@EnableConfigurationProperties(SearchProperties.class)
+public class QuestionIndex {
+
+    private static final String ANSWERED = "SELECT id, question, answer, answered_at, version FROM questions "
+            + "WHERE product_id = ? AND answer IS NOT NULL ORDER BY id";
+    private static final char PAD = '$';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final double minSimilarity;
+    // guarded by itself; access order, so the least recently queried product is evicted first
+    private final Map<Long, ProductQuestions> products;
+    // bumped by every change
+    private final AtomicLong changes = new AtomicLong();
+
+    public QuestionIndex(JdbcTemplate jdbcTemplate, SearchProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.minSimilarity = properties.getQuestionMinSimilarity();
+        int maxProducts = properties.getQuestionCacheProducts();
+        this.products = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ProductQuestions> eldest) {
+                return size() > maxProducts;
+            }
+        };
+        Gauge.builder("catalog.questions.products", this, QuestionIndex::cachedProducts)
+                .description("Products whose answered questions are indexed in memory").register(meterRegistry);
+    }
+
+    /**
+     * Up to {@code limit} answered questions of the product closest to the
+     * given text, best first. The last word may be incomplete.
+     */
+    public List<Match> similar(Long productId, String text, int limit) {
+        long[] query = trigrams(text, true);
+        if (query.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        return questions(productId).search(query, limit, minSimilarity);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        changes.incrementAndGet();
+        ProductQuestions cached;
+        synchronized (products) {
+            cached = products.get(event.productId());
+        }
+        if (cached != null) {
+            cached.apply(event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            changes.incrementAndGet();
+            synchronized (products) {
+                products.remove(event.productId());
+            }
+        }
+    }
+
+    public int cachedProducts() {
+        synchronized (products) {
+            return products.size();
+        }
+    }
+
+    /**
+     * Distinct trigrams of the analyzed words, each padded with {@code $} at
+     * both ends; while {@code typing}, a last word not yet followed by a
+     * separator is only padded at the start, so it matches longer words.
+     */
+    static long[] trigrams(String text, boolean typing) {
+        List<String> words = TextAnalyzer.tokens(text);
+        boolean partial = typing && !words.isEmpty() && Character.isLetterOrDigit(text.charAt(text.length() - 1));
+        TreeSet<Long> trigrams = new TreeSet<>();
+        for (int i = 0; i < words.size(); i++) {
+            String padded = PAD + words.get(i) + (partial && i == words.size() - 1 ? "" : String.valueOf(PAD));
+            for (int start = 0; start + 3 <= padded.length(); start++) {
+                trigrams.add((long) padded.charAt(start) << 32 | (long) padded.charAt(start + 1) << 16
+                        | padded.charAt(start + 2));
+            }
+        }
+        return trigrams.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private ProductQuestions questions(Long productId) {
+        synchronized (products) {
+            ProductQuestions cached = products.get(productId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long before = changes.get();
+        ProductQuestions loaded = new ProductQuestions();
+        jdbcTemplate.query(ANSWERED, rs -> {
+            Timestamp answeredAt = rs.getTimestamp(4);
+            loaded.apply(QuestionChangedEvent.saved(productId, rs.getLong(1), rs.getString(2), rs.getString(3),
+                    answeredAt != null ? answeredAt.toLocalDateTime() : null, rs.getLong(5)));
+        }, productId);
+        synchronized (products) {
+            if (changes.get() == before) {
+                products.putIfAbsent(productId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /** One product's answered questions and their trigram postings. */
+    private static final class ProductQuestions {
+
+        private final List<Match> entries = new ArrayList<>();
+        private final Map<Long, Integer> slots = new HashMap<>();
+        // trigram -> slot << 1 | 1 if the question has it, 0 if only the answer does
+        private final Map<Long, int[]> postings = new HashMap<>();
+        // question id -> latest version applied, Long.MAX_VALUE once deleted
+        private final Map<Long, Long> versions = new HashMap<>();
+        private int removed;
+
+        synchronized void apply(QuestionChangedEvent event) {
+            if (event.version() < versions.getOrDefault(event.questionId(), -1L)) {
+                return;
+            }
+            versions.put(event.questionId(), event.version());
+            if (event.deleted() || event.answer() == null) {
+                remove(event.questionId());
+            } else {
+                add(event.questionId(), event.question(), event.answer(), event.answeredAt());
+            }
+        }
+
+        synchronized void add(long questionId, String question, String answer, LocalDateTime answeredAt) {
+            remove(questionId);
+            int slot = entries.size();
+            entries.add(new Match(questionId, question, answer, answeredAt, 0));
+            slots.put(questionId, slot);
+            long[] inQuestion = trigrams(question, false);
+            for (long trigram : inQuestion) {
+                append(trigram, slot << 1 | 1);
+            }
+            for (long trigram : trigrams(answer, false)) {
+                if (Arrays.binarySearch(inQuestion, trigram) < 0) {
+                    append(trigram, slot << 1);
+                }
+            }
+        }
+
+        synchronized void remove(long questionId) {
+            Integer slot = slots.remove(questionId);
+            if (slot == null) {
+                return;
+            }
+            // postings keep the slot until enough are dead to rebuild
+            entries.set(slot, null);
+            if (++removed > 16 && removed > entries.size() / 2) {
+                List<Match> live = entries.stream().filter(entry -> entry != null).toList();
+                entries.clear();
+                slots.clear();
+                postings.clear();
+                removed = 0;
+                live.forEach(entry -> add(entry.questionId(), entry.question(), entry.answer(), entry.answeredAt()));
+            }
+        }
+
+        synchronized List<Match> search(long[] query, int limit, double minSimilarity) {
+            int[] hits = new int[entries.size()];
+            for (long trigram : query) {
+                int[] list = postings.get(trigram);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 1; i <= list[0]; i++) {
+                    hits[list[i] >>> 1] += (list[i] & 1) != 0 ? 2 : 1;
+                }
+            }
+            List<Match> matches = new ArrayList<>();
+            for (int slot = 0; slot < hits.length; slot++) {
+                Match entry = entries.get(slot);
+                double similarity = hits[slot] / (2.0 * query.length);
+                if (entry != null && similarity >= minSimilarity) {
+                    matches.add(new Match(entry.questionId(), entry.question(), entry.answer(), entry.answeredAt(),
+                            similarity));
+                }
+            }
+            matches.sort(Comparator.comparingDouble(Match::similarity).reversed()
+                    .thenComparing(Comparator.comparingLong(Match::questionId).reversed()));
+            return matches.subList(0, Math.min(limit, matches.size()));
+        }
+
+        // list[0] holds the size
+        private void append(long trigram, int value) {
+            int[] list = postings.get(trigram);
+            if (list == null) {
+                list = new int[4];
+                postings.put(trigram, list);
+            } else if (list[0] + 1 == list.length) {
+                list = Arrays.copyOf(list, list.length * 2);
+                postings.put(trigram, list);
+            }
+            list[++list[0]] = value;
+        }
+    }
+
+    /** @param similarity weighted share of the query's trigrams found, 0 to 1 */
+    public record Match(long questionId, String question, String answer, LocalDateTime answeredAt,
+            double similarity) {
+    }
+}
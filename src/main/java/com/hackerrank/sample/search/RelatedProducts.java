@@ -0,0 +1,371 @@
+package com.hackerrank.sample.search;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Similar products by MinHash over each product's features: its analyzed
+ * title words, pairs of adjacent title words and its attribute name/value
+ * pairs. A signature keeps, for each of {@code bands * rows} hash functions,
+ * the smallest hash of any feature; the share of positions two signatures
+ * agree on estimates the Jaccard similarity of their feature sets. Signature
+ * values keep 16 bits, which biases the estimate by about 1/65536.
+ * <p>
+ * Locality-sensitive hashing finds candidates without comparing every pair:
+ * each band of {@code rows} values is hashed into a table, and only products
+ * sharing a band key with the query are scored. With 8 bands of 4 rows, pairs
+ * at 0.6 similarity are found 67% of the time, pairs at 0.8 98.5%. Products
+ * sharing a band are chained through per-band int arrays rather than
+ * collections, so an indexed product costs about 200 bytes. Reads share a
+ * lock; writes are exclusive.
+ */
+@Component
+@EnableConfigurationProperties(SearchProperties.class)
+public class RelatedProducts {
+
+    private static final int INITIAL_IDS = 1024;
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final int bands;
+    private final int rows;
+    private final int hashes;
+    private final int maxCandidates;
+    private final double minSimilarity;
+    private final long[] seeds;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final RoaringBitmap indexed = new RoaringBitmap();
+    // id * hashes + i -> minimum of hash function i
+    private short[] signatures;
+    // node = id * bands + band; links hold node + 1, 0 ends the chain
+    private int[] next;
+    private int[] previous;
+    // open addressing on band keys (never 0); heads hold node + 1, 0 once a key's chain empties
+    private int[] tableKeys;
+    private int[] tableHeads;
+    private int tableUsed;
+    private int tableLive;
+
+    public RelatedProducts(SearchProperties properties) {
+        this.bands = Math.max(1, properties.getRelatedBands());
+        this.rows = Math.max(1, properties.getRelatedRows());
+        this.hashes = bands * rows;
+        this.maxCandidates = properties.getRelatedMaxCandidates();
+        this.minSimilarity = properties.getRelatedMinSimilarity();
+        SplittableRandom random = new SplittableRandom(SEED);
+        this.seeds = new long[hashes];
+        for (int i = 0; i < hashes; i++) {
+            seeds[i] = random.nextLong();
+        }
+        reset();
+    }
+
+    /** Adds or replaces a document. */
+    public void put(CatalogDocument document) {
+        putAll(List.of(document));
+    }
+
+    public void putAll(Collection<CatalogDocument> documents) {
+        List<short[]> computed = new ArrayList<>(documents.size());
+        for (CatalogDocument document : documents) {
+            computed.add(signature(document));
+        }
+        lock.writeLock().lock();
+        try {
+            int i = 0;
+            for (CatalogDocument document : documents) {
+                int id = Math.toIntExact(document.id());
+                short[] signature = computed.get(i++);
+                delete(id);
+                if (signature != null) {
+                    insert(id, signature);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Returns false if the product was not indexed. */
+    public boolean remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            return delete(Math.toIntExact(productId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} products most similar to the given one, best first,
+     * among those sharing a band with it; empty if it is not indexed.
+     */
+    public List<Related> related(Long productId, int limit) {
+        lock.readLock().lock();
+        try {
+            int id = Math.toIntExact(productId);
+            if (!indexed.contains(id) || limit <= 0) {
+                return List.of();
+            }
+            RoaringBitmap seen = new RoaringBitmap();
+            List<Related> related = new ArrayList<>();
+            int scanned = 0;
+            for (int band = 0; band < bands && scanned < maxCandidates; band++) {
+                int slot = find(bandKey(id, band));
+                for (int link = slot < 0 ? 0 : tableHeads[slot]; link != 0 && scanned < maxCandidates;
+                        link = next[link - 1]) {
+                    int candidate = (link - 1) / bands;
+                    if (candidate == id || !seen.checkedAdd(candidate)) {
+                        continue;
+                    }
+                    scanned++;
+                    double similarity = similarity(id, candidate);
+                    if (similarity >= minSimilarity) {
+                        related.add(new Related(candidate, similarity));
+                    }
+                }
+            }
+            related.sort(Comparator.comparingDouble(Related::similarity).reversed()
+                    .thenComparingLong(Related::productId));
+            return related.subList(0, Math.min(limit, related.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return indexed.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Bytes held by signatures, band chains and the band table. */
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) signatures.length * Short.BYTES + (long) (next.length + previous.length) * Integer.BYTES
+                    + (long) (tableKeys.length + tableHeads.length) * Integer.BYTES + indexed.getLongSizeInBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Estimated Jaccard similarity of two indexed products. */
+    double similarity(int first, int second) {
+        int equal = 0;
+        int a = first * hashes;
+        int b = second * hashes;
+        for (int i = 0; i < hashes; i++) {
+            if (signatures[a + i] == signatures[b + i]) {
+                equal++;
+            }
+        }
+        return (double) equal / hashes;
+    }
+
+    /** MinHash signature of the document's features, or null when it has none. */
+    short[] signature(CatalogDocument document) {
+        List<String> features = features(document);
+        if (features.isEmpty()) {
+            return null;
+        }
+        long[] minimums = new long[hashes];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+        for (String feature : features) {
+            long hash = hash(feature);
+            for (int i = 0; i < hashes; i++) {
+                // compare unsigned so the minimum is uniform over all values
+                long value = mix(hash ^ seeds[i]) >>> 1;
+                if (value < minimums[i]) {
+                    minimums[i] = value;
+                }
+            }
+        }
+        short[] signature = new short[hashes];
+        for (int i = 0; i < hashes; i++) {
+            signature[i] = (short) (minimums[i] >>> 47);
+        }
+        return signature;
+    }
+
+    static List<String> features(CatalogDocument document) {
+        List<String> features = new ArrayList<>();
+        List<String> words = TextAnalyzer.tokens(document.title());
+        for (int i = 0; i < words.size(); i++) {
+            features.add("w:" + words.get(i));
+            if (i > 0) {
+                features.add("p:" + words.get(i - 1) + " " + words.get(i));
+            }
+        }
+        if (document.attributes() != null) {
+            for (CatalogDocument.Attribute attribute : document.attributes()) {
+                if (attribute.name() != null && attribute.value() != null) {
+                    features.add("a:" + TextAnalyzer.phrase(attribute.name()) + "="
+                            + TextAnalyzer.phrase(attribute.value()));
+                }
+            }
+        }
+        return features;
+    }
+
+    private void insert(int id, short[] signature) {
+        ensureCapacity(id);
+        System.arraycopy(signature, 0, signatures, id * hashes, hashes);
+        indexed.add(id);
+        if (tableUsed + bands > tableKeys.length * 3 / 4) {
+            // emptied keys are dropped by the rehash, so only live chains decide whether to grow
+            rehash(tableLive + bands > tableKeys.length / 2 ? tableKeys.length * 2 : tableKeys.length);
+        }
+        for (int band = 0; band < bands; band++) {
+            int key = bandKey(id, band);
+            int slot = find(key);
+            if (slot < 0) {
+                slot = -slot - 1;
+                tableKeys[slot] = key;
+                tableUsed++;
+            }
+            int node = id * bands + band;
+            int head = tableHeads[slot];
+            next[node] = head;
+            previous[node] = 0;
+            if (head != 0) {
+                previous[head - 1] = node + 1;
+            } else {
+                tableLive++;
+            }
+            tableHeads[slot] = node + 1;
+        }
+    }
+
+    private boolean delete(int id) {
+        if (!indexed.checkedRemove(id)) {
+            return false;
+        }
+        for (int band = 0; band < bands; band++) {
+            int node = id * bands + band;
+            int before = previous[node];
+            int after = next[node];
+            if (before != 0) {
+                next[before - 1] = after;
+            } else {
+                // emptied keys stay in the table until the next rehash
+                tableHeads[find(bandKey(id, band))] = after;
+                if (after == 0) {
+                    tableLive--;
+                }
+            }
+            if (after != 0) {
+                previous[after - 1] = before;
+            }
+            next[node] = 0;
+            previous[node] = 0;
+        }
+        return true;
+    }
+
+    /** Slot holding the key, or -(free slot) - 1 when absent. */
+    private int find(int key) {
+        int mask = tableKeys.length - 1;
+        for (int slot = (int) mix(key) & mask;; slot = (slot + 1) & mask) {
+            if (tableKeys[slot] == key) {
+                return slot;
+            }
+            if (tableKeys[slot] == 0) {
+                return -slot - 1;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = tableKeys;
+        int[] oldHeads = tableHeads;
+        tableKeys = new int[capacity];
+        tableHeads = new int[capacity];
+        tableUsed = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldHeads[slot] != 0) {
+                int free = -find(oldKeys[slot]) - 1;
+                tableKeys[free] = oldKeys[slot];
+                tableHeads[free] = oldHeads[slot];
+                tableUsed++;
+            }
+        }
+        tableLive = tableUsed;
+    }
+
+    // band keys are 32-bit, so unrelated bands occasionally share a chain; scoring filters them out
+    private int bandKey(int id, int band) {
+        long hash = band;
+        int offset = id * hashes + band * rows;
+        for (int row = 0; row < rows; row++) {
+            hash = hash * 0x100000001B3L + signatures[offset + row];
+        }
+        return (int) mix(hash) | 1;
+    }
+
+    private void ensureCapacity(int id) {
+        int ids = signatures.length / hashes;
+        if (id < ids) {
+            return;
+        }
+        int grown = Math.max(id + 1, ids * 2);
+        signatures = Arrays.copyOf(signatures, grown * hashes);
+        next = Arrays.copyOf(next, grown * bands);
+        previous = Arrays.copyOf(previous, grown * bands);
+    }
+
+    private void reset() {
+        indexed.clear();
+        signatures = new short[INITIAL_IDS * hashes];
+        next = new int[INITIAL_IDS * bands];
+        previous = new int[INITIAL_IDS * bands];
+        tableKeys = new int[Integer.highestOneBit(INITIAL_IDS * bands) * 2];
+        tableHeads = new int[tableKeys.length];
+        tableUsed = 0;
+        tableLive = 0;
+    }
+
+    // FNV-1a over the UTF-8 bytes
+    private static long hash(String feature) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : feature.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** @param similarity estimated Jaccard similarity of the two products' features, 0 to 1 */
+    public record Related(long productId, double similarity) {
+    }
+}
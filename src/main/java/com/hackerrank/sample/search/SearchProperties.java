@@ -0,0 +1,129 @@
+package com.hackerrank.sample.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Full-text product search (app.search.*): BM25 parameters, field weights,
+ * the popularity boost from sold quantity, title suggestions, facets, the
+ * exchange rates used to compare prices, the trending-products sketches, the
+ * MinHash signatures of related products, duplicate-listing detection and the
+ * similar-questions lookup.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.search")
+public class SearchProperties {
+
+    /** BM25 term-frequency saturation. */
+    private double k1 = 1.2;
+
+    /** BM25 document-length normalization. */
+    private double b = 0.75;
+
+    private int titleWeight = 3;
+    private int attributeWeight = 2;
+    private int descriptionWeight = 1;
+
+    /**
+     * Maximum relative boost of the best-selling product: scores are multiplied
+     * by 1 + popularity-boost * log(1 + sold) / log(1 + maxSold).
+     */
+    private double popularityBoost = 0.5;
+
+    private int defaultLimit = 20;
+    private int maxLimit = 100;
+
+    /** Deepest search offset; ranking keeps offset + limit hits in memory. */
+    private int maxOffset = 10_000;
+
+    private int suggestLimit = 10;
+    private int suggestMaxLimit = 20;
+
+    /** Folded titles are truncated to this many characters in the suggester. */
+    private int suggestMaxKeyLength = 64;
+
+    /** Upper bound on typo corrections (Damerau-Levenshtein edits) per suggestion. */
+    private int suggestMaxEdits = 2;
+
+    /** Fields with more distinct values than this are filterable but get no facet counts. */
+    private int facetMaxValues = 100;
+
+    /** Values reported per facet, by count. */
+    private int facetLimit = 10;
+
+    /** Currency that prices are converted to for price filters and sorting. */
+    private String baseCurrency = "USD";
+
+    /** Value of one unit of each currency in the base currency. */
+    private Map<String, BigDecimal> exchangeRates = new HashMap<>();
+
+    private int trendingLimit = 10;
+    private int trendingMaxLimit = 50;
+
+    /** Count-Min Sketch rows per trending bucket; more rows, fewer overestimates. */
+    private int trendingSketchDepth = 4;
+
+    /** Counters per sketch row, rounded up to a power of two. */
+    private int trendingSketchWidth = 2048;
+
+    /** Heavy-hitter candidates kept per trending bucket. */
+    private int trendingCandidates = 100;
+
+    private int relatedLimit = 10;
+    private int relatedMaxLimit = 50;
+
+    /** LSH bands per MinHash signature; more bands find less similar products. */
+    private int relatedBands = 8;
+
+    /** Signature values per LSH band; more rows make a shared band stricter. */
+    private int relatedRows = 4;
+
+    /** Products scored per related-products query, to bound the cost of crowded bands. */
+    private int relatedMaxCandidates = 1000;
+
+    /** Estimated Jaccard similarity below which candidates are not returned. */
+    private double relatedMinSimilarity = 0.2;
+
+    private int duplicateLimit = 20;
+    private int duplicateMaxLimit = 100;
+
+    /** What creating a near duplicate of one of the seller's listings does. */
+    private DuplicatePolicy duplicatePolicy = DuplicatePolicy.FLAG;
+
+    /** SimHash bits in which listings may differ and still be duplicates, 0 to 3. */
+    private int duplicateMaxDistance = 3;
+
+    /** Fingerprints compared per duplicate check, to bound the cost of crowded buckets. */
+    private int duplicateMaxCandidates = 200;
+
+    /** How long a seller's duplicate groups are served before they are computed again. */
+    private Duration duplicateCacheTtl = Duration.ofMinutes(1);
+
+    private int similarQuestionsLimit = 5;
+    private int similarQuestionsMaxLimit = 20;
+
+    /** Weighted share of a question's trigrams an answered question must contain to be returned. */
+    private double questionMinSimilarity = 0.5;
+
+    /** Products whose answered questions are kept indexed, least recently used evicted first. */
+    private int questionCacheProducts = 10000;
+
+    /** Products read per page while building the index at startup. */
+    private int buildBatchSize = 5000;
+
+    public enum DuplicatePolicy {
+        /** No check. */
+        OFF,
+        /** The product is created and marked as a duplicate of the closest match. */
+        FLAG,
+        /** Creation fails with 409 Conflict. */
+        REJECT
+    }
+}
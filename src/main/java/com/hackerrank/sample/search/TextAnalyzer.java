@@ -0,0 +1,76 @@
+package com.hackerrank.sample.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizer shared by indexing and queries. Text is lower-cased and
+ * accent-folded ("Cámara" and "camara" match), split on anything that is not a
+ * letter or digit, stripped of common Spanish and English stop words, and
+ * plurals are folded ("celulares" and "celular" index the same term).
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            // Spanish
+            "de", "del", "la", "las", "el", "los", "un", "una", "unos", "unas", "y", "o", "en", "con", "para", "por",
+            "al", "lo", "su", "sus", "que", "se", "es", "sin", "mas", "muy",
+            // English
+            "the", "a", "an", "and", "or", "of", "in", "on", "for", "with", "to", "by", "is", "at", "from");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (token.isEmpty() || STOP_WORDS.contains(token)) {
+                continue;
+            }
+            tokens.add(singular(token));
+        }
+        return tokens;
+    }
+
+    /** Lower-cases and strips accents, keeping everything else. */
+    public static String fold(String text) {
+        return DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Folds text into a typeahead key: {@link #fold(String)} with every run of
+     * separators collapsed to one space, keeping stop words and plurals so the
+     * key still reads like what the user types.
+     */
+    public static String phrase(String text) {
+        return text == null ? "" : SEPARATORS.matcher(fold(text)).replaceAll(" ").strip();
+    }
+
+    /**
+     * Light plural folding for Spanish and English: a trailing "s" and then a
+     * trailing "e" are dropped, so "parlante"/"parlantes", "camion"/"camiones"
+     * and "phone"/"phones" share a key. The key only has to be the same for
+     * singular and plural, not a real word.
+     */
+    static String singular(String token) {
+        String folded = token;
+        if (folded.length() > 3 && folded.endsWith("s") && !folded.endsWith("ss")) {
+            folded = folded.substring(0, folded.length() - 1);
+        }
+        if (folded.length() > 3 && folded.endsWith("e")) {
+            folded = folded.substring(0, folded.length() - 1);
+        }
+        return folded;
+    }
+}
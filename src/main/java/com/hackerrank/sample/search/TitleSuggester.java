@@ -0,0 +1,467 @@
+package com.hackerrank.sample.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over product titles. Titles are folded into keys
+ * ({@link TextAnalyzer#phrase(String)}, truncated to max-key-length) and kept
+ * in a radix trie: chains of single-child nodes are collapsed into one edge
+ * label, so a million titles need about two million nodes rather than one
+ * per character. Every node knows the highest sold quantity below it, so the
+ * best completions of a prefix come out of a best-first walk that never
+ * visits the rest of the subtree.
+ * <p>
+ * When the exact prefix has fewer completions than requested, the trie is
+ * walked again with a bounded Damerau-Levenshtein distance (one edit from 3
+ * typed characters, two from 6; the first character must match), and the
+ * corrected completions are ranked after the exact ones. Titles that fold to
+ * the same key share one suggestion, represented by their best-selling
+ * product.
+ */
+@Component
+public class TitleSuggester {
+
+    // estimated sizes with compressed oops, for the memory gauge
+    private static final int NODE_BYTES = 32;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Comparator<Candidate> BEST_FIRST = Comparator.comparingInt(Candidate::edits)
+            .thenComparing(Comparator.comparingInt(Candidate::weight).reversed())
+            .thenComparing(candidate -> !candidate.terminal());
+
+    private final int maxKeyLength;
+    private final int maxEdits;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private Node root = new Node(new char[0]);
+    private int nodes = 1;
+    private long labelChars;
+    private int keys;
+    private int products;
+
+    public TitleSuggester(SearchProperties properties) {
+        this.maxKeyLength = properties.getSuggestMaxKeyLength();
+        this.maxEdits = properties.getSuggestMaxEdits();
+    }
+
+    public void put(CatalogDocument document) {
+        putAll(List.of(document));
+    }
+
+    public void putAll(Collection<CatalogDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            for (CatalogDocument document : documents) {
+                char[] key = key(document.title());
+                if (key.length > 0) {
+                    insert(root, key, 0, document.id(), document.soldQuantity());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(CatalogDocument document) {
+        char[] key = key(document.title());
+        lock.writeLock().lock();
+        try {
+            if (key.length > 0) {
+                delete(root, key, 0, document.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root = new Node(new char[0]);
+            nodes = 1;
+            labelChars = 0;
+            keys = 0;
+            products = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best completions of {@code prefix}: exact prefix matches by sold
+     * quantity, then typo-corrected ones by edit distance and sold quantity.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        char[] query = key(prefix);
+        if (query.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Node, Integer> matches = new IdentityHashMap<>();
+            Node exact = locate(query);
+            if (exact != null) {
+                matches.put(exact, 0);
+            }
+            List<Suggestion> suggestions = complete(matches, limit);
+            int edits = Math.min(maxEdits, query.length < 3 ? 0 : query.length < 6 ? 1 : 2);
+            if (suggestions.size() < limit && edits > 0) {
+                fuzzy(query, edits, matches);
+                suggestions = complete(matches, limit);
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int keyCount() {
+        lock.readLock().lock();
+        try {
+            return keys;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return nodes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Estimated heap held by the trie: nodes, edge labels, child arrays and product entries. */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long nodeBytes = (long) nodes * (NODE_BYTES + ARRAY_HEADER_BYTES) + 2 * labelChars;
+            long childBytes = (long) Math.max(0, nodes - keys) * ARRAY_HEADER_BYTES
+                    + (long) (nodes - 1) * REFERENCE_BYTES;
+            long entryBytes = (long) keys * 2 * ARRAY_HEADER_BYTES + (long) products * (Long.BYTES + Integer.BYTES);
+            return nodeBytes + childBytes + entryBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private char[] key(String text) {
+        String phrase = TextAnalyzer.phrase(text);
+        return (phrase.length() > maxKeyLength ? phrase.substring(0, maxKeyLength).strip() : phrase).toCharArray();
+    }
+
+    private void insert(Node node, char[] key, int position, Long productId, int weight) {
+        if (position == key.length) {
+            if (node.ids == null) {
+                keys++;
+            }
+            node.addProduct(productId, weight);
+            products++;
+        } else {
+            int index = node.childIndex(key[position]);
+            if (index < 0) {
+                Node leaf = new Node(Arrays.copyOfRange(key, position, key.length));
+                leaf.addProduct(productId, weight);
+                leaf.maxWeight = weight;
+                node.insertChild(-index - 1, leaf);
+                nodes++;
+                labelChars += leaf.label.length;
+                keys++;
+                products++;
+            } else {
+                Node child = node.children[index];
+                int common = commonPrefix(child.label, key, position);
+                if (common < child.label.length) {
+                    Node split = new Node(Arrays.copyOf(child.label, common));
+                    child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                    split.children = new Node[] { child };
+                    split.maxWeight = child.maxWeight;
+                    node.children[index] = split;
+                    nodes++;
+                    child = split;
+                }
+                insert(child, key, position + common, productId, weight);
+            }
+        }
+        node.maxWeight = Math.max(node.maxWeight, weight);
+    }
+
+    private boolean delete(Node node, char[] key, int position, Long productId) {
+        boolean removed;
+        if (position == key.length) {
+            removed = node.removeProduct(productId);
+            if (removed) {
+                products--;
+                if (node.ids == null) {
+                    keys--;
+                }
+            }
+        } else {
+            int index = node.childIndex(key[position]);
+            if (index < 0) {
+                return false;
+            }
+            Node child = node.children[index];
+            if (commonPrefix(child.label, key, position) < child.label.length) {
+                return false;
+            }
+            removed = delete(child, key, position + child.label.length, productId);
+            if (removed && child.ids == null) {
+                if (child.children.length == 0) {
+                    node.removeChild(index);
+                    nodes--;
+                    labelChars -= child.label.length;
+                } else if (child.children.length == 1) {
+                    // collapse the now redundant node into its only child
+                    Node grandchild = child.children[0];
+                    char[] label = Arrays.copyOf(child.label, child.label.length + grandchild.label.length);
+                    System.arraycopy(grandchild.label, 0, label, child.label.length, grandchild.label.length);
+                    grandchild.label = label;
+                    node.children[index] = grandchild;
+                    nodes--;
+                }
+            }
+        }
+        if (removed) {
+            node.updateMaxWeight();
+        }
+        return removed;
+    }
+
+    /** Node whose subtree holds every key starting with {@code query}, or null. */
+    private Node locate(char[] query) {
+        Node node = root;
+        int position = 0;
+        while (position < query.length) {
+            int index = node.childIndex(query[position]);
+            if (index < 0) {
+                return null;
+            }
+            Node child = node.children[index];
+            for (int i = 0; i < child.label.length && position < query.length; i++, position++) {
+                if (child.label[i] != query[position]) {
+                    return null;
+                }
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Adds every subtree whose keys start with a prefix within {@code edits} of
+     * the query, with the smallest distance found.
+     */
+    private void fuzzy(char[] query, int edits, Map<Node, Integer> matches) {
+        int[][] rows = new int[query.length + edits + 2][query.length + 1];
+        for (int i = 0; i <= query.length; i++) {
+            rows[0][i] = i;
+        }
+        int index = root.childIndex(query[0]);
+        if (index >= 0) {
+            fuzzy(root.children[index], 0, (char) 0, query, edits, rows, matches);
+        }
+    }
+
+    private void fuzzy(Node node, int depth, char previous, char[] query, int edits, int[][] rows,
+            Map<Node, Integer> matches) {
+        int m = query.length;
+        for (char c : node.label) {
+            depth++;
+            if (depth >= rows.length) {
+                return;
+            }
+            int[] row = rows[depth];
+            int[] above = rows[depth - 1];
+            row[0] = depth;
+            int rowMin = depth;
+            for (int i = 1; i <= m; i++) {
+                int distance = Math.min(Math.min(above[i] + 1, row[i - 1] + 1),
+                        above[i - 1] + (query[i - 1] == c ? 0 : 1));
+                if (i > 1 && depth > 1 && query[i - 1] == previous && query[i - 2] == c) {
+                    distance = Math.min(distance, rows[depth - 2][i - 2] + 1);
+                }
+                row[i] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            previous = c;
+            if (row[m] <= edits) {
+                matches.merge(node, row[m], Math::min);
+                if (rowMin >= row[m]) {
+                    return; // going deeper cannot bring the prefix any closer
+                }
+            }
+            if (rowMin > edits) {
+                return;
+            }
+        }
+        for (Node child : node.children) {
+            fuzzy(child, depth, previous, query, edits, rows, matches);
+        }
+    }
+
+    private static List<Suggestion> complete(Map<Node, Integer> matches, int limit) {
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(BEST_FIRST);
+        matches.forEach((node, edits) -> queue.add(new Candidate(node, edits, node.maxWeight, false)));
+        Set<Node> emitted = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Suggestion> suggestions = new ArrayList<>(limit);
+        while (!queue.isEmpty() && suggestions.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node node = candidate.node();
+            if (candidate.terminal()) {
+                if (emitted.add(node)) {
+                    suggestions.add(new Suggestion(node.bestProduct(), candidate.weight(), candidate.edits()));
+                }
+                continue;
+            }
+            if (node.ids != null) {
+                queue.add(new Candidate(node, candidate.edits(), node.bestWeight(), true));
+            }
+            for (Node child : node.children) {
+                queue.add(new Candidate(child, candidate.edits(), child.maxWeight, false));
+            }
+        }
+        return suggestions;
+    }
+
+    private static int commonPrefix(char[] label, char[] key, int position) {
+        int common = 0;
+        while (common < label.length && position + common < key.length
+                && label[common] == key[position + common]) {
+            common++;
+        }
+        return common;
+    }
+
+    private static final class Node {
+        private char[] label;
+        private Node[] children = NO_CHILDREN;
+        private int maxWeight = -1;
+        // products whose key ends here; null when none
+        private long[] ids;
+        private int[] weights;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char c = children[middle].label[0];
+                if (c < first) {
+                    low = middle + 1;
+                } else if (c > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void insertChild(int index, Node child) {
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        void removeChild(int index) {
+            Node[] shrunk = children.length == 1 ? NO_CHILDREN : new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk;
+        }
+
+        void addProduct(Long productId, int weight) {
+            if (ids == null) {
+                ids = new long[] { productId };
+                weights = new int[] { weight };
+            } else {
+                ids = Arrays.copyOf(ids, ids.length + 1);
+                weights = Arrays.copyOf(weights, weights.length + 1);
+                ids[ids.length - 1] = productId;
+                weights[weights.length - 1] = weight;
+            }
+        }
+
+        boolean removeProduct(Long productId) {
+            if (ids == null) {
+                return false;
+            }
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == productId) {
+                    if (ids.length == 1) {
+                        ids = null;
+                        weights = null;
+                    } else {
+                        ids[i] = ids[ids.length - 1];
+                        weights[i] = weights[weights.length - 1];
+                        ids = Arrays.copyOf(ids, ids.length - 1);
+                        weights = Arrays.copyOf(weights, weights.length - 1);
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int bestWeight() {
+            int best = -1;
+            for (int weight : weights) {
+                best = Math.max(best, weight);
+            }
+            return best;
+        }
+
+        Long bestProduct() {
+            int best = 0;
+            for (int i = 1; i < ids.length; i++) {
+                if (weights[i] > weights[best] || (weights[i] == weights[best] && ids[i] < ids[best])) {
+                    best = i;
+                }
+            }
+            return ids[best];
+        }
+
+        void updateMaxWeight() {
+            int max = ids != null ? bestWeight() : -1;
+            for (Node child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+
+    private record Candidate(Node node, int edits, int weight, boolean terminal) {
+    }
+
+    /**
+     * @param productId best-selling product with this title
+     * @param weight    its sold quantity
+     * @param edits     typo corrections needed to reach the title, 0 for an exact prefix
+     */
+    public record Suggestion(Long productId, int weight, int edits) {
+    }
+}
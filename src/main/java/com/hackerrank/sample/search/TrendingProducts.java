@@ -0,0 +1,215 @@
+package com.hackerrank.sample.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Most-viewed products over sliding windows, in constant memory and without
+ * writing anything per view. Each window is a ring of time buckets; a bucket
+ * holds a {@link CountMinSketch} of product views and a bounded set of
+ * candidate heavy hitters, the products whose estimate reached the bucket's
+ * admission threshold. A query merges the sketches of the buckets in the
+ * window, re-estimates the union of their candidates and keeps the best.
+ * <p>
+ * Recording a view is a few atomic increments per window: no locks, and
+ * buckets are rotated by compare-and-set. A view racing with a rotation may
+ * land in the bucket being retired; counts are estimates anyway.
+ */
+@Component
+@EnableConfigurationProperties(SearchProperties.class)
+public class TrendingProducts {
+
+    /** Windows served by the trending endpoint. */
+    public enum Window {
+        HOUR("1h", Duration.ofMinutes(5), 12),
+        DAY("24h", Duration.ofHours(1), 24);
+
+        private final String label;
+        private final long bucketMillis;
+        private final int buckets;
+
+        Window(String label, Duration bucket, int buckets) {
+            this.label = label;
+            this.bucketMillis = bucket.toMillis();
+            this.buckets = buckets;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        /** Returns null for an unknown label. */
+        public static Window of(String label) {
+            for (Window window : values()) {
+                if (window.label.equalsIgnoreCase(label)) {
+                    return window;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final int depth;
+    private final int width;
+    private final int candidates;
+    private final LongSupplier currentTimeMillis;
+    private final Ring[] rings;
+    private final Counter views;
+
+    @Autowired
+    public TrendingProducts(SearchProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::currentTimeMillis);
+    }
+
+    TrendingProducts(SearchProperties properties, MeterRegistry meterRegistry, LongSupplier currentTimeMillis) {
+        this.depth = properties.getTrendingSketchDepth();
+        this.width = properties.getTrendingSketchWidth();
+        this.candidates = Math.max(1, properties.getTrendingCandidates());
+        this.currentTimeMillis = currentTimeMillis;
+        this.rings = new Ring[Window.values().length];
+        for (Window window : Window.values()) {
+            rings[window.ordinal()] = new Ring(window);
+        }
+        this.views = Counter.builder("catalog.trending.views").description("Product views fed to the trending sketches")
+                .register(meterRegistry);
+        Gauge.builder("catalog.trending.memory", this, TrendingProducts::sizeInBytes).baseUnit("bytes")
+                .description("Counters held by the trending sketches").register(meterRegistry);
+    }
+
+    public void recordView(long productId) {
+        long now = currentTimeMillis.getAsLong();
+        for (Ring ring : rings) {
+            ring.bucket(now).add(productId);
+        }
+        views.increment();
+    }
+
+    /** The most viewed products in the window, most views first. */
+    public List<Trend> top(Window window, int limit) {
+        Ring ring = rings[window.ordinal()];
+        long epoch = currentTimeMillis.getAsLong() / window.bucketMillis;
+        CountMinSketch shape = null;
+        long[] merged = null;
+        Set<Long> keys = new HashSet<>();
+        for (int slot = 0; slot < window.buckets; slot++) {
+            Bucket bucket = ring.buckets.get(slot);
+            if (bucket == null || bucket.epoch <= epoch - window.buckets || bucket.epoch > epoch) {
+                continue;
+            }
+            if (merged == null) {
+                shape = bucket.sketch;
+                merged = new long[shape.counterCount()];
+            }
+            bucket.sketch.addTo(merged);
+            keys.addAll(bucket.candidates);
+        }
+        if (merged == null || limit <= 0) {
+            return List.of();
+        }
+        List<Trend> trends = new ArrayList<>(keys.size());
+        for (Long key : keys) {
+            trends.add(new Trend(key, shape.estimate(merged, key)));
+        }
+        trends.sort(Comparator.comparingLong(Trend::views).reversed().thenComparingLong(Trend::productId));
+        return trends.subList(0, Math.min(limit, trends.size()));
+    }
+
+    /** Counters allocated across all buckets. */
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Ring ring : rings) {
+            for (int slot = 0; slot < ring.buckets.length(); slot++) {
+                Bucket bucket = ring.buckets.get(slot);
+                bytes += bucket != null ? bucket.sketch.sizeInBytes() : 0;
+            }
+        }
+        return bytes;
+    }
+
+    private final class Ring {
+        private final Window window;
+        private final AtomicReferenceArray<Bucket> buckets;
+
+        Ring(Window window) {
+            this.window = window;
+            this.buckets = new AtomicReferenceArray<>(window.buckets);
+        }
+
+        /** The bucket for {@code now}, replacing the one left from a previous lap of the ring. */
+        Bucket bucket(long now) {
+            long epoch = now / window.bucketMillis;
+            int slot = (int) (epoch % window.buckets);
+            while (true) {
+                Bucket bucket = buckets.get(slot);
+                if (bucket != null && bucket.epoch >= epoch) {
+                    return bucket;
+                }
+                Bucket fresh = new Bucket(epoch);
+                if (buckets.compareAndSet(slot, bucket, fresh)) {
+                    return fresh;
+                }
+            }
+        }
+    }
+
+    private final class Bucket {
+        private final long epoch;
+        private final CountMinSketch sketch = new CountMinSketch(depth, width);
+        private final Set<Long> candidates = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean pruning = new AtomicBoolean();
+        // estimate a product needs to become a candidate; only grows
+        private volatile long admission;
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+
+        void add(long productId) {
+            sketch.add(productId);
+            if (candidates.contains(productId) || sketch.estimate(productId) < admission) {
+                return;
+            }
+            candidates.add(productId);
+            if (candidates.size() > 2 * TrendingProducts.this.candidates && pruning.compareAndSet(false, true)) {
+                try {
+                    prune();
+                } finally {
+                    pruning.set(false);
+                }
+            }
+        }
+
+        /** Keeps the best candidates and raises the admission threshold to the weakest of them. */
+        private void prune() {
+            List<Trend> ranked = new ArrayList<>(candidates.size());
+            for (Long candidate : candidates) {
+                ranked.add(new Trend(candidate, sketch.estimate(candidate)));
+            }
+            ranked.sort(Comparator.comparingLong(Trend::views).reversed());
+            int keep = TrendingProducts.this.candidates;
+            for (Trend dropped : ranked.subList(keep, ranked.size())) {
+                candidates.remove(dropped.productId());
+            }
+            admission = Math.max(admission, ranked.get(keep - 1).views());
+        }
+    }
+
+    /** @param views estimated views in the window, never fewer than the real count */
+    public record Trend(long productId, long views) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.hackerrank.sample.service;
+
+import com.hackerrank.sample.cache.CategoryTree;
+import com.hackerrank.sample.dto.CategoryDTO;
+import com.hackerrank.sample.dto.CategoryProductsDTO;
+import com.hackerrank.sample.dto.CategoryTreeDTO;
+import com.hackerrank.sample.dto.CreateCategoryRequest;
+import com.hackerrank.sample.dto.ProductSummaryDTO;
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.exception.NoSuchResourceFoundException;
+import com.hackerrank.sample.mapper.CategoryMapper;
+import com.hackerrank.sample.mapper.ProductMapper;
+import com.hackerrank.sample.model.Category;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.repository.CategoryRepository;
+import com.hackerrank.sample.repository.ProductRepository;
+import com.hackerrank.sample.repository.ReviewRepository;
+import com.hackerrank.sample.search.SearchProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Category tree and category-scoped browsing. The tree and breadcrumbs come
+ * from {@link CategoryTree}; listing a subtree is one query over the closure
+ * table, paginated by keyset (the last product id seen) so deep pages cost
+ * the same as the first.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryService {
+
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ReviewRepository reviewRepository;
+    private final CategoryTree categoryTree;
+    private final CategoryMapper categoryMapper;
+    private final ProductMapper productMapper;
+    private final SearchProperties properties;
+
+    /** The whole tree, children by name; never touches the database. */
+    public List<CategoryTreeDTO> getTree() {
+        Map<Long, List<CategoryTree.Node>> children = categoryTree.childrenByParent();
+        return children.getOrDefault(null, List.of()).stream().map(node -> toTreeDTO(node, children)).toList();
+    }
+
+    @Transactional
+    public CategoryDTO createCategory(CreateCategoryRequest request) {
+        log.info("Creating category: {}", request.getName());
+        Category parent = null;
+        if (request.getParentId() != null) {
+            parent = categoryRepository.findById(request.getParentId()).orElseThrow(
+                    () -> new NoSuchResourceFoundException("Category not found with id: " + request.getParentId()));
+        }
+        Category saved = categoryRepository.save(Category.builder().name(request.getName()).parent(parent).build());
+        categoryRepository.addPaths(saved.getId(), request.getParentId());
+        return CategoryDTO.builder().id(saved.getId()).name(saved.getName()).build();
+    }
+
+    /**
+     * Products in the category and all categories below it, in id order,
+     * starting after {@code after}.
+     */
+    @Transactional(readOnly = true)
+    public CategoryProductsDTO getProducts(Long categoryId, Long after, Integer limit) {
+        if (categoryTree.get(categoryId) == null) {
+            throw new NoSuchResourceFoundException("Category not found with id: " + categoryId);
+        }
+        if (after != null && after < 0) {
+            throw new BadResourceRequestException("After must not be negative");
+        }
+        int pageSize = limit == null ? properties.getDefaultLimit()
+                : Math.max(1, Math.min(limit, properties.getMaxLimit()));
+
+        List<Product> products = productRepository.findInCategoryAfter(categoryId, after == null ? 0 : after,
+                Limit.of(pageSize));
+        Map<Long, Double> ratings = products.isEmpty() ? Map.of()
+                : reviewRepository.findAverageRatingsByProductIds(products.stream().map(Product::getId).toList())
+                        .stream().collect(Collectors.toMap(ReviewRepository.ProductRating::getProductId,
+                                ReviewRepository.ProductRating::getAverageRating));
+        List<ProductSummaryDTO> results = products.stream()
+                .map(product -> productMapper.toSummaryDTO(product, ratings.get(product.getId()))).toList();
+        Long nextAfter = products.size() == pageSize ? products.get(products.size() - 1).getId() : null;
+        return CategoryProductsDTO.builder().breadcrumbs(categoryMapper.toBreadcrumbs(categoryId)).limit(pageSize)
+                .nextAfter(nextAfter).results(results).build();
+    }
+
+    private CategoryTreeDTO toTreeDTO(CategoryTree.Node node, Map<Long, List<CategoryTree.Node>> children) {
+        List<CategoryTreeDTO> below = new ArrayList<>();
+        for (CategoryTree.Node child : children.getOrDefault(node.id(), List.of())) {
+            below.add(toTreeDTO(child, children));
+        }
+        return CategoryTreeDTO.builder().id(node.id()).name(node.name()).children(below).build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.hackerrank.sample.service;
+
+import com.hackerrank.sample.changes.ChangeFeedProperties;
+import com.hackerrank.sample.changes.ChangeLog;
+import com.hackerrank.sample.dto.ChangeDTO;
+import com.hackerrank.sample.dto.ChangeFeedDTO;
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.model.ChangeLogEntry;
+import com.hackerrank.sample.repository.ChangeLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Read side of the change feed: the entries after a consumer's token, in
+ * order, up to {@link ChangeLog#visibleUpTo()}. Compaction may have removed
+ * entries since the token was issued, but only those superseded by a later
+ * one, so a consumer applying every page still ends up in sync.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedService {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeLog changeLog;
+    private final ChangeFeedProperties properties;
+
+    // not read-only on purpose: a lagging replica could miss entries below the watermark
+    @Transactional
+    public ChangeFeedDTO getChanges(Long since, Integer limit) {
+        if (since != null && since < 0) {
+            throw new BadResourceRequestException("Since must not be negative");
+        }
+        long from = since == null ? 0 : since;
+        int pageSize = limit == null ? properties.getDefaultLimit()
+                : Math.max(1, Math.min(limit, properties.getMaxLimit()));
+
+        // one extra row tells whether another page is ready
+        List<ChangeLogEntry> entries = changeLogRepository.findPage(from, changeLog.visibleUpTo(),
+                Limit.of(pageSize + 1));
+        boolean hasMore = entries.size() > pageSize;
+        List<ChangeDTO> changes = entries.stream().limit(pageSize).map(this::toDTO).toList();
+        long next = changes.isEmpty() ? from : changes.get(changes.size() - 1).getToken();
+        return ChangeFeedDTO.builder().limit(pageSize).next(next).hasMore(hasMore).changes(changes).build();
+    }
+
+    private ChangeDTO toDTO(ChangeLogEntry entry) {
+        return ChangeDTO.builder().token(entry.getId()).entityType(entry.getEntityType())
+                .entityId(entry.getEntityId()).productId(entry.getProductId()).operation(entry.getOperation())
+                .changedAt(entry.getChangedAt()).build();
+    }
+}
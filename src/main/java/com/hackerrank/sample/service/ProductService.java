@@ -1,23 +1,36 @@
 package com.hackerrank.sample.service;
 
+import com.hackerrank.sample.changes.ChangeLog;
 import com.hackerrank.sample.dto.CreateProductRequest;
 import com.hackerrank.sample.dto.ProductDetailDTO;
 import com.hackerrank.sample.dto.ProductSummaryDTO;
 import com.hackerrank.sample.dto.UpdateProductRequest;
+import com.hackerrank.sample.exception.DuplicateProductException;
 import com.hackerrank.sample.exception.NoSuchResourceFoundException;
 import com.hackerrank.sample.mapper.ProductMapper;
+import com.hackerrank.sample.model.Category;
+import com.hackerrank.sample.model.ChangeLogEntry.EntityType;
+import com.hackerrank.sample.model.ChangeLogEntry.Operation;
 import com.hackerrank.sample.model.Product;
 import com.hackerrank.sample.model.ProductAttribute;
 import com.hackerrank.sample.model.ProductImage;
 import com.hackerrank.sample.model.Seller;
+import com.hackerrank.sample.repository.CategoryRepository;
 import com.hackerrank.sample.repository.ProductRepository;
+import com.hackerrank.sample.repository.ReviewRepository;
 import com.hackerrank.sample.repository.SellerRepository;
+import com.hackerrank.sample.search.CatalogDocument;
+import com.hackerrank.sample.search.DuplicateDetector;
+import com.hackerrank.sample.search.ProductChangedEvent;
+import com.hackerrank.sample.search.SearchProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,20 +40,34 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final SellerRepository sellerRepository;
+    private final CategoryRepository categoryRepository;
+    private final ReviewRepository reviewRepository;
     private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DuplicateDetector duplicateDetector;
+    private final SearchProperties searchProperties;
+    private final ChangeLog changeLog;
 
     @Transactional(readOnly = true)
     public List<ProductSummaryDTO> getAllProducts() {
         log.info("Fetching all products");
         List<Product> products = productRepository.findAll();
-        return products.stream().map(productMapper::toSummaryDTO).toList();
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Double> ratings = reviewRepository
+                .findAverageRatingsByProductIds(products.stream().map(Product::getId).toList()).stream()
+                .collect(Collectors.toMap(ReviewRepository.ProductRating::getProductId,
+                        ReviewRepository.ProductRating::getAverageRating));
+        return products.stream().map(product -> productMapper.toSummaryDTO(product, ratings.get(product.getId())))
+                .toList();
     }
 
     @Transactional(readOnly = true)
     @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "productCB")
     public ProductDetailDTO getProductDetail(Long id) {
         log.info("Fetching product by id: {}", id);
-        Product product = productRepository.findByIdWithDetails(id)
+        Product product = productRepository.findById(id)
                 .orElseThrow(() -> new NoSuchResourceFoundException("Product not found with id: " + id));
 
         return productMapper.toDetailDTO(product);
@@ -59,11 +86,13 @@ public class ProductService {
                 .originalPrice(request.getOriginalPrice()).currency(request.getCurrency())
                 .availableQuantity(request.getAvailableQuantity()).soldQuantity(0).condition(request.getCondition())
                 .description(request.getDescription()).warranty(request.getWarranty()).seller(seller)
+                .category(findCategory(request.getCategoryId()))
                 // Images and Attributes will be added below to handle bidirectional
                 // relationship correctly if helper methods are used
                 // Or we can build them if we ensure relationship is set.
                 // Using helper methods is safer for bidirectional JPA.
                 .build();
+        checkDuplicate(product);
 
         // Add images if provided
         if (request.getImageUrls() != null && !request.getImageUrls().isEmpty()) {
@@ -82,11 +111,42 @@ public class ProductService {
 
         // Save product
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(CatalogDocument.from(savedProduct)));
+        changeLog.record(EntityType.PRODUCT, savedProduct.getId(), savedProduct.getId(), Operation.UPSERT);
 
         // Return as DTO
         return productMapper.toDetailDTO(savedProduct);
     }
 
+    private Category findCategory(Long categoryId) {
+        return categoryId == null ? null : categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new NoSuchResourceFoundException("Category not found with id: " + categoryId));
+    }
+
+    /**
+     * Flags or rejects a near duplicate of one of the seller's indexed listings.
+     * The index follows commits, so two copies created at the same moment both
+     * pass; the duplicates scan still groups them afterwards.
+     */
+    private void checkDuplicate(Product product) {
+        SearchProperties.DuplicatePolicy policy = searchProperties.getDuplicatePolicy();
+        if (policy == SearchProperties.DuplicatePolicy.OFF) {
+            return;
+        }
+        List<DuplicateDetector.Duplicate> duplicates = duplicateDetector.find(product.getTitle(),
+                product.getDescription(), product.getSeller().getId(), 1);
+        if (duplicates.isEmpty()) {
+            return;
+        }
+        long original = duplicates.get(0).productId();
+        if (policy == SearchProperties.DuplicatePolicy.REJECT) {
+            throw new DuplicateProductException("Product duplicates seller's product with id: " + original);
+        }
+        log.warn("Product '{}' of seller {} flagged as duplicate of product {}", product.getTitle(),
+                product.getSeller().getId(), original);
+        product.setDuplicateOf(original);
+    }
+
     // UPDATE methods
     @Transactional
     @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "productCB")
@@ -100,6 +160,9 @@ public class ProductService {
         // This avoids modifying this method when new scalar fields are added to
         // Product/Request.
         copyNonNullProperties(request, product);
+        if (request.getCategoryId() != null) {
+            product.setCategory(findCategory(request.getCategoryId()));
+        }
 
         // Handle Collections/Relationships explicitly if they require special logic
         // (e.g., clear and add)
@@ -121,7 +184,10 @@ public class ProductService {
         }
 
         // Save and return
-        Product updatedProduct = productRepository.save(product);
+        // flushed so the event carries the version this update commits with
+        Product updatedProduct = productRepository.saveAndFlush(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(CatalogDocument.from(updatedProduct)));
+        changeLog.record(EntityType.PRODUCT, id, id, Operation.UPSERT);
         return productMapper.toDetailDTO(updatedProduct);
     }
 
@@ -155,5 +221,7 @@ public class ProductService {
 
         // Delete (cascade will delete images, attributes, reviews, questions)
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+        changeLog.record(EntityType.PRODUCT, id, id, Operation.DELETE);
     }
 }
@@ -1,16 +1,27 @@
 package com.hackerrank.sample.service;
 
+import com.hackerrank.sample.changes.ChangeLog;
 import com.hackerrank.sample.dto.AnswerQuestionRequest;
 import com.hackerrank.sample.dto.CreateQuestionRequest;
 import com.hackerrank.sample.dto.QuestionDTO;
+import com.hackerrank.sample.dto.SimilarQuestionDTO;
+import com.hackerrank.sample.exception.BadResourceRequestException;
 import com.hackerrank.sample.exception.NoSuchResourceFoundException;
 import com.hackerrank.sample.mapper.QuestionMapper;
+import com.hackerrank.sample.model.ChangeLogEntry.EntityType;
+import com.hackerrank.sample.model.ChangeLogEntry.Operation;
 import com.hackerrank.sample.model.Product;
 import com.hackerrank.sample.model.Question;
 import com.hackerrank.sample.repository.ProductRepository;
 import com.hackerrank.sample.repository.QuestionRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.hackerrank.sample.search.CatalogIndex;
+import com.hackerrank.sample.search.QuestionChangedEvent;
+import com.hackerrank.sample.search.QuestionIndex;
+import com.hackerrank.sample.search.SearchProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,12 +36,28 @@ public class QuestionService {
     private final QuestionRepository questionRepository;
     private final ProductRepository productRepository;
     private final QuestionMapper questionMapper;
+    private final QuestionIndex questionIndex;
+    private final CatalogIndex catalogIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SearchProperties properties;
+    private final ChangeLog changeLog;
+    private final Timer similarTimer;
 
     public QuestionService(QuestionRepository questionRepository, ProductRepository productRepository,
-            QuestionMapper questionMapper) {
+            QuestionMapper questionMapper, QuestionIndex questionIndex, CatalogIndex catalogIndex,
+            ApplicationEventPublisher eventPublisher, SearchProperties properties, ChangeLog changeLog,
+            MeterRegistry meterRegistry) {
         this.questionRepository = questionRepository;
         this.productRepository = productRepository;
         this.questionMapper = questionMapper;
+        this.questionIndex = questionIndex;
+        this.catalogIndex = catalogIndex;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.changeLog = changeLog;
+        this.similarTimer = Timer.builder("catalog.questions.similar")
+                .description("Time spent matching a typed question against answered ones")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
     }
 
     @Transactional(readOnly = true)
@@ -45,6 +72,28 @@ public class QuestionService {
         return questions.stream().map(questionMapper::toDTO).toList();
     }
 
+    /**
+     * Answered questions of the product closest to the one being typed, so the
+     * buyer can find the answer before asking again. Only reads the database
+     * the first time a product is looked up.
+     */
+    public List<SimilarQuestionDTO> similarQuestions(Long productId, String text, Integer limit) {
+        if (text == null || text.isBlank()) {
+            throw new BadResourceRequestException("Question must not be blank");
+        }
+        if (catalogIndex.document(productId) == null) {
+            throw new NoSuchResourceFoundException("Product not found with id: " + productId);
+        }
+        int size = limit == null ? properties.getSimilarQuestionsLimit()
+                : Math.max(1, Math.min(limit, properties.getSimilarQuestionsMaxLimit()));
+
+        return similarTimer.record(() -> questionIndex.similar(productId, text, size)).stream()
+                .map(match -> SimilarQuestionDTO.builder().id(match.questionId()).question(match.question())
+                        .answer(match.answer()).answeredAt(match.answeredAt()).similarity(match.similarity())
+                        .build())
+                .toList();
+    }
+
     @Transactional
     public QuestionDTO addQuestion(Long productId, CreateQuestionRequest request) {
         log.debug("Adding question to product id: {}", productId);
@@ -56,6 +105,8 @@ public class QuestionService {
         // JPA PrePersist handles default createdAt
 
         Question savedQuestion = questionRepository.save(question);
+        eventPublisher.publishEvent(changed(savedQuestion));
+        changeLog.record(EntityType.QUESTION, savedQuestion.getId(), productId, Operation.UPSERT);
         log.info("Question added to product id: {}", productId);
         return questionMapper.toDTO(savedQuestion);
     }
@@ -79,7 +130,10 @@ public class QuestionService {
         question.setAnswer(request.getAnswer());
         question.setAnsweredAt(LocalDateTime.now());
 
-        Question answeredQuestion = questionRepository.save(question);
+        // flushed so the event carries the version this answer commits with
+        Question answeredQuestion = questionRepository.saveAndFlush(question);
+        eventPublisher.publishEvent(changed(answeredQuestion));
+        changeLog.record(EntityType.QUESTION, questionId, productId, Operation.UPSERT);
         log.info("Question answered, id: {}", questionId);
         return questionMapper.toDTO(answeredQuestion);
     }
@@ -101,6 +155,14 @@ public class QuestionService {
         }
 
         questionRepository.deleteById(questionId);
+        eventPublisher.publishEvent(QuestionChangedEvent.deleted(productId, questionId));
+        changeLog.record(EntityType.QUESTION, questionId, productId, Operation.DELETE);
         log.info("Question deleted, id: {}", questionId);
     }
+
+    private static QuestionChangedEvent changed(Question question) {
+        return QuestionChangedEvent.saved(question.getProduct().getId(), question.getId(), question.getQuestion(),
+                question.getAnswer(), question.getAnsweredAt(),
+                question.getVersion() != null ? question.getVersion() : 0);
+    }
 }
@@ -1,10 +1,13 @@
 package com.hackerrank.sample.service;
 
+import com.hackerrank.sample.changes.ChangeLog;
 import com.hackerrank.sample.dto.CreateReviewRequest;
 import com.hackerrank.sample.dto.ReviewDTO;
 import com.hackerrank.sample.dto.UpdateReviewRequest;
 import com.hackerrank.sample.exception.NoSuchResourceFoundException;
 import com.hackerrank.sample.mapper.ReviewMapper;
+import com.hackerrank.sample.model.ChangeLogEntry.EntityType;
+import com.hackerrank.sample.model.ChangeLogEntry.Operation;
 import com.hackerrank.sample.model.Product;
 import com.hackerrank.sample.model.Review;
 import com.hackerrank.sample.repository.ProductRepository;
@@ -23,12 +26,14 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
     private final ReviewMapper reviewMapper;
+    private final ChangeLog changeLog;
 
     public ReviewService(ReviewRepository reviewRepository, ProductRepository productRepository,
-            ReviewMapper reviewMapper) {
+            ReviewMapper reviewMapper, ChangeLog changeLog) {
         this.reviewRepository = reviewRepository;
         this.productRepository = productRepository;
         this.reviewMapper = reviewMapper;
+        this.changeLog = changeLog;
     }
 
     @Transactional(readOnly = true)
@@ -61,6 +66,7 @@ public class ReviewService {
                            // timestamp.
 
         Review savedReview = reviewRepository.save(review);
+        changeLog.record(EntityType.REVIEW, savedReview.getId(), productId, Operation.UPSERT);
         log.info("Review added for product id: {}", productId);
         return reviewMapper.toDTO(savedReview);
     }
@@ -88,6 +94,7 @@ public class ReviewService {
         }
 
         Review updatedReview = reviewRepository.save(review);
+        changeLog.record(EntityType.REVIEW, reviewId, productId, Operation.UPSERT);
         log.info("Review updated, id: {}", reviewId);
         return reviewMapper.toDTO(updatedReview);
     }
@@ -108,6 +115,7 @@ public class ReviewService {
         }
 
         reviewRepository.deleteById(reviewId);
+        changeLog.record(EntityType.REVIEW, reviewId, productId, Operation.DELETE);
         log.info("Review deleted, id: {}", reviewId);
     }
 }
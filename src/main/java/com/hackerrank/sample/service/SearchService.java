@@ -0,0 +1,298 @@
+package com.hackerrank.sample.service;
+
+import com.hackerrank.sample.dto.DuplicateClusterDTO;
+import com.hackerrank.sample.dto.FilterResultDTO;
+import com.hackerrank.sample.dto.ProductSummaryDTO;
+import com.hackerrank.sample.dto.RelatedProductDTO;
+import com.hackerrank.sample.dto.SearchResultDTO;
+import com.hackerrank.sample.dto.SuggestionDTO;
+import com.hackerrank.sample.dto.TrendingProductDTO;
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.exception.NoSuchResourceFoundException;
+import com.hackerrank.sample.mapper.ProductMapper;
+import com.hackerrank.sample.repository.ReviewRepository;
+import com.hackerrank.sample.search.CatalogDocument;
+import com.hackerrank.sample.search.CatalogIndex;
+import com.hackerrank.sample.search.DuplicateDetector;
+import com.hackerrank.sample.search.FacetIndex;
+import com.hackerrank.sample.search.PriceIndex;
+import com.hackerrank.sample.search.RelatedProducts;
+import com.hackerrank.sample.search.SearchProperties;
+import com.hackerrank.sample.search.TitleSuggester;
+import com.hackerrank.sample.search.TrendingProducts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text product search over the in-memory {@link CatalogIndex}. Hits are
+ * rendered from the index; only the average ratings of the returned page are
+ * read from the database. Title suggestions come from {@link TitleSuggester}
+ * and never touch the database; attribute filters and facet counts come from
+ * {@link FacetIndex}, price ranges and price order from {@link PriceIndex}.
+ * Detail views feed {@link TrendingProducts}; similar items come from
+ * {@link RelatedProducts} and repeated listings from {@link DuplicateDetector}.
+ */
+@Service
+@Slf4j
+public class SearchService {
+
+    static final String SORT_PRICE_ASC = "price_asc";
+    static final String SORT_PRICE_DESC = "price_desc";
+
+    private final CatalogIndex catalogIndex;
+    private final TitleSuggester titleSuggester;
+    private final FacetIndex facetIndex;
+    private final PriceIndex priceIndex;
+    private final TrendingProducts trendingProducts;
+    private final RelatedProducts relatedProducts;
+    private final DuplicateDetector duplicateDetector;
+    private final ReviewRepository reviewRepository;
+    private final ProductMapper productMapper;
+    private final SearchProperties properties;
+    private final Timer searchTimer;
+    private final Timer suggestTimer;
+    private final Timer filterTimer;
+    private final Timer relatedTimer;
+    private final Timer duplicatesTimer;
+    private final Map<Long, CachedClusters> duplicateClusters = new ConcurrentHashMap<>();
+
+    public SearchService(CatalogIndex catalogIndex, TitleSuggester titleSuggester, FacetIndex facetIndex,
+            PriceIndex priceIndex, TrendingProducts trendingProducts, RelatedProducts relatedProducts,
+            DuplicateDetector duplicateDetector, ReviewRepository reviewRepository, ProductMapper productMapper, SearchProperties properties,
+            MeterRegistry meterRegistry) {
+        this.catalogIndex = catalogIndex;
+        this.titleSuggester = titleSuggester;
+        this.facetIndex = facetIndex;
+        this.priceIndex = priceIndex;
+        this.trendingProducts = trendingProducts;
+        this.relatedProducts = relatedProducts;
+        this.duplicateDetector = duplicateDetector;
+        this.reviewRepository = reviewRepository;
+        this.productMapper = productMapper;
+        this.properties = properties;
+        this.searchTimer = Timer.builder("catalog.search").description("Time spent ranking hits in the search index")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.suggestTimer = Timer.builder("catalog.suggest").description("Time spent completing title prefixes")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.filterTimer = Timer.builder("catalog.filter")
+                .description("Time spent intersecting facet bitmaps and counting facets")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.relatedTimer = Timer.builder("catalog.related")
+                .description("Time spent finding and scoring similar products")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.duplicatesTimer = Timer.builder("catalog.duplicates.scan")
+                .description("Time spent grouping near-duplicate listings").register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    public SearchResultDTO search(String query, int offset, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadResourceRequestException("Search query must not be blank");
+        }
+        if (offset < 0) {
+            throw new BadResourceRequestException("Offset must not be negative");
+        }
+        if (offset > properties.getMaxOffset()) {
+            throw new BadResourceRequestException("Offset must not exceed " + properties.getMaxOffset());
+        }
+        int pageSize = limit == null ? properties.getDefaultLimit()
+                : Math.max(1, Math.min(limit, properties.getMaxLimit()));
+        log.debug("Searching products for '{}'", query);
+
+        CatalogIndex.SearchResult result = searchTimer.record(() -> catalogIndex.search(query, offset, pageSize));
+        List<CatalogDocument> hits = result.hits().stream().map(CatalogIndex.Hit::document).toList();
+        List<ProductSummaryDTO> results = summaries(hits);
+        return SearchResultDTO.builder().query(query).total(result.total()).totalExact(result.totalExact()).offset(offset).limit(pageSize)
+                .results(results).build();
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new BadResourceRequestException("Suggestion prefix must not be blank");
+        }
+        int size = limit == null ? properties.getSuggestLimit()
+                : Math.max(1, Math.min(limit, properties.getSuggestMaxLimit()));
+
+        List<TitleSuggester.Suggestion> suggestions = suggestTimer.record(() -> titleSuggester.suggest(prefix, size));
+        List<SuggestionDTO> results = new ArrayList<>(suggestions.size());
+        for (TitleSuggester.Suggestion suggestion : suggestions) {
+            // skip products removed from the index after the suggester was read
+            CatalogDocument document = catalogIndex.document(suggestion.productId());
+            if (document != null) {
+                results.add(SuggestionDTO.builder().title(document.title()).productId(document.id())
+                        .soldQuantity(document.soldQuantity()).edits(suggestion.edits()).build());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Products matching all the given conditions, currencies and attributes
+     * ({@code Name:Value}; repeat a name to accept any of its values) and
+     * priced within the bounds (base currency), with facet counts over every
+     * match. Sorted by id, or by converted price with {@code price_asc} and
+     * {@code price_desc}.
+     */
+    @Transactional(readOnly = true)
+    public FilterResultDTO filter(List<String> conditions, List<String> currencies, List<String> attributes,
+            BigDecimal minPrice, BigDecimal maxPrice, String sort, int offset, Integer limit) {
+        if (offset < 0) {
+            throw new BadResourceRequestException("Offset must not be negative");
+        }
+        // a price-sorted page walks the price tree up to the offset under its read lock
+        if (offset > properties.getMaxOffset()) {
+            throw new BadResourceRequestException("Offset must not exceed " + properties.getMaxOffset());
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new BadResourceRequestException("Minimum price must not exceed the maximum price");
+        }
+        if (sort != null && !sort.equals(SORT_PRICE_ASC) && !sort.equals(SORT_PRICE_DESC)) {
+            throw new BadResourceRequestException("Sort must be " + SORT_PRICE_ASC + " or " + SORT_PRICE_DESC);
+        }
+        Map<String, List<String>> attributeFilters = new LinkedHashMap<>();
+        for (String attribute : attributes) {
+            int separator = attribute.indexOf(':');
+            if (separator <= 0 || separator == attribute.length() - 1) {
+                throw new BadResourceRequestException("Attribute filter must look like Name:Value: " + attribute);
+            }
+            attributeFilters.computeIfAbsent(attribute.substring(0, separator).strip(), name -> new ArrayList<>())
+                    .add(attribute.substring(separator + 1).strip());
+        }
+        int pageSize = limit == null ? properties.getDefaultLimit()
+                : Math.max(1, Math.min(limit, properties.getMaxLimit()));
+
+        FacetIndex.FacetResult result = filterTimer.record(() -> {
+            // sorting by price only lists products whose price can be compared; skip
+            // the extra intersection while every product has one
+            RoaringBitmap priced = minPrice != null || maxPrice != null ? priceIndex.between(minPrice, maxPrice)
+                    : sort != null && priceIndex.size() < facetIndex.size() ? priceIndex.priced() : null;
+            if (sort == null) {
+                return facetIndex.filter(conditions, currencies, attributeFilters, priced,
+                        matches -> FacetIndex.page(matches, offset, pageSize));
+            }
+            boolean descending = sort.equals(SORT_PRICE_DESC);
+            return facetIndex.filter(conditions, currencies, attributeFilters, priced,
+                    matches -> priceIndex.sorted(matches, descending, offset, pageSize));
+        });
+        // skip products removed from the search index after the bitmaps were read
+        List<CatalogDocument> documents = result.productIds().stream().map(catalogIndex::document)
+                .filter(Objects::nonNull).toList();
+        return FilterResultDTO.builder().total(result.total()).offset(offset).limit(pageSize).sort(sort)
+                .results(summaries(documents)).facets(result.facets()).build();
+    }
+
+    /** Counts a product detail view towards the trending products; never touches the database. */
+    public void recordView(Long productId) {
+        trendingProducts.recordView(productId);
+    }
+
+    /** Most viewed products in the last hour ({@code 1h}) or day ({@code 24h}). */
+    @Transactional(readOnly = true)
+    public List<TrendingProductDTO> trending(String window, Integer limit) {
+        TrendingProducts.Window range = TrendingProducts.Window.of(window);
+        if (range == null) {
+            throw new BadResourceRequestException("Window must be " + TrendingProducts.Window.HOUR.label() + " or "
+                    + TrendingProducts.Window.DAY.label());
+        }
+        int size = limit == null ? properties.getTrendingLimit()
+                : Math.max(1, Math.min(limit, properties.getTrendingMaxLimit()));
+
+        // ask for more than needed in case some were deleted since they were viewed
+        List<TrendingProducts.Trend> trends = trendingProducts.top(range, 2 * size);
+        Map<Long, Long> views = new LinkedHashMap<>();
+        List<CatalogDocument> documents = new ArrayList<>(size);
+        for (TrendingProducts.Trend trend : trends) {
+            CatalogDocument document = catalogIndex.document(trend.productId());
+            if (document != null && documents.size() < size) {
+                documents.add(document);
+                views.put(document.id(), trend.views());
+            }
+        }
+        return summaries(documents).stream().map(summary -> TrendingProductDTO.builder().product(summary)
+                .views(views.get(summary.getId())).build()).toList();
+    }
+
+    /** Products most similar to the given one by title words and attributes, most similar first. */
+    @Transactional(readOnly = true)
+    public List<RelatedProductDTO> related(Long productId, Integer limit) {
+        if (catalogIndex.document(productId) == null) {
+            throw new NoSuchResourceFoundException("Product not found with id: " + productId);
+        }
+        int size = limit == null ? properties.getRelatedLimit()
+                : Math.max(1, Math.min(limit, properties.getRelatedMaxLimit()));
+
+        List<RelatedProducts.Related> related = relatedTimer.record(() -> relatedProducts.related(productId, size));
+        Map<Long, Double> similarities = new LinkedHashMap<>();
+        List<CatalogDocument> documents = new ArrayList<>(related.size());
+        for (RelatedProducts.Related match : related) {
+            CatalogDocument document = catalogIndex.document(match.productId());
+            if (document != null) {
+                documents.add(document);
+                similarities.put(document.id(), match.similarity());
+            }
+        }
+        return summaries(documents).stream().map(summary -> RelatedProductDTO.builder().product(summary)
+                .similarity(similarities.get(summary.getId())).build()).toList();
+    }
+
+    /**
+     * Groups of the seller's near-duplicate listings, the largest first.
+     * Never touches the database; a seller's groups are reused for
+     * {@code duplicate-cache-ttl} so repeated calls do not rescan.
+     */
+    public List<DuplicateClusterDTO> duplicates(Long sellerId, Integer limit) {
+        if (sellerId == null) {
+            throw new BadResourceRequestException("Seller id is required");
+        }
+        int size = limit == null ? properties.getDuplicateLimit()
+                : Math.max(1, Math.min(limit, properties.getDuplicateMaxLimit()));
+
+        long now = System.nanoTime();
+        CachedClusters cached = duplicateClusters.get(sellerId);
+        if (cached == null || now - cached.computedAt() > properties.getDuplicateCacheTtl().toNanos()) {
+            duplicateClusters.values().removeIf(
+                    entry -> now - entry.computedAt() > properties.getDuplicateCacheTtl().toNanos());
+            cached = new CachedClusters(now, duplicatesTimer.record(() -> duplicateDetector.clusters(sellerId)));
+            duplicateClusters.put(sellerId, cached);
+        }
+        List<List<Long>> clusters = cached.clusters();
+        List<DuplicateClusterDTO> result = new ArrayList<>(Math.min(size, clusters.size()));
+        for (List<Long> cluster : clusters) {
+            CatalogDocument first = catalogIndex.document(cluster.get(0));
+            if (first == null) {
+                continue;
+            }
+            result.add(DuplicateClusterDTO.builder().sellerId(first.sellerId()).title(first.title())
+                    .productIds(cluster).build());
+            if (result.size() == size) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private List<ProductSummaryDTO> summaries(List<CatalogDocument> documents) {
+        Map<Long, Double> ratings = documents.isEmpty() ? Map.of()
+                : reviewRepository.findAverageRatingsByProductIds(documents.stream().map(CatalogDocument::id).toList())
+                        .stream().collect(Collectors.toMap(ReviewRepository.ProductRating::getProductId,
+                                ReviewRepository.ProductRating::getAverageRating));
+        return documents.stream()
+                .map(document -> productMapper.toSummaryDTO(document, ratings.get(document.id()))).toList();
+    }
+
+    private record CachedClusters(long computedAt, List<List<Long>> clusters) {
+    }
+}
@@ -26,6 +26,24 @@ INSERT INTO products (title, price, original_price, currency, available_quantity
  'Los audífonos premium Sony WH-1000XM5 ofrecen la mejor cancelación de ruido de su clase, calidad de audio Hi-Res, hasta 30 horas de batería, carga rápida (3 min = 3 horas), 8 micrófonos para llamadas cristalinas, diseño ultraligero y cómodo, multipoint para conectar 2 dispositivos.',
  '2 años de garantía Sony', 2, CURRENT_TIMESTAMP);
 
+-- Insert Categories and their closure rows (ancestor, descendant, depth)
+INSERT INTO categories (name, parent_id) VALUES
+('Electrónica', NULL),
+('Celulares y Teléfonos', 1),
+('Computación', NULL),
+('Notebooks', 3),
+('Audio', 1),
+('Auriculares', 5);
+
+INSERT INTO category_paths (ancestor_id, descendant_id, depth) VALUES
+(1, 1, 0), (2, 2, 0), (3, 3, 0), (4, 4, 0), (5, 5, 0), (6, 6, 0),
+(1, 2, 1), (3, 4, 1), (1, 5, 1), (5, 6, 1),
+(1, 6, 2);
+
+UPDATE products SET category_id = 2 WHERE id IN (1, 4);
+UPDATE products SET category_id = 4 WHERE id = 2;
+UPDATE products SET category_id = 6 WHERE id IN (3, 5);
+
 -- Insert Product Images
 INSERT INTO product_images (url, is_primary, product_id) VALUES
 -- iPhone images
@@ -0,0 +1,70 @@
+package com.hackerrank.sample.changes;
+
+import com.hackerrank.sample.model.ChangeLogEntry;
+import com.hackerrank.sample.model.ChangeLogEntry.EntityType;
+import com.hackerrank.sample.model.ChangeLogEntry.Operation;
+import com.hackerrank.sample.repository.ChangeLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChangeLogTest {
+
+    @Test
+    void takesIdsOutsideTheLockWithoutPassingAWriterStillTakingOne() throws Exception {
+        ChangeLogRepository repository = mock(ChangeLogRepository.class);
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong sequence = new AtomicLong();
+        when(repository.save(any(ChangeLogEntry.class))).thenAnswer(invocation -> {
+            ChangeLogEntry entry = invocation.getArgument(0);
+            entry.setId(sequence.incrementAndGet());
+            if (entry.getEntityId() == 1L) {
+                slowStarted.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return entry;
+        });
+        ChangeLog changeLog = new ChangeLog(repository, new SimpleMeterRegistry());
+
+        CompletableFuture<List<TransactionSynchronization>> slow = CompletableFuture.supplyAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                changeLog.record(EntityType.PRODUCT, 1L, 1L, Operation.UPSERT);
+                return TransactionSynchronizationManager.getSynchronizations();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+        assertThat(slowStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // id 1 is still being taken, yet another write records id 2 without waiting for it
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeLog.record(EntityType.PRODUCT, 2L, 2L, Operation.UPSERT);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(changeLog.visibleUpTo()).isZero();
+
+        release.countDown();
+        List<TransactionSynchronization> pending = slow.get(10, TimeUnit.SECONDS);
+        assertThat(changeLog.visibleUpTo()).isZero();
+        pending.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertThat(changeLog.visibleUpTo()).isEqualTo(2);
+    }
+}
@@ -3,27 +3,34 @@ package com.hackerrank.sample.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hackerrank.sample.dto.*;
 import com.hackerrank.sample.exception.NoSuchResourceFoundException;
+import com.hackerrank.sample.model.Product;
 import com.hackerrank.sample.security.AuthEntryPointJwt;
 import com.hackerrank.sample.security.AuthTokenFilter;
 import com.hackerrank.sample.security.CustomUserDetailsService;
 import com.hackerrank.sample.service.ProductService;
 import com.hackerrank.sample.service.QuestionService;
 import com.hackerrank.sample.service.ReviewService;
+import com.hackerrank.sample.service.SearchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.util.StreamUtils;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -36,6 +43,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @WebMvcTest(ProductController.class)
 @AutoConfigureMockMvc(addFilters = false) // Disable security filters for unit tests
+@Import(SimpleMeterRegistry.class) // Metrics filters are part of the web slice
 class ProductControllerTest {
 
     @Autowired
@@ -53,6 +61,9 @@ class ProductControllerTest {
     @MockBean
     private QuestionService questionService;
 
+    @MockBean
+    private SearchService searchService;
+
     // Security Mocks needed for SecurityConfig to load
     @MockBean
     private CustomUserDetailsService userDetailsService;
@@ -93,6 +104,71 @@ class ProductControllerTest {
         verify(productService).getAllProducts();
     }
 
+    @Test
+    @DisplayName("GET /api/products/search - Should return ranked search results")
+    void testSearchProducts() throws Exception {
+        List<ProductSummaryDTO> products = readJsonList("product/get-all-products.json", ProductSummaryDTO.class);
+        SearchResultDTO result = SearchResultDTO.builder().query("product").total(2).offset(0).limit(20)
+                .results(products).build();
+
+        when(searchService.search("product", 0, null)).thenReturn(result);
+
+        mockMvc.perform(get("/api/products/search").param("q", "product")).andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2)).andExpect(jsonPath("$.results[0].id").value(1));
+
+        verify(searchService).search("product", 0, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/products/filter - Should pass repeated filters through unsplit")
+    void testFilterProducts() throws Exception {
+        List<ProductSummaryDTO> products = readJsonList("product/get-all-products.json", ProductSummaryDTO.class);
+        FilterResultDTO result = FilterResultDTO.builder().total(2).offset(0).limit(20).results(products)
+                .facets(Map.of("Color", Map.of("Negro", 2))).build();
+        List<String> attributes = List.of("Conectividad:Bluetooth 5.2, NFC");
+
+        when(searchService.filter(List.of("new"), List.of(), attributes, new BigDecimal("100"), null, "price_desc", 0,
+                null)).thenReturn(result);
+
+        mockMvc.perform(get("/api/products/filter").param("condition", "new")
+                .param("attribute", "Conectividad:Bluetooth 5.2, NFC").param("minPrice", "100")
+                .param("sort", "price_desc"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.facets.Color.Negro").value(2));
+
+        verify(searchService).filter(List.of("new"), List.of(), attributes, new BigDecimal("100"), null,
+                "price_desc", 0, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/products/suggest - Should return title suggestions")
+    void testSuggestTitles() throws Exception {
+        List<SuggestionDTO> suggestions = List.of(SuggestionDTO.builder().title("Product 1").productId(1L)
+                .soldQuantity(10).edits(0).build());
+
+        when(searchService.suggest("prod", 5)).thenReturn(suggestions);
+
+        mockMvc.perform(get("/api/products/suggest").param("prefix", "prod").param("limit", "5"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$[0].title").value("Product 1"))
+                .andExpect(jsonPath("$[0].productId").value(1));
+
+        verify(searchService).suggest("prod", 5);
+    }
+
+    @Test
+    @DisplayName("GET /api/products/trending - Should return the most viewed products")
+    void testGetTrendingProducts() throws Exception {
+        List<TrendingProductDTO> trending = List.of(TrendingProductDTO.builder()
+                .product(ProductSummaryDTO.builder().id(1L).title("Product 1").build()).views(42L).build());
+
+        when(searchService.trending("24h", null)).thenReturn(trending);
+
+        mockMvc.perform(get("/api/products/trending").param("window", "24h")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].product.id").value(1)).andExpect(jsonPath("$[0].views").value(42));
+
+        verify(searchService).trending("24h", null);
+    }
+
     @Test
     @DisplayName("GET /api/products/{id} - Should return product detail")
     void testGetProductById() throws Exception {
@@ -104,6 +180,50 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.title").value("Samsung Galaxy S24"));
 
         verify(productService).getProductDetail(1L);
+        verify(searchService).recordView(1L);
+    }
+
+    @Test
+    @DisplayName("GET /api/products/{id}/related - Should return similar products")
+    void testGetRelatedProducts() throws Exception {
+        List<RelatedProductDTO> related = List.of(RelatedProductDTO.builder()
+                .product(ProductSummaryDTO.builder().id(2L).title("Product 2").build()).similarity(0.75).build());
+
+        when(searchService.related(1L, 5)).thenReturn(related);
+
+        mockMvc.perform(get("/api/products/1/related").param("limit", "5")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].product.id").value(2)).andExpect(jsonPath("$[0].similarity").value(0.75));
+
+        verify(searchService).related(1L, 5);
+    }
+
+    @Test
+    @DisplayName("GET /api/products/duplicates - Should return near-duplicate listing groups")
+    void testGetDuplicateProducts() throws Exception {
+        List<DuplicateClusterDTO> duplicates = List.of(DuplicateClusterDTO.builder().sellerId(1L).title("Product 1")
+                .productIds(List.of(1L, 4L)).build());
+
+        when(searchService.duplicates(1L, null)).thenReturn(duplicates);
+
+        mockMvc.perform(get("/api/products/duplicates").param("sellerId", "1")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sellerId").value(1)).andExpect(jsonPath("$[0].productIds[1]").value(4));
+
+        verify(searchService).duplicates(1L, null);
+        verify(productService, never()).getProductDetail(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/products/{id}/questions/similar - Should return answered questions like the typed one")
+    void testGetSimilarQuestions() throws Exception {
+        List<SimilarQuestionDTO> similar = List.of(SimilarQuestionDTO.builder().id(3L)
+                .question("¿Tiene garantía?").answer("Sí, 12 meses.").similarity(1.0).build());
+
+        when(questionService.similarQuestions(1L, "tiene garan", null)).thenReturn(similar);
+
+        mockMvc.perform(get("/api/products/1/questions/similar").param("q", "tiene garan")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3)).andExpect(jsonPath("$[0].answer").value("Sí, 12 meses."));
+
+        verify(questionService).similarQuestions(1L, "tiene garan", null);
     }
 
     @Test
@@ -115,6 +235,7 @@ class ProductControllerTest {
         mockMvc.perform(get("/api/products/99999")).andExpect(status().isNotFound());
 
         verify(productService).getProductDetail(99999L);
+        verify(searchService, never()).recordView(any());
     }
 
     @Test
@@ -148,6 +269,21 @@ class ProductControllerTest {
         verify(productService).updateProduct(eq(1L), any(UpdateProductRequest.class));
     }
 
+    @Test
+    @DisplayName("PUT /api/products/{id} - Should return 409 when the product was modified concurrently")
+    void testUpdateProduct_Conflict() throws Exception {
+        String requestBody = readJsonString("product/update-product-request.json");
+
+        when(productService.updateProduct(eq(1L), any(UpdateProductRequest.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+
+        mockMvc.perform(put("/api/products/1").contentType(MediaType.APPLICATION_JSON).content(requestBody))
+                .andExpect(status().isConflict()).andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.error").value("Conflict"))
+                .andExpect(jsonPath("$.message").value("The resource was modified concurrently, please retry."))
+                .andExpect(jsonPath("$.path").value("/api/products/1"));
+    }
+
     @Test
     @DisplayName("DELETE /api/products/{id} - Should delete product")
     void testDeleteProduct() throws Exception {
@@ -0,0 +1,100 @@
+package com.hackerrank.sample.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectionBulkheadDataSourceTest {
+
+    private DataSource pool;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void holdsAPermitUntilTheConnectionIsClosed() throws Exception {
+        ConnectionBulkheadDataSource bulkhead = new ConnectionBulkheadDataSource(pool, 2, 10,
+                Duration.ofMillis(50), meterRegistry);
+
+        Connection first = bulkhead.getConnection();
+        Connection second = bulkhead.getConnection();
+        assertThat(bulkhead.availablePermits()).isZero();
+        assertThatThrownBy(bulkhead::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        first.close();
+        assertThat(bulkhead.availablePermits()).isEqualTo(1);
+        second.close();
+        assertThat(bulkhead.availablePermits()).isEqualTo(2);
+        assertThat(meterRegistry.get("db.bulkhead.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void virtualThreadsWaitForAPermitInsteadOfPilingOntoThePool() throws Exception {
+        ConnectionBulkheadDataSource bulkhead = new ConnectionBulkheadDataSource(pool, 1, 10,
+                Duration.ofSeconds(5), meterRegistry);
+        Connection held = bulkhead.getConnection();
+        CountDownLatch started = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Connection> waiter = executor.submit(() -> {
+                started.countDown();
+                return bulkhead.getConnection();
+            });
+            started.await();
+            Thread.sleep(50);
+            assertThat(waiter).isNotDone();
+            assertThat(meterRegistry.get("db.bulkhead.waiting").gauge().value()).isEqualTo(1);
+
+            held.close();
+            waiter.get(5, TimeUnit.SECONDS).close();
+        }
+        verify(pool, times(2)).getConnection();
+        assertThat(bulkhead.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsAtOnceWhenTooManyThreadsAreWaiting() throws Exception {
+        ConnectionBulkheadDataSource bulkhead = new ConnectionBulkheadDataSource(pool, 1, 0, Duration.ofSeconds(5),
+                meterRegistry);
+        bulkhead.getConnection();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(bulkhead::getConnection).isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("full");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void releasesThePermitWhenThePoolFails() throws Exception {
+        when(pool.getConnection(any(), any())).thenThrow(new SQLTransientConnectionException("pool timeout"));
+        ConnectionBulkheadDataSource bulkhead = new ConnectionBulkheadDataSource(pool, 1, 0, Duration.ofSeconds(1),
+                meterRegistry);
+
+        assertThatThrownBy(() -> bulkhead.getConnection("user", "secret")).hasMessage("pool timeout");
+        assertThat(bulkhead.availablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,77 @@
+package com.hackerrank.sample.datasource;
+
+import com.hackerrank.sample.observability.StatementCountingDataSource;
+import com.hackerrank.sample.observability.StatementCountingDataSourcePostProcessor;
+import com.hackerrank.sample.resilience.DeadlineDataSource;
+import com.hackerrank.sample.resilience.DeadlineDataSourcePostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.OrderComparator;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConnectionBulkheadPostProcessorTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void wrapsTheDataSourceInADocumentedOrderSizedToTheConfiguredPool() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<ConnectionBulkheadProperties> properties = mock(ObjectProvider.class);
+        when(properties.getObject()).thenReturn(new ConnectionBulkheadProperties());
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+        when(meterRegistryProvider.getObject()).thenReturn(meterRegistry);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "4");
+
+        List<BeanPostProcessor> processors = new ArrayList<>(List.of(new StatementCountingDataSourcePostProcessor(),
+                new DeadlineDataSourcePostProcessor(),
+                new ConnectionBulkheadPostProcessor(properties, meterRegistryProvider, environment)));
+        processors.sort(OrderComparator.INSTANCE);
+        DataSource pool = mock(DataSource.class);
+        Object bean = pool;
+        for (BeanPostProcessor processor : processors) {
+            bean = processor.postProcessAfterInitialization(bean, "dataSource");
+        }
+
+        assertThat(bean).isInstanceOf(StatementCountingDataSource.class);
+        DataSource deadline = ((DelegatingDataSource) bean).getTargetDataSource();
+        assertThat(deadline).isInstanceOf(DeadlineDataSource.class);
+        DataSource bulkhead = ((DelegatingDataSource) deadline).getTargetDataSource();
+        assertThat(bulkhead).isInstanceOf(ConnectionBulkheadDataSource.class);
+        assertThat(((DelegatingDataSource) bulkhead).getTargetDataSource()).isSameAs(pool);
+        assertThat(meterRegistry.get("db.bulkhead.available").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sizesThePermitsToThePrimaryAndReplicaPoolsWhenRouting() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<ConnectionBulkheadProperties> properties = mock(ObjectProvider.class);
+        when(properties.getObject()).thenReturn(new ConnectionBulkheadProperties());
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+        when(meterRegistryProvider.getObject()).thenReturn(meterRegistry);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "4")
+                .withProperty("app.datasource.routing.enabled", "true")
+                .withProperty("app.datasource.routing.replicas[0].url", "jdbc:h2:mem:replica0")
+                .withProperty("app.datasource.routing.replicas[0].maximum-pool-size", "6")
+                .withProperty("app.datasource.routing.replicas[1].url", "jdbc:h2:mem:replica1");
+
+        new ConnectionBulkheadPostProcessor(properties, meterRegistryProvider, environment)
+                .postProcessAfterInitialization(mock(DataSource.class), "dataSource");
+
+        // 4 primary + 6 + 10 (Hikari's default) replica connections
+        assertThat(meterRegistry.get("db.bulkhead.available").gauge().value()).isEqualTo(20);
+    }
+}
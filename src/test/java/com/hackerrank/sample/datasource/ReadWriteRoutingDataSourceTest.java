@@ -0,0 +1,147 @@
+package com.hackerrank.sample.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for read/write routing using separate local H2 instances as primary
+ * and replicas. Each instance stores its own name so the test can tell where
+ * a query ran.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to replicas in round-robin order")
+    void testReadOnlyTransactionsUseReplicas() {
+        Fixture fixture = new Fixture(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN);
+
+        List<String> readNodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            readNodes.add(fixture.nodeName(true));
+        }
+
+        assertThat(readNodes).containsExactly("replica1", "replica2", "replica1", "replica2");
+        assertThat(fixture.nodeName(false)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Should keep a user's reads on the primary during the read-your-writes window")
+    void testReadYourWritesWindow() {
+        Fixture fixture = new Fixture(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken("seller", null, List.of()));
+
+        assertThat(fixture.nodeName(false)).isEqualTo("primary");
+        assertThat(fixture.nodeName(true)).isEqualTo("primary");
+
+        clock.advance(Duration.ofSeconds(3));
+        assertThat(fixture.nodeName(true)).startsWith("replica");
+    }
+
+    @Test
+    @DisplayName("Should pick the replica with fewest active connections when least-loaded")
+    void testLeastLoadedSelection() throws Exception {
+        Fixture fixture = new Fixture(ReadWriteRoutingDataSource.Strategy.LEAST_LOADED);
+
+        String busy = fixture.transactionTemplate(true).execute(status -> {
+            String first = fixture.jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+            // A second read-only transaction while the first still holds its connection
+            String second = fixture.nodeName(true);
+            assertThat(second).isNotEqualTo(first);
+            return first;
+        });
+
+        assertThat(busy).startsWith("replica");
+        assertThat(fixture.routing.getActiveConnections(0)).isZero();
+        assertThat(fixture.routing.getActiveConnections(1)).isZero();
+    }
+
+    private class Fixture {
+        private final ReadWriteRoutingDataSource routing;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final DataSourceTransactionManager transactionManager;
+
+        Fixture(ReadWriteRoutingDataSource.Strategy strategy) {
+            routing = new ReadWriteRoutingDataSource(h2("primary"), List.of(h2("replica1"), h2("replica2")),
+                    strategy, new ReadYourWritesTracker(Duration.ofSeconds(2), clock));
+            dataSource = new LazyConnectionDataSourceProxy(routing);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            transactionManager = new DataSourceTransactionManager(dataSource);
+        }
+
+        TransactionTemplate transactionTemplate(boolean readOnly) {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(readOnly);
+            template.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+            return template;
+        }
+
+        String nodeName(boolean readOnly) {
+            return transactionTemplate(readOnly)
+                    .execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+            connection.createStatement().execute("DELETE FROM node");
+            connection.createStatement().execute("INSERT INTO node VALUES ('" + name + "')");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return dataSource;
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
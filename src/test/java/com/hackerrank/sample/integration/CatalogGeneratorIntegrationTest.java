@@ -0,0 +1,87 @@
+package com.hackerrank.sample.integration;
+
+import com.hackerrank.sample.datagen.CatalogGenerator;
+import com.hackerrank.sample.datagen.CatalogGeneratorProperties;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// own database: sharing testdb would wipe the seeded catalog under the other integration tests' context
+@ActiveProfiles({ "test", "scale" })
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:scaletestdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "app.datagen.sellers=10", "app.datagen.products=300",
+        "app.datagen.max-reviews-per-product=100", "app.datagen.batch-size=64",
+        "app.datagen.dump-file=target/catalog-test-${random.uuid}.sql.gz" })
+class CatalogGeneratorIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogGenerator catalogGenerator;
+
+    @Autowired
+    private CatalogGeneratorProperties properties;
+
+    @Test
+    void generatesConfiguredCatalog() {
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE id <= 300", Long.class))
+                .isEqualTo(300);
+        assertThat(count("product_images")).isEqualTo(900);
+        assertThat(count("product_attributes")).isEqualTo(1200);
+        assertThat(jdbcTemplate.queryForList("SELECT username FROM users ORDER BY username", String.class))
+                .containsExactly("buyer", "seller");
+    }
+
+    @Test
+    void reviewCountsAreSkewed() {
+        List<Long> perProduct = jdbcTemplate.queryForList(
+                "SELECT COUNT(r.id) FROM products p LEFT JOIN reviews r ON r.product_id = p.id "
+                        + "GROUP BY p.id ORDER BY COUNT(r.id) DESC",
+                Long.class);
+        long total = perProduct.stream().mapToLong(Long::longValue).sum();
+        long topTenPercent = perProduct.stream().limit(perProduct.size() / 10).mapToLong(Long::longValue).sum();
+
+        assertThat(total).isPositive();
+        assertThat(topTenPercent).isGreaterThan(total / 2);
+        assertThat(perProduct.get(perProduct.size() / 2)).isLessThan(perProduct.get(0) / 5);
+    }
+
+    @Test
+    void newProductsGetIdsAfterGeneratedOnes() {
+        Product product = productRepository.save(createBasicProductBuilder().build());
+
+        assertThat(product.getId()).isGreaterThan(300L);
+    }
+
+    @Test
+    void restoresCatalogFromDump() throws Exception {
+        long reviews = count("reviews");
+        assertThat(Files.exists(Path.of(properties.getDumpFile()))).isTrue();
+
+        catalogGenerator.run(new DefaultApplicationArguments());
+
+        assertThat(count("products")).isEqualTo(300);
+        assertThat(count("reviews")).isEqualTo(reviews);
+        Files.deleteIfExists(Path.of(properties.getDumpFile()));
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
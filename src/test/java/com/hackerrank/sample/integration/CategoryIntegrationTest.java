@@ -0,0 +1,120 @@
+package com.hackerrank.sample.integration;
+
+import com.hackerrank.sample.dto.CategoryDTO;
+import com.hackerrank.sample.dto.CategoryProductsDTO;
+import com.hackerrank.sample.dto.CategoryTreeDTO;
+import com.hackerrank.sample.dto.CreateCategoryRequest;
+import com.hackerrank.sample.dto.CreateProductRequest;
+import com.hackerrank.sample.dto.ProductDetailDTO;
+import com.hackerrank.sample.dto.ProductSummaryDTO;
+import com.hackerrank.sample.dto.UpdateProductRequest;
+import com.hackerrank.sample.exception.NoSuchResourceFoundException;
+import com.hackerrank.sample.service.CategoryService;
+import com.hackerrank.sample.service.ProductService;
+import com.hackerrank.sample.support.SqlStatementBudget;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for the category tree and category-scoped listing. Not
+ * transactional on purpose: the in-memory tree only follows commits.
+ */
+class CategoryIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    @DisplayName("Should list the seeded products of a whole subtree with breadcrumbs")
+    void testSeededSubtree() {
+        CategoryProductsDTO electronics = categoryService.getProducts(1L, null, null);
+        assertThat(electronics.getResults()).extracting(ProductSummaryDTO::getId).containsExactly(1L, 3L, 4L, 5L);
+        assertThat(electronics.getNextAfter()).isNull();
+
+        CategoryProductsDTO headphones = categoryService.getProducts(6L, null, null);
+        assertThat(headphones.getBreadcrumbs()).extracting(CategoryDTO::getName)
+                .containsExactly("Electrónica", "Audio", "Auriculares");
+        assertThat(headphones.getResults()).extracting(ProductSummaryDTO::getId).containsExactly(3L, 5L);
+
+        assertThat(productService.getProductDetail(2L).getBreadcrumbs()).extracting(CategoryDTO::getName)
+                .containsExactly("Computación", "Notebooks");
+        assertThat(categoryService.getTree()).extracting(CategoryTreeDTO::getName)
+                .containsSubsequence("Computación", "Electrónica");
+    }
+
+    @Test
+    @DisplayName("Should page through a new subtree by keyset and follow product moves")
+    void testKeysetPaginationAndAssignment() throws IOException {
+        CategoryDTO root = createCategory("Hogar Kqxyz", null);
+        CategoryDTO kitchen = createCategory("Cocina", root.getId());
+        CategoryDTO coffee = createCategory("Cafeteras", kitchen.getId());
+
+        CreateProductRequest request = readJson("product/create-product-request.json", CreateProductRequest.class);
+        request.setSellerId(testSeller.getId());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            request.setTitle("Termo Kqxyz " + (i + 1) + " litros");
+            request.setCategoryId(i % 2 == 0 ? coffee.getId() : kitchen.getId());
+            ids.add(productService.createProduct(request).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        Long after = null;
+        do {
+            CategoryProductsDTO page = categoryService.getProducts(root.getId(), after, 2);
+            page.getResults().forEach(product -> seen.add(product.getId()));
+            after = page.getNextAfter();
+        } while (after != null);
+        assertThat(seen).isEqualTo(ids);
+        assertThat(categoryService.getProducts(coffee.getId(), null, null).getResults())
+                .extracting(ProductSummaryDTO::getId).containsExactly(ids.get(0), ids.get(2), ids.get(4));
+
+        UpdateProductRequest update = new UpdateProductRequest();
+        update.setCategoryId(coffee.getId());
+        ProductDetailDTO moved = productService.updateProduct(ids.get(1), update);
+        assertThat(moved.getBreadcrumbs()).extracting(CategoryDTO::getName)
+                .containsExactly("Hogar Kqxyz", "Cocina", "Cafeteras");
+        assertThat(categoryService.getProducts(coffee.getId(), null, null).getResults()).hasSize(4);
+
+        assertThat(categoryService.getTree()).filteredOn(node -> node.getId().equals(root.getId())).singleElement()
+                .satisfies(node -> assertThat(node.getChildren().get(0).getChildren())
+                        .extracting(CategoryTreeDTO::getName).containsExactly("Cafeteras"));
+        ids.forEach(productService::deleteProduct);
+    }
+
+    @Test
+    @DisplayName("Should list a category page with one products query")
+    void testCategoryPageQueryBudget() throws Exception {
+        // products, images of the page (batched) and ratings of the page
+        SqlStatementBudget.assertAtMost(3, () -> categoryService.getProducts(1L, null, null));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown categories")
+    void testUnknownCategory() throws IOException {
+        assertThatThrownBy(() -> categoryService.getProducts(99999L, null, null))
+                .isInstanceOf(NoSuchResourceFoundException.class);
+        assertThatThrownBy(() -> createCategory("Huérfana", 99999L)).isInstanceOf(NoSuchResourceFoundException.class);
+
+        CreateProductRequest request = readJson("product/create-product-request.json", CreateProductRequest.class);
+        request.setSellerId(testSeller.getId());
+        request.setCategoryId(99999L);
+        assertThatThrownBy(() -> productService.createProduct(request))
+                .isInstanceOf(NoSuchResourceFoundException.class);
+    }
+
+    private CategoryDTO createCategory(String name, Long parentId) {
+        return categoryService.createCategory(new CreateCategoryRequest(name, parentId));
+    }
+}
@@ -0,0 +1,216 @@
+package com.hackerrank.sample.integration;
+
+import com.hackerrank.sample.changes.ChangeLog;
+import com.hackerrank.sample.dto.AnswerQuestionRequest;
+import com.hackerrank.sample.dto.ChangeDTO;
+import com.hackerrank.sample.dto.ChangeFeedDTO;
+import com.hackerrank.sample.dto.CreateProductRequest;
+import com.hackerrank.sample.dto.CreateQuestionRequest;
+import com.hackerrank.sample.dto.CreateReviewRequest;
+import com.hackerrank.sample.dto.UpdateProductRequest;
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.model.ChangeLogEntry.EntityType;
+import com.hackerrank.sample.model.ChangeLogEntry.Operation;
+import com.hackerrank.sample.service.ChangeFeedService;
+import com.hackerrank.sample.service.ProductService;
+import com.hackerrank.sample.service.QuestionService;
+import com.hackerrank.sample.service.ReviewService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Integration tests for the change feed. Not transactional on purpose: entries
+ * only become visible once their write commits.
+ */
+class ChangeFeedIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Should list committed product, review and question writes in order, page by page")
+    void testFeedFollowsWrites() throws IOException {
+        long since = head();
+        Long productId = createProduct("Lámpara de escritorio Jqxyz");
+        Long reviewId = reviewService.addReview(productId, review()).getId();
+        Long questionId = questionService.addQuestion(productId, question()).getId();
+        AnswerQuestionRequest answer = new AnswerQuestionRequest();
+        answer.setAnswer("Sí, trae lámpara LED.");
+        questionService.answerQuestion(productId, questionId, answer);
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.updateProduct(productId, priceUpdate("10.00"));
+            status.setRollbackOnly();
+        });
+        productService.deleteProduct(productId);
+
+        List<ChangeDTO> changes = new ArrayList<>();
+        ChangeFeedDTO page;
+        long token = since;
+        do {
+            page = changeFeedService.getChanges(token, 2);
+            assertThat(page.getChanges()).hasSizeLessThanOrEqualTo(2);
+            changes.addAll(page.getChanges());
+            token = page.getNext();
+        } while (page.isHasMore());
+
+        assertThat(changes).extracting(ChangeDTO::getEntityType, ChangeDTO::getEntityId, ChangeDTO::getOperation)
+                .containsExactly(tuple(EntityType.PRODUCT, productId, Operation.UPSERT),
+                        tuple(EntityType.REVIEW, reviewId, Operation.UPSERT),
+                        tuple(EntityType.QUESTION, questionId, Operation.UPSERT),
+                        tuple(EntityType.QUESTION, questionId, Operation.UPSERT),
+                        tuple(EntityType.PRODUCT, productId, Operation.DELETE));
+        assertThat(changes).extracting(ChangeDTO::getProductId).containsOnly(productId);
+        assertThat(changes).extracting(ChangeDTO::getToken).isSorted().doesNotHaveDuplicates();
+
+        ChangeFeedDTO caughtUp = changeFeedService.getChanges(token, null);
+        assertThat(caughtUp.getChanges()).isEmpty();
+        assertThat(caughtUp.getNext()).isEqualTo(token);
+        assertThat(caughtUp.isHasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not pass an entry whose transaction is still open")
+    void testFeedWaitsForOpenTransactions() throws Exception {
+        Long slowId = createProduct("Silla ergonómica Jvxyz");
+        Long fastId = createProduct("Mesa plegable Jwxyz");
+        long since = head();
+
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    productService.updateProduct(slowId, priceUpdate("20.00"));
+                    recorded.countDown();
+                    await(release);
+                }));
+        try {
+            assertThat(recorded.await(10, TimeUnit.SECONDS)).isTrue();
+            reviewService.addReview(fastId, review());
+
+            // the review committed, but the open update holds an earlier token
+            ChangeFeedDTO blocked = changeFeedService.getChanges(since, null);
+            assertThat(blocked.getChanges()).isEmpty();
+            assertThat(blocked.getNext()).isEqualTo(since);
+        } finally {
+            release.countDown();
+        }
+        slow.get(10, TimeUnit.SECONDS);
+
+        assertThat(changeFeedService.getChanges(since, null).getChanges())
+                .extracting(ChangeDTO::getProductId, ChangeDTO::getEntityType)
+                .containsExactly(tuple(slowId, EntityType.PRODUCT), tuple(fastId, EntityType.REVIEW));
+        productService.deleteProduct(slowId);
+        productService.deleteProduct(fastId);
+    }
+
+    @Test
+    @DisplayName("Should compact superseded entries and keep the latest of each entity")
+    void testCompaction() throws IOException {
+        long since = head();
+        Long keptId = createProduct("Ventilador de techo Jyxyz");
+        Long deletedId = createProduct("Estufa eléctrica Jzxyz");
+        Long reviewId = reviewService.addReview(keptId, review()).getId();
+        reviewService.addReview(deletedId, review());
+        productService.updateProduct(keptId, priceUpdate("30.00"));
+        productService.updateProduct(keptId, priceUpdate("31.00"));
+        productService.deleteProduct(deletedId);
+
+        assertThat(changeLog.compact()).isGreaterThanOrEqualTo(4);
+
+        List<ChangeDTO> changes = changeFeedService.getChanges(since, 1000).getChanges().stream()
+                .filter(change -> Set.of(keptId, deletedId).contains(change.getProductId())).toList();
+        assertThat(changes).extracting(ChangeDTO::getEntityType, ChangeDTO::getEntityId, ChangeDTO::getOperation)
+                .containsExactly(tuple(EntityType.REVIEW, reviewId, Operation.UPSERT),
+                        tuple(EntityType.PRODUCT, keptId, Operation.UPSERT),
+                        tuple(EntityType.PRODUCT, deletedId, Operation.DELETE));
+        productService.deleteProduct(keptId);
+    }
+
+    @Test
+    @DisplayName("Should reject negative tokens and writes outside a transaction")
+    void testInvalidUse() {
+        assertThatThrownBy(() -> changeFeedService.getChanges(-1L, null))
+                .isInstanceOf(BadResourceRequestException.class);
+        assertThatThrownBy(() -> changeLog.record(EntityType.PRODUCT, 1L, 1L, Operation.UPSERT))
+                .isInstanceOf(IllegalTransactionStateException.class);
+        assertThat(changeFeedService.getChanges(null, 5000).getLimit()).isEqualTo(1000);
+    }
+
+    // the token a consumer holds once it has read everything
+    private long head() {
+        ChangeFeedDTO page;
+        long since = 0;
+        do {
+            page = changeFeedService.getChanges(since, 1000);
+            since = page.getNext();
+        } while (page.isHasMore());
+        return since;
+    }
+
+    private Long createProduct(String title) throws IOException {
+        CreateProductRequest request = readJson("product/create-product-request.json", CreateProductRequest.class);
+        request.setTitle(title);
+        request.setSellerId(testSeller.getId());
+        return productService.createProduct(request).getId();
+    }
+
+    private static UpdateProductRequest priceUpdate(String price) {
+        UpdateProductRequest update = new UpdateProductRequest();
+        update.setPrice(new BigDecimal(price));
+        return update;
+    }
+
+    private static CreateReviewRequest review() {
+        CreateReviewRequest review = new CreateReviewRequest();
+        review.setRating(4);
+        review.setComment("Cumple lo prometido.");
+        review.setUserName("buyer1");
+        return review;
+    }
+
+    private static CreateQuestionRequest question() {
+        CreateQuestionRequest question = new CreateQuestionRequest();
+        question.setQuestion("¿Incluye lámpara?");
+        question.setUserName("buyer1");
+        return question;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.hackerrank.sample.integration;
+
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class LayerTimingIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("GET /api/products/{id} should be timed in every layer")
+    void testProductDetailIsTimedPerLayer() throws Exception {
+        Product product = productRepository.save(createBasicProductBuilder().build());
+
+        mockMvc.perform(get("/api/products/{id}", product.getId())).andExpect(status().isOk());
+
+        assertThat(timer("controller", "ProductController", "getProductById").count()).isPositive();
+        assertThat(timer("service", "ProductService", "getProductDetail").count()).isPositive();
+        assertThat(timer("mapper", "ProductMapper", "toDetailDTO").count()).isPositive();
+        assertThat(timer("repository", "ProductRepository", "findById").count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Outer layers should include the time of the layers below")
+    void testLayersAreInclusive() throws Exception {
+        Product product = productRepository.save(createBasicProductBuilder().build());
+
+        mockMvc.perform(get("/api/products/{id}/reviews", product.getId())).andExpect(status().isOk());
+
+        Timer controller = timer("controller", "ProductController", "getProductReviews");
+        Timer service = timer("service", "ReviewService", "getProductReviews");
+        assertThat(controller.totalTime(TimeUnit.NANOSECONDS))
+                .isGreaterThanOrEqualTo(service.totalTime(TimeUnit.NANOSECONDS));
+    }
+
+    private Timer timer(String layer, String className, String method) {
+        Timer timer = meterRegistry.find("app.layer.duration").tags("layer", layer, "class", className, "method", method)
+                .timer();
+        assertThat(timer).as("%s %s.%s", layer, className, method).isNotNull();
+        return timer;
+    }
+}
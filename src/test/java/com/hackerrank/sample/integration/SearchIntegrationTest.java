@@ -0,0 +1,307 @@
+package com.hackerrank.sample.integration;
+
+import com.hackerrank.sample.dto.AnswerQuestionRequest;
+import com.hackerrank.sample.dto.CreateProductRequest;
+import com.hackerrank.sample.dto.CreateQuestionRequest;
+import com.hackerrank.sample.dto.DuplicateClusterDTO;
+import com.hackerrank.sample.dto.FilterResultDTO;
+import com.hackerrank.sample.dto.ProductDetailDTO;
+import com.hackerrank.sample.dto.ProductSummaryDTO;
+import com.hackerrank.sample.dto.QuestionDTO;
+import com.hackerrank.sample.dto.RelatedProductDTO;
+import com.hackerrank.sample.dto.SearchResultDTO;
+import com.hackerrank.sample.dto.SimilarQuestionDTO;
+import com.hackerrank.sample.dto.SuggestionDTO;
+import com.hackerrank.sample.dto.TrendingProductDTO;
+import com.hackerrank.sample.dto.UpdateProductRequest;
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.exception.DuplicateProductException;
+import com.hackerrank.sample.exception.NoSuchResourceFoundException;
+import com.hackerrank.sample.search.CatalogDocument;
+import com.hackerrank.sample.search.CatalogIndex;
+import com.hackerrank.sample.search.CatalogIndexer;
+import com.hackerrank.sample.search.ProductChangedEvent;
+import com.hackerrank.sample.search.SearchProperties;
+import com.hackerrank.sample.service.ProductService;
+import com.hackerrank.sample.service.QuestionService;
+import com.hackerrank.sample.service.SearchService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Integration tests for full-text search. Not transactional on purpose: the
+ * index only follows product writes once they commit.
+ */
+class SearchIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SearchProperties searchProperties;
+
+    @Autowired
+    private CatalogIndex catalogIndex;
+
+    @Autowired
+    private CatalogIndexer catalogIndexer;
+
+    @Test
+    @DisplayName("Should index the seeded catalog at startup")
+    void testSeedCatalogIsSearchable() {
+        SearchResultDTO result = searchService.search("iphone titanio", 0, 5);
+
+        assertThat(result.getTotal()).isPositive();
+        assertThat(result.getResults().get(0).getTitle()).contains("iPhone 15 Pro Max");
+        assertThat(result.getResults().get(0).getThumbnail()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should suggest seeded titles by prefix, also with a typo")
+    void testSeedTitlesAreSuggested() {
+        assertThat(suggestedTitles("IPHO")).containsExactly("iPhone 15 Pro Max 256GB - Titanio Natural");
+
+        List<SuggestionDTO> corrected = searchService.suggest("ipohne 15", null);
+        assertThat(corrected).hasSize(1);
+        assertThat(corrected.get(0).getEdits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should filter the seeded catalog by attributes and count facets")
+    void testSeedCatalogIsFilterable() {
+        FilterResultDTO apple = searchService.filter(List.of(), List.of(), List.of("marca:apple"), null, null, null,
+                0, null);
+
+        assertThat(apple.getTotal()).isEqualTo(3);
+        assertThat(apple.getFacets().get("Marca")).containsExactly(entry("Apple", 3));
+
+        FilterResultDTO phonesWith512 = searchService.filter(List.of("new"), List.of(),
+                List.of("Marca:Apple", "Marca:Samsung", "Capacidad:512 GB"), null, null, null, 0, null);
+        assertThat(phonesWith512.getResults()).extracting(ProductSummaryDTO::getTitle)
+                .containsExactly("Samsung Galaxy S24 Ultra 512GB - Titanium Gray");
+
+        FilterResultDTO appleByPrice = searchService.filter(List.of(), List.of(), List.of("Marca:Apple"),
+                new BigDecimal("250"), null, "price_desc", 0, null);
+        assertThat(appleByPrice.getResults()).extracting(ProductSummaryDTO::getPrice)
+                .isSortedAccordingTo(Comparator.reverseOrder())
+                .allSatisfy(price -> assertThat(price).isGreaterThanOrEqualTo(new BigDecimal("250")));
+        assertThat(appleByPrice.getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should follow committed creates, updates and deletes")
+    void testIndexFollowsCommittedWrites() throws IOException {
+        CreateProductRequest request = readJson("product/create-product-request.json", CreateProductRequest.class);
+        request.setTitle("Cafetera Espresso Oster Zyxwv");
+        request.setSellerId(testSeller.getId());
+        ProductDetailDTO created = productService.createProduct(request);
+
+        assertThat(titles(searchService.search("CAFETERAS zyxwv", 0, 10))).containsExactly(created.getTitle());
+        assertThat(suggestedTitles("cafetera espresso oster zy")).containsExactly(created.getTitle());
+
+        UpdateProductRequest update = new UpdateProductRequest();
+        update.setTitle("Cafetera de Cápsulas Qwvut");
+        productService.updateProduct(created.getId(), update);
+
+        assertThat(searchService.search("zyxwv", 0, 10).getTotal()).isZero();
+        assertThat(titles(searchService.search("capsulas qwvut", 0, 10))).containsExactly("Cafetera de Cápsulas Qwvut");
+        assertThat(suggestedTitles("cafetera espresso oster zy")).isEmpty();
+        assertThat(suggestedTitles("cafetera de capsulas")).containsExactly("Cafetera de Cápsulas Qwvut");
+
+        productService.deleteProduct(created.getId());
+        assertThat(searchService.search("qwvut", 0, 10).getTotal()).isZero();
+        assertThat(suggestedTitles("cafetera de capsulas")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ignore changes whose listener runs after a newer one")
+    void testLateChangesDoNotOverwriteNewerOnes() throws IOException {
+        CreateProductRequest request = readJson("product/create-product-request.json", CreateProductRequest.class);
+        request.setTitle("Tostadora Philips Xqvwz");
+        request.setSellerId(testSeller.getId());
+        ProductDetailDTO created = productService.createProduct(request);
+        CatalogDocument first = catalogIndex.document(created.getId());
+        UpdateProductRequest update = new UpdateProductRequest();
+        update.setTitle("Tostadora Oster Yqvwz");
+        productService.updateProduct(created.getId(), update);
+        assertThat(catalogIndex.document(created.getId()).version()).isGreaterThan(first.version());
+
+        // the creation's listener arriving last must not bring back the old title
+        catalogIndexer.onProductChanged(ProductChangedEvent.saved(first));
+        assertThat(searchService.search("xqvwz", 0, 10).getTotal()).isZero();
+        assertThat(suggestedTitles("tostadora philips")).isEmpty();
+        assertThat(suggestedTitles("tostadora oster")).containsExactly("Tostadora Oster Yqvwz");
+
+        productService.deleteProduct(created.getId());
+        catalogIndexer.onProductChanged(ProductChangedEvent.saved(first));
+        assertThat(catalogIndex.document(created.getId())).isNull();
+        assertThat(suggestedTitles("tostadora")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should relate similar products and follow their updates")
+    void testSimilarProductsAreRelated() throws IOException {
+        CreateProductRequest request = readJson("product/create-product-request.json", CreateProductRequest.class);
+        request.setSellerId(testSeller.getId());
+        request.setTitle("Cafetera Espresso Oster Prima Latte Vapor Acero Inoxidable Roja");
+        ProductDetailDTO red = productService.createProduct(request);
+        request.setTitle("Cafetera Espresso Oster Prima Latte Vapor Acero Inoxidable Negra");
+        ProductDetailDTO black = productService.createProduct(request);
+
+        List<RelatedProductDTO> related = searchService.related(red.getId(), null);
+        assertThat(related).extracting(match -> match.getProduct().getId()).containsExactly(black.getId());
+        assertThat(related.get(0).getSimilarity()).isGreaterThan(0.5);
+
+        UpdateProductRequest update = new UpdateProductRequest();
+        update.setTitle("Licuadora de Mano Rwxyz");
+        productService.updateProduct(black.getId(), update);
+        assertThat(searchService.related(red.getId(), null)).isEmpty();
+
+        productService.deleteProduct(red.getId());
+        productService.deleteProduct(black.getId());
+        assertThatThrownBy(() -> searchService.related(red.getId(), null))
+                .isInstanceOf(NoSuchResourceFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should flag a seller's repost and group it with the original")
+    void testRepostIsFlaggedAsDuplicate() throws IOException {
+        CreateProductRequest request = readJson("product/create-product-request.json", CreateProductRequest.class);
+        request.setSellerId(testSeller.getId());
+        request.setTitle("Licuadora Oster Xpert Series 1400W Vaso de Vidrio Qwxyz");
+        ProductDetailDTO original = productService.createProduct(request);
+        assertThat(original.getDuplicateOf()).isNull();
+
+        request.setTitle("LICUADORA Oster Xpert Series 1400W - Vaso de Vidrio Qwxyz!");
+        ProductDetailDTO repost = productService.createProduct(request);
+        assertThat(repost.getDuplicateOf()).isEqualTo(original.getId());
+
+        request.setTitle("Licuadora Oster Xpert Series 600W Vaso de Plástico Qwxyz");
+        assertThat(productService.createProduct(request).getDuplicateOf()).isNull();
+
+        assertThat(searchService.duplicates(testSeller.getId(), null)).extracting(DuplicateClusterDTO::getProductIds)
+                .containsExactly(List.of(original.getId(), repost.getId()));
+    }
+
+    @Test
+    @DisplayName("Should reject a seller's repost when configured to")
+    void testRepostIsRejected() throws IOException {
+        CreateProductRequest request = readJson("product/create-product-request.json", CreateProductRequest.class);
+        request.setSellerId(testSeller.getId());
+        request.setTitle("Ventilador de Pie Liliana 20 Pulgadas Qvxyz");
+        productService.createProduct(request);
+
+        searchProperties.setDuplicatePolicy(SearchProperties.DuplicatePolicy.REJECT);
+        try {
+            request.setTitle("Ventilador de pie Liliana 20 pulgadas Qvxyz");
+            assertThatThrownBy(() -> productService.createProduct(request))
+                    .isInstanceOf(DuplicateProductException.class);
+        } finally {
+            searchProperties.setDuplicatePolicy(SearchProperties.DuplicatePolicy.FLAG);
+        }
+        assertThat(searchService.search("qvxyz", 0, 10).getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should find answered questions like the one being typed and follow new answers")
+    void testSimilarAnsweredQuestions() throws IOException {
+        assertThat(questionService.similarQuestions(1L, "tiene garan", null)).extracting(SimilarQuestionDTO::getQuestion)
+                .containsExactly("¿Tiene garantía internacional?");
+
+        CreateProductRequest request = readJson("product/create-product-request.json", CreateProductRequest.class);
+        request.setSellerId(testSeller.getId());
+        request.setTitle("Mochila Urbana Impermeable Qtxyz");
+        Long productId = productService.createProduct(request).getId();
+        CreateQuestionRequest ask = new CreateQuestionRequest();
+        ask.setQuestion("¿Entra una notebook de 15 pulgadas?");
+        ask.setUserName("buyer1");
+        QuestionDTO asked = questionService.addQuestion(productId, ask);
+        assertThat(questionService.similarQuestions(productId, "entra notebook", null)).isEmpty();
+
+        AnswerQuestionRequest answer = new AnswerQuestionRequest();
+        answer.setAnswer("Sí, hasta 15,6 pulgadas.");
+        questionService.answerQuestion(productId, asked.getId(), answer);
+        List<SimilarQuestionDTO> similar = questionService.similarQuestions(productId, "¿entra una notebo", 3);
+        assertThat(similar).extracting(SimilarQuestionDTO::getId).containsExactly(asked.getId());
+        assertThat(similar.get(0).getAnswer()).isEqualTo("Sí, hasta 15,6 pulgadas.");
+
+        questionService.deleteQuestion(productId, asked.getId());
+        assertThat(questionService.similarQuestions(productId, "entra notebook", null)).isEmpty();
+        productService.deleteProduct(productId);
+        assertThatThrownBy(() -> questionService.similarQuestions(productId, "entra notebook", null))
+                .isInstanceOf(NoSuchResourceFoundException.class);
+        assertThatThrownBy(() -> questionService.similarQuestions(1L, " ", null))
+                .isInstanceOf(BadResourceRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Should not index writes that roll back")
+    void testRolledBackWritesAreNotIndexed() throws IOException {
+        CreateProductRequest request = readJson("product/create-product-request.json", CreateProductRequest.class);
+        request.setTitle("Aspiradora Vwxyz");
+        request.setSellerId(testSeller.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.createProduct(request);
+            status.setRollbackOnly();
+        });
+
+        assertThat(searchService.search("vwxyz", 0, 10).getTotal()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject a blank query or a too deep offset")
+    void testBlankQuery() {
+        assertThatThrownBy(() -> searchService.search(" ", 0, 10)).isInstanceOf(BadResourceRequestException.class);
+        assertThatThrownBy(() -> searchService.suggest(" ", 10)).isInstanceOf(BadResourceRequestException.class);
+        assertThatThrownBy(() -> searchService.search("iphone", Integer.MAX_VALUE - 5, 10))
+                .isInstanceOf(BadResourceRequestException.class);
+        assertThatThrownBy(() -> searchService.filter(List.of(), List.of(), List.of(), null, null, "price_asc",
+                2_000_000_000, 10)).isInstanceOf(BadResourceRequestException.class)
+                .hasMessage("Offset must not exceed 10000");
+    }
+
+    @Test
+    @DisplayName("Should rank viewed products in both trending windows")
+    void testViewedProductsTrend() {
+        for (int i = 0; i < 50; i++) {
+            searchService.recordView(2L);
+        }
+        searchService.recordView(1L);
+
+        List<TrendingProductDTO> hour = searchService.trending("1h", 2);
+        assertThat(hour).hasSize(2);
+        assertThat(hour.get(0).getProduct().getId()).isEqualTo(2L);
+        assertThat(hour.get(0).getViews()).isGreaterThanOrEqualTo(50);
+        assertThat(searchService.trending("24h", 1).get(0).getProduct().getId()).isEqualTo(2L);
+        assertThatThrownBy(() -> searchService.trending("7d", null)).isInstanceOf(BadResourceRequestException.class);
+    }
+
+    private List<String> suggestedTitles(String prefix) {
+        return searchService.suggest(prefix, null).stream().map(SuggestionDTO::getTitle).toList();
+    }
+
+    private static List<String> titles(SearchResultDTO result) {
+        return result.getResults().stream().map(ProductSummaryDTO::getTitle).toList();
+    }
+}
@@ -0,0 +1,53 @@
+package com.hackerrank.sample.integration;
+
+import com.hackerrank.sample.cache.SellerCache;
+import com.hackerrank.sample.dto.ProductDetailDTO;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.model.Seller;
+import com.hackerrank.sample.repository.ProductRepository;
+import com.hackerrank.sample.service.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the seller near-cache. Not transactional on purpose:
+ * the cache is only updated after a seller write commits.
+ */
+class SellerCacheIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private SellerCache sellerCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("Should keep the cache in sync with seller writes")
+    void testCacheFollowsSellerWrites() {
+        assertThat(sellerCache.get(testSeller.getId()).getName()).isEqualTo("Test Seller");
+
+        testSeller.setName("Renamed Seller");
+        Seller updated = sellerRepository.save(testSeller);
+        assertThat(sellerCache.get(updated.getId()).getName()).isEqualTo("Renamed Seller");
+
+        sellerRepository.delete(updated);
+        assertThat(sellerCache.get(updated.getId(), () -> null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should serve the seller block of product detail from the cache")
+    void testProductDetailUsesCachedSeller() {
+        Product product = productRepository.save(createBasicProductBuilder().build());
+
+        ProductDetailDTO detail = productService.getProductDetail(product.getId());
+
+        assertThat(detail.getSeller()).isSameAs(sellerCache.get(testSeller.getId()));
+        productRepository.delete(product);
+    }
+}
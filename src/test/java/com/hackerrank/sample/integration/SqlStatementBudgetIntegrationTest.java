@@ -0,0 +1,90 @@
+package com.hackerrank.sample.integration;
+
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.model.ProductAttribute;
+import com.hackerrank.sample.model.ProductImage;
+import com.hackerrank.sample.model.Question;
+import com.hackerrank.sample.model.Review;
+import com.hackerrank.sample.repository.ProductRepository;
+import com.hackerrank.sample.support.SqlStatementBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets per endpoint. A failure here usually means an N+1 query
+ * pattern was (re)introduced in a mapper or service.
+ */
+@AutoConfigureMockMvc
+class SqlStatementBudgetIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Product product;
+
+    @BeforeEach
+    void setUpProductGraph() {
+        product = createBasicProductBuilder().build();
+        for (int i = 0; i < 3; i++) {
+            product.addImage(new ProductImage("https://example.com/img" + i + ".jpg", i == 0));
+            product.addAttribute(new ProductAttribute("Attr" + i, "Value" + i));
+            product.addReview(Review.builder().rating(5 - i).comment("Review " + i).userName("user" + i).build());
+            product.addQuestion(Question.builder().question("Question " + i + "?").userName("user" + i).build());
+        }
+        product = productRepository.save(product);
+    }
+
+    @Test
+    @DisplayName("GET /api/products/{id} should stay within its statement budget")
+    void testProductDetailBudget() throws Exception {
+        SqlStatementBudget.assertAtMost(6,
+                () -> mockMvc.perform(get("/api/products/{id}", product.getId())).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("GET /api/products should not issue one query per product")
+    void testProductListBudget() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            Product extra = createBasicProductBuilder().title("Extra " + i).build();
+            extra.addImage(new ProductImage("https://example.com/extra" + i + ".jpg", true));
+            productRepository.save(extra);
+        }
+
+        SqlStatementBudget.assertAtMost(4,
+                () -> mockMvc.perform(get("/api/products")).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("GET reviews and questions of a product should stay within their budgets")
+    void testReviewAndQuestionListBudgets() throws Exception {
+        SqlStatementBudget.assertAtMost(2, () -> mockMvc.perform(get("/api/products/{id}/reviews", product.getId()))
+                .andExpect(status().isOk()));
+        SqlStatementBudget.assertAtMost(2, () -> mockMvc
+                .perform(get("/api/products/{id}/questions", product.getId())).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("Should publish per-request statement metrics tagged by endpoint")
+    void testStatementMetricsPublished() throws Exception {
+        mockMvc.perform(get("/api/products/{id}", product.getId())).andExpect(status().isOk());
+
+        assertThat(meterRegistry.find("sql.statements").tag("uri", "/api/products/{id}").summary())
+                .isNotNull()
+                .satisfies(summary -> assertThat(summary.totalAmount()).isPositive());
+    }
+}
@@ -0,0 +1,81 @@
+package com.hackerrank.sample.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AllocationMetricsFilterTest {
+
+    private static final int ONE_MB = 1024 * 1024;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AllocationMetricsFilter filter;
+
+    /** Keeps the allocated arrays reachable so the JIT cannot elide them. */
+    private Object sink;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AllocationMetricsFilter(meterRegistry);
+    }
+
+    @Test
+    void recordsBytesAllocatedByTheRequestPerRoute() throws Exception {
+        perform("/api/products/{id}", ONE_MB);
+
+        DistributionSummary summary = meterRegistry.find(AllocationMetricsFilter.METRIC_NAME)
+                .tags("uri", "/api/products/{id}", "method", "GET").summary();
+        assertThat(summary).isNotNull();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isGreaterThanOrEqualTo(ONE_MB);
+    }
+
+    @Test
+    void recordsNothingOnVirtualThreads() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> {
+                perform("/api/products/{id}", ONE_MB);
+                return null;
+            }).get();
+        }
+
+        assertThat(meterRegistry.find(AllocationMetricsFilter.METRIC_NAME).summary()).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void endpointListsHeaviestRoutesFirst() throws Exception {
+        perform("/api/products", 4 * ONE_MB);
+        perform("/api/products/{id}", ONE_MB);
+        perform("/api/products/{id}/reviews", 16);
+
+        Map<String, Object> body = new AllocationsEndpoint(meterRegistry).allocations(2);
+
+        List<Map<String, Object>> endpoints = (List<Map<String, Object>>) body.get("endpoints");
+        assertThat(endpoints).extracting(endpoint -> endpoint.get("uri"))
+                .containsExactly("/api/products", "/api/products/{id}");
+        assertThat((long) endpoints.get(0).get("meanBytes")).isGreaterThanOrEqualTo(4L * ONE_MB);
+    }
+
+    private void perform(String pattern, int bytes) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+            sink = new byte[bytes];
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+}
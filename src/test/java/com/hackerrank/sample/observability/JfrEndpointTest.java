@@ -0,0 +1,85 @@
+package com.hackerrank.sample.observability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JfrEndpointTest {
+
+    @TempDir
+    Path directory;
+
+    private JfrEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new JfrEndpoint(directory.toString(), Duration.ofMinutes(1), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordsSummarisesAndDownloads() throws Exception {
+        long id = (long) endpoint.start(1, "profile").get("id");
+        assertThatThrownBy(() -> endpoint.start(1, "profile")).isInstanceOf(InvalidEndpointRequestException.class);
+
+        WebEndpointResponse<Map<String, Object>> summary = awaitSummary(id);
+
+        assertThat(summary.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat((long) summary.getBody().get("events")).isPositive();
+        assertThat(summary.getBody()).containsKeys("hotMethods", "allocationSites", "lockContention");
+        assertThat((List<Object>) summary.getBody().get("hotMethods")).isNotEmpty();
+
+        WebEndpointResponse<Resource> download = endpoint.download(id, "download");
+        assertThat(download.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(download.getBody().contentLength()).isPositive();
+        assertThat(endpoint.download(id, "other").getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @Test
+    void rejectsUnknownSettingsAndDurations() throws Exception {
+        assertThatThrownBy(() -> endpoint.start(1, "missing")).isInstanceOf(InvalidEndpointRequestException.class);
+        assertThatThrownBy(() -> endpoint.start(0, "default")).isInstanceOf(InvalidEndpointRequestException.class);
+        assertThatThrownBy(() -> endpoint.start(3600, "default"))
+                .isInstanceOf(InvalidEndpointRequestException.class);
+        assertThat(endpoint.summary(42).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    private WebEndpointResponse<Map<String, Object>> awaitSummary(long id) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        WebEndpointResponse<Map<String, Object>> summary = endpoint.summary(id);
+        while (summary.getStatus() != WebEndpointResponse.STATUS_OK && System.nanoTime() < deadline) {
+            burnCpu();
+            summary = endpoint.summary(id);
+        }
+        return summary;
+    }
+
+    /** Gives the execution sampler something to see. */
+    private static void burnCpu() {
+        long end = System.nanoTime() + Duration.ofMillis(50).toNanos();
+        StringBuilder builder = new StringBuilder();
+        while (System.nanoTime() < end) {
+            builder.append(System.nanoTime() % 10);
+            if (builder.length() > 10_000) {
+                builder.setLength(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.hackerrank.sample.observability;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Spans go through the real OTLP/HTTP exporter to a local stand-in collector,
+ * which records the request bodies; a trace was exported when its trace id bytes
+ * appear in a body.
+ */
+class TailSamplingSpanExporterTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private HttpServer collector;
+    private final List<byte[]> received = new CopyOnWriteArrayList<>();
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private TailSamplingProperties properties;
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        collector = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        collector.createContext("/v1/traces", exchange -> {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            exchange.getRequestBody().transferTo(body);
+            received.add(body.toByteArray());
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        collector.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new TailSamplingProperties();
+        properties.setLatencyThreshold(Duration.ofMillis(500));
+        properties.setSuccessRatio(0.0);
+        properties.setMaxBufferedSpans(100);
+        properties.setTraceTimeout(Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (tracerProvider != null) {
+            tracerProvider.shutdown().join(5, TimeUnit.SECONDS);
+        }
+        collector.stop(0);
+    }
+
+    @Test
+    void keepsErrorAndSlowTracesAndDropsFastSuccessfulOnes() {
+        startTracer();
+
+        String fast = trace(Duration.ofMillis(20), false);
+        String slow = trace(Duration.ofMillis(800), false);
+        String failed = trace(Duration.ofMillis(20), true);
+
+        assertThat(exported(fast)).isFalse();
+        assertThat(exported(slow)).isTrue();
+        assertThat(exported(failed)).isTrue();
+        assertThat(decisions("kept_slow")).isEqualTo(1);
+        assertThat(decisions("kept_error")).isEqualTo(1);
+        assertThat(decisions("not_sampled")).isEqualTo(1);
+    }
+
+    @Test
+    void keepsConfiguredFractionOfFastTracesAsWholeTraces() {
+        properties.setSuccessRatio(0.25);
+        startTracer();
+
+        int traces = 400;
+        for (int i = 0; i < traces; i++) {
+            trace(Duration.ofMillis(5), false);
+        }
+
+        double kept = decisions("kept_sampled");
+        assertThat(kept + decisions("not_sampled")).isEqualTo(traces);
+        assertThat(kept / traces).isBetween(0.15, 0.35);
+        // root and child of every kept trace are sent together
+        assertThat(received).hasSize((int) kept);
+    }
+
+    @Test
+    void boundsTheBufferAndCountsDroppedSpans() {
+        properties.setMaxBufferedSpans(3);
+        startTracer();
+
+        Span root = tracer.spanBuilder("request").setStartTimestamp(START).startSpan();
+        Context context = Context.root().with(root);
+        for (int i = 0; i < 5; i++) {
+            Span child = tracer.spanBuilder("query").setParent(context).setStartTimestamp(START).startSpan();
+            child.end(START.plusMillis(1));
+        }
+
+        assertThat(meterRegistry.get(TailSamplingSpanExporter.DROPPED_SPANS_METRIC).tag("reason", "buffer_full")
+                .counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("tracing.tail.sampling.buffered.spans").gauge().value()).isEqualTo(2);
+        root.end(START.plusSeconds(1));
+        assertThat(meterRegistry.get("tracing.tail.sampling.buffered.spans").gauge().value()).isZero();
+    }
+
+    @Test
+    void decidesTracesWhoseRootNeverEndsAfterTheTimeout() {
+        startTracer();
+
+        String orphan = childOnly(false);
+        String failedOrphan = childOnly(true);
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        trace(Duration.ofMillis(5), false);
+
+        assertThat(exported(orphan)).isFalse();
+        assertThat(exported(failedOrphan)).isTrue();
+        assertThat(meterRegistry.get(TailSamplingSpanExporter.DROPPED_SPANS_METRIC).tag("reason", "timeout")
+                .counter().count()).isEqualTo(1);
+    }
+
+    private void startTracer() {
+        OtlpHttpSpanExporter otlp = OtlpHttpSpanExporter.builder()
+                .setEndpoint("http://localhost:" + collector.getAddress().getPort() + "/v1/traces").build();
+        TailSamplingSpanExporter exporter = new TailSamplingSpanExporter(otlp, properties, meterRegistry,
+                clock::get);
+        // synchronous export, so the collector has the request once span.end() returns
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new SynchronousExporter(exporter))).build();
+        tracer = tracerProvider.get("test");
+    }
+
+    /** Root span of the given duration with one child; returns the trace id. */
+    private String trace(Duration duration, boolean error) {
+        Span root = tracer.spanBuilder("request").setStartTimestamp(START).startSpan();
+        Span child = tracer.spanBuilder("query").setParent(Context.root().with(root)).setStartTimestamp(START)
+                .startSpan();
+        if (error) {
+            child.setStatus(StatusCode.ERROR);
+        }
+        child.end(START.plusMillis(1));
+        root.end(START.plus(duration));
+        return root.getSpanContext().getTraceId();
+    }
+
+    /** A child span whose (remote) root ends elsewhere, so the trace stays pending. */
+    private String childOnly(boolean error) {
+        Span root = tracer.spanBuilder("lost").setStartTimestamp(START).startSpan();
+        Span child = tracer.spanBuilder("query").setParent(Context.root().with(root)).setStartTimestamp(START)
+                .startSpan();
+        if (error) {
+            child.setStatus(StatusCode.ERROR);
+        }
+        child.end(START.plusMillis(1));
+        return root.getSpanContext().getTraceId();
+    }
+
+    private boolean exported(String traceId) {
+        byte[] id = HexFormat.of().parseHex(traceId);
+        return received.stream().anyMatch(body -> indexOf(body, id) >= 0);
+    }
+
+    private double decisions(String decision) {
+        return meterRegistry.get(TailSamplingSpanExporter.TRACES_METRIC).tag("decision", decision).counter().count();
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        outer: for (int i = 0; i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /** Waits for each export so assertions can run right after a span ends. */
+    private record SynchronousExporter(TailSamplingSpanExporter delegate) implements SpanExporter {
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            return delegate.export(spans).join(5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return delegate.flush();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return delegate.shutdown();
+        }
+    }
+}
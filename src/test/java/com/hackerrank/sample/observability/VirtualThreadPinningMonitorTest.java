@@ -0,0 +1,87 @@
+package com.hackerrank.sample.observability;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+    private SimpleMeterRegistry meterRegistry;
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(5));
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reportsBlockingInsideSynchronizedOnAVirtualThread() throws Exception {
+        Thread.ofVirtual().start(this::blockWhileHoldingMonitor).join();
+
+        Timer timer = awaitTimer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.getId().getTag("site")).isEqualTo(getClass().getName() + ".blockWhileHoldingMonitor");
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(40);
+
+        List<Map<String, Object>> sites = (List<Map<String, Object>>) monitor.pinning().get("sites");
+        assertThat(sites).singleElement().satisfies(site -> {
+            assertThat(site.get("events")).isEqualTo(1L);
+            assertThat(site.get("applicationFrame")).isEqualTo(getClass().getName() + ".blockWhileHoldingMonitor");
+        });
+    }
+
+    @Test
+    void ignoresBlockingThatDoesNotPin() throws Exception {
+        Thread.ofVirtual().start(() -> sleep(50)).join();
+        Thread.sleep(2_000);
+
+        assertThat(meterRegistry.find(VirtualThreadPinningMonitor.METRIC_NAME).timer()).isNull();
+    }
+
+    /** Sleeping while holding a monitor pins the carrier thread on JDK 21. */
+    private void blockWhileHoldingMonitor() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Timer awaitTimer() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        Timer timer = meterRegistry.find(VirtualThreadPinningMonitor.METRIC_NAME).timer();
+        while (timer == null && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            timer = meterRegistry.find(VirtualThreadPinningMonitor.METRIC_NAME).timer();
+        }
+        return timer;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.hackerrank.sample.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private ConcurrencyLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(20);
+        properties.setMinLimit(5);
+        properties.setMaxLimit(100);
+        properties.setWindowSize(10);
+    }
+
+    @Test
+    void rejectsRequestsAboveTheLimit() {
+        properties.setInitialLimit(5);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        for (int i = 1; i <= 5; i++) {
+            assertThat(limiter.tryAcquire()).isEqualTo(i);
+        }
+        assertThat(limiter.tryAcquire()).isZero();
+
+        limiter.releaseIgnored();
+        assertThat(limiter.tryAcquire()).isEqualTo(5);
+    }
+
+    @Test
+    void growsWhileLatencyIsStableUnderLoad() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        runWindows(limiter, 20, millis(10));
+
+        assertThat(limiter.getLimit()).isGreaterThan(30);
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesFromQueueing() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        runWindows(limiter, 20, millis(10));
+        int saturated = limiter.getLimit();
+
+        runWindows(limiter, 20, millis(50));
+
+        assertThat(limiter.getLimit()).isLessThan(saturated / 2);
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(properties.getMinLimit());
+    }
+
+    @Test
+    void doesNotGrowWhenMostPermitsAreUnused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.release(1, millis(10));
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    /** Completes windows of requests that each saw the limiter fully in use. */
+    private static void runWindows(AdaptiveConcurrencyLimiter limiter, int windows, long rttNanos) {
+        for (int i = 0; i < windows * 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(limiter.getLimit(), rttNanos);
+        }
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,89 @@
+package com.hackerrank.sample.resilience;
+
+import com.hackerrank.sample.exception.DeadlineExceededException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineDataSourceTest {
+
+    private static final String SLOW_QUERY = "SELECT SUM(X * X) FROM SYSTEM_RANGE(1, 10000000000)";
+
+    private DeadlineDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:deadline;DB_CLOSE_DELAY=-1");
+        dataSource = new DeadlineDataSource(h2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void runsStatementsWithoutTimeoutOutsideARequest() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+            statement.executeQuery().close();
+            assertThat(statement.getQueryTimeout()).isZero();
+        }
+    }
+
+    @Test
+    void setsTheRemainingBudgetAsQueryTimeout() throws Exception {
+        RequestDeadline.start(10_500, TimeUnit.MILLISECONDS);
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+            statement.executeQuery().close();
+            assertThat(statement.getQueryTimeout()).isBetween(10, 11);
+
+            statement.setQueryTimeout(1);
+            statement.executeQuery().close();
+            assertThat(statement.getQueryTimeout()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void doesNotSendStatementsOnceTheDeadlinePassed() throws Exception {
+        RequestDeadline deadline = RequestDeadline.start(1, TimeUnit.MILLISECONDS);
+        Thread.sleep(5);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertThatThrownBy(() -> statement.executeQuery("SELECT 1"))
+                    .isInstanceOf(DeadlineExceededException.class);
+        }
+        assertThat(deadline.getExceededStage()).isEqualTo("query");
+    }
+
+    @Test
+    void cancelsAQueryThatOutlivesTheDeadline() throws Exception {
+        RequestDeadline deadline = RequestDeadline.start(300, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertThatThrownBy(() -> {
+                try (ResultSet resultSet = statement.executeQuery(SLOW_QUERY)) {
+                    resultSet.next();
+                }
+            }).isInstanceOf(DeadlineExceededException.class).hasCauseInstanceOf(SQLException.class);
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+        assertThat(deadline.getExceededStage()).isEqualTo("query");
+    }
+}
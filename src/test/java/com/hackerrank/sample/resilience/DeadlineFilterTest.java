@@ -0,0 +1,123 @@
+package com.hackerrank.sample.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hackerrank.sample.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeadlineFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setDefaultTimeout(Duration.ofSeconds(2));
+        properties.setMaxTimeout(Duration.ofSeconds(3));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new DeadlineFilter(properties, meterRegistry, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void startsTheDeadlineFromTheHeaderCappedByTheMaximum() throws Exception {
+        assertThat(budgetSeenByHandler(null)).isBetween(1_500L, 2_000L);
+        assertThat(budgetSeenByHandler("800")).isBetween(500L, 800L);
+        assertThat(budgetSeenByHandler("60000")).isBetween(2_500L, 3_000L);
+        assertThat(budgetSeenByHandler("soon")).isBetween(1_500L, 2_000L);
+        assertThat(RequestDeadline.current()).isNull();
+    }
+
+    @Test
+    void rejectsRequestsWhoseDeadlineExpiredOnArrival() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("X-Request-Deadline", "0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(504);
+        assertThat(response.getContentAsString()).contains("\"status\":504", "\"path\":\"/api/products\"");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.get(DeadlineFilter.EXCEEDED_METRIC).tag("stage", "arrival").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void recordsTheStageAndTheWorkSavedWhenTheDeadlinePasses() throws Exception {
+        Timer.builder("http.server.requests").tags("uri", "/api/products/{id}", "method", "GET", "outcome", "SUCCESS")
+                .register(meterRegistry).record(500, TimeUnit.MILLISECONDS);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/products/{id}");
+        request.addHeader("X-Request-Deadline", "20");
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                RequestDeadline.check("service");
+                sleep(40);
+                RequestDeadline.check("mapper");
+            }
+        });
+
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), chain))
+                .isInstanceOf(DeadlineExceededException.class);
+
+        assertThat(meterRegistry.get(DeadlineFilter.EXCEEDED_METRIC).tag("stage", "mapper")
+                .tag("uri", "/api/products/{id}").counter().count()).isEqualTo(1);
+        Timer saved = meterRegistry.get(DeadlineFilter.SAVED_METRIC).timer();
+        assertThat(saved.count()).isEqualTo(1);
+        assertThat(saved.totalTime(TimeUnit.MILLISECONDS)).isBetween(300.0, 460.0);
+    }
+
+    @Test
+    void ignoresRequestsOutsideTheApi() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        request.addHeader("X-Request-Deadline", "0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    private long budgetSeenByHandler(String header) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        if (header != null) {
+            request.addHeader("X-Request-Deadline", header);
+        }
+        AtomicLong remaining = new AtomicLong(-1);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                remaining.set(TimeUnit.NANOSECONDS.toMillis(RequestDeadline.current().remainingNanos()));
+            }
+        }));
+        return remaining.get();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
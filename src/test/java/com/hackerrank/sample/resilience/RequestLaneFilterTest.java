@@ -0,0 +1,89 @@
+package com.hackerrank.sample.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestLaneFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestLaneFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RequestLaneProperties properties = new RequestLaneProperties();
+        properties.setWrite(new RequestLaneProperties.Lane(1, 0, Duration.ofMillis(10)));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RequestLaneFilter(properties,
+                new StaticListableBeanFactory().getBeanProvider(BulkheadRegistry.class), meterRegistry,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void classifiesRequestsIntoLanes() {
+        assertThat(RequestLane.of(new MockHttpServletRequest("GET", "/api/products/1/reviews")))
+                .isEqualTo(RequestLane.BROWSE);
+        assertThat(RequestLane.of(new MockHttpServletRequest("POST", "/api/products"))).isEqualTo(RequestLane.WRITE);
+        assertThat(RequestLane.of(new MockHttpServletRequest("DELETE", "/api/products/1")))
+                .isEqualTo(RequestLane.WRITE);
+        assertThat(RequestLane.of(new MockHttpServletRequest("GET", "/api/categories/6/products")))
+                .isEqualTo(RequestLane.BROWSE);
+        assertThat(RequestLane.of(new MockHttpServletRequest("POST", "/api/categories")))
+                .isEqualTo(RequestLane.WRITE);
+        assertThat(RequestLane.of(new MockHttpServletRequest("GET", "/api/changes"))).isEqualTo(RequestLane.BROWSE);
+        assertThat(RequestLane.of(new MockHttpServletRequest("POST", "/api/auth/login"))).isEqualTo(RequestLane.AUTH);
+        assertThat(RequestLane.of(new MockHttpServletRequest("GET", "/actuator/health"))).isNull();
+        assertThat(RequestLane.of(new MockHttpServletRequest("GET", "/api/productsx"))).isNull();
+    }
+
+    @Test
+    void fullWriteLaneRejectsWritesButNotReads() throws Exception {
+        // a slow write holds the only write permit
+        assertThat(filter.bulkhead(RequestLane.WRITE).tryAcquirePermission()).isTrue();
+
+        MockHttpServletResponse write = perform("PUT", "/api/products/1");
+        MockHttpServletResponse read = perform("GET", "/api/products/1");
+
+        assertThat(write.getStatus()).isEqualTo(503);
+        assertThat(write.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(write.getContentAsString()).contains("Too many write requests");
+        assertThat(read.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("http.server.lane.rejected").tags("lane", "write", "reason", "queue_full")
+                .counter().count()).isEqualTo(1);
+        assertThat(filter.bulkhead(RequestLane.BROWSE).getMetrics().getAvailableConcurrentCalls()).isEqualTo(110);
+    }
+
+    @Test
+    void queuedRequestIsRejectedWhenTheWaitTimesOut() throws Exception {
+        RequestLaneProperties properties = new RequestLaneProperties();
+        properties.setWrite(new RequestLaneProperties.Lane(1, 1, Duration.ofMillis(20)));
+        filter = new RequestLaneFilter(properties,
+                new StaticListableBeanFactory().getBeanProvider(BulkheadRegistry.class), meterRegistry,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        assertThat(filter.bulkhead(RequestLane.WRITE).tryAcquirePermission()).isTrue();
+
+        MockHttpServletResponse write = perform("POST", "/api/products");
+
+        assertThat(write.getStatus()).isEqualTo(503);
+        assertThat(meterRegistry.get("http.server.lane.rejected").tags("lane", "write", "reason", "timeout")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("http.server.lane.wait").tag("lane", "write").timer().count()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,183 @@
+package com.hackerrank.sample.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogIndexTest {
+
+    private SearchProperties properties;
+    private CatalogIndex index;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SearchProperties();
+        index = new CatalogIndex(properties);
+    }
+
+    @Test
+    void matchesTitleDescriptionAndAttributesIgnoringAccents() {
+        index.put(document(1L, "Cámara Réflex Nikon", "Sensor de 24 MP", List.of("Negro"), 0));
+        index.put(document(2L, "Parlante Bluetooth", "Sonido envolvente para tu camara", List.of("Rojo"), 0));
+        index.put(document(3L, "Mouse inalámbrico", "Ergonómico", List.of("Negro"), 0));
+
+        assertThat(ids(index.search("camara", 0, 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("NEGRO", 0, 10))).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(ids(index.search("cámaras réflex", 0, 10))).first().isEqualTo(1L);
+        assertThat(index.search("televisor", 0, 10).total()).isZero();
+        assertThat(index.search("de la", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void ranksDocumentsMatchingMoreAndRarerTermsFirst() {
+        index.put(document(1L, "Samsung Galaxy S24", "Celular", List.of(), 0));
+        index.put(document(2L, "Samsung Televisor 55", "Smart TV", List.of(), 0));
+        index.put(document(3L, "Motorola Edge", "Celular", List.of(), 0));
+        index.put(document(4L, "Samsung Heladera", "No frost", List.of(), 0));
+
+        CatalogIndex.SearchResult result = index.search("samsung celular", 0, 10);
+
+        assertThat(result.total()).isEqualTo(4);
+        assertThat(ids(result).get(0)).isEqualTo(1L);
+        assertThat(result.hits()).isSortedAccordingTo((a, b) -> Double.compare(b.score(), a.score()));
+    }
+
+    @Test
+    void popularityBreaksTiesBetweenEquallyRelevantProducts() {
+        index.put(document(1L, "Auriculares JBL", "Inalámbricos", List.of(), 10));
+        index.put(document(2L, "Auriculares Sony", "Inalámbricos", List.of(), 5_000));
+
+        assertThat(ids(index.search("auricular", 0, 10))).containsExactly(2L, 1L);
+
+        properties.setPopularityBoost(0);
+        CatalogIndex withoutBoost = new CatalogIndex(properties);
+        withoutBoost.put(document(1L, "Auriculares JBL", "Inalámbricos", List.of(), 10));
+        withoutBoost.put(document(2L, "Auriculares Sony", "Inalámbricos", List.of(), 5_000));
+        assertThat(ids(withoutBoost.search("auricular", 0, 10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void updatesAndDeletesAreVisibleToTheNextSearch() {
+        index.put(document(1L, "Notebook Lenovo", "Ideapad", List.of(), 0));
+        index.put(document(1L, "Notebook Asus", "Vivobook", List.of(), 0));
+
+        assertThat(index.search("lenovo", 0, 10).total()).isZero();
+        assertThat(ids(index.search("asus", 0, 10))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+
+        assertThat(index.remove(1L)).isTrue();
+        assertThat(index.remove(1L)).isFalse();
+        assertThat(index.search("notebook", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void pagesThroughTheRankedHits() {
+        List<CatalogDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            documents.add(document(id, "Teclado mecánico " + id, "RGB", List.of(), (int) id));
+        }
+        index.putAll(documents);
+
+        CatalogIndex.SearchResult first = index.search("teclado", 0, 10);
+        CatalogIndex.SearchResult third = index.search("teclado", 20, 10);
+
+        assertThat(first.total()).isEqualTo(25);
+        assertThat(ids(first)).startsWith(25L, 24L).hasSize(10);
+        assertThat(ids(third)).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThat(index.search("teclado", 30, 10).hits()).isEmpty();
+    }
+
+    @Test
+    void hugeOffsetsReturnAnEmptyPage() {
+        for (long id = 1; id <= 25; id++) {
+            index.put(document(id, "Teclado mecánico " + id, "RGB", List.of(), (int) id));
+        }
+
+        assertThat(index.search("teclado", Integer.MAX_VALUE - 5, 10).hits()).isEmpty();
+        assertThat(index.search("teclado", 1_000_000_000, 100).hits()).isEmpty();
+        assertThat(index.search("teclado", 24, Integer.MAX_VALUE).hits()).hasSize(1);
+    }
+
+    @Test
+    void pruningReturnsTheSameTopHitsAsAFullRanking() {
+        String[] words = { "samsung", "sony", "celular", "negro", "azul", "tablet", "pro", "max", "lite", "mini" };
+        Random random = new Random(7);
+        List<CatalogDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            StringBuilder title = new StringBuilder();
+            for (int i = 0; i < 1 + random.nextInt(5); i++) {
+                title.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            documents.add(document(id, title.toString(), words[random.nextInt(words.length)],
+                    List.of(words[random.nextInt(words.length)]), random.nextInt(1_000)));
+        }
+        index.putAll(documents);
+
+        for (String query : List.of("samsung celular negro", "sony tablet pro max", "azul mini", "lite")) {
+            CatalogIndex.SearchResult pruned = index.search(query, 0, 10);
+            CatalogIndex.SearchResult full = index.search(query, 0, 5_000);
+
+            assertThat(ids(pruned)).as(query).isEqualTo(ids(full).subList(0, 10));
+            assertThat(pruned.total()).isLessThanOrEqualTo(full.total());
+            assertThat(full.totalExact()).isTrue();
+        }
+    }
+
+    @Test
+    void skippingBlocksOfACommonTermKeepsTheTopHitsAndAnExactTotal() {
+        Random random = new Random(11);
+        List<CatalogDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            String title = "Producto " + "extra ".repeat(random.nextInt(4)) + id;
+            documents.add(document(id, title, "Descripción", List.of(), random.nextInt(10_000)));
+        }
+        index.putAll(documents);
+        for (long id = 1; id <= 5_000; id += 3) {
+            index.remove(id);
+        }
+
+        CatalogIndex.SearchResult pruned = index.search("descripcion", 0, 10);
+        CatalogIndex.SearchResult full = index.search("descripcion", 0, 5_000);
+
+        assertThat(ids(pruned)).isEqualTo(ids(full).subList(0, 10));
+        assertThat(pruned.total()).isEqualTo(full.total()).isEqualTo(index.size());
+        assertThat(pruned.totalExact()).isTrue();
+    }
+
+    @Test
+    void purgingTombstonesKeepsResultsIntact() {
+        List<CatalogDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 3_000; id++) {
+            documents.add(document(id, "Producto " + (id % 2 == 0 ? "par" : "impar"), "Item " + id, List.of(), 0));
+        }
+        index.putAll(documents);
+        int terms = index.termCount();
+        for (long id = 1; id <= 2_000; id++) {
+            index.remove(id);
+        }
+
+        assertThat(index.size()).isEqualTo(1_000);
+        assertThat(index.search("par", 0, 10).total()).isEqualTo(500);
+        assertThat(ids(index.search("2500", 0, 10))).containsExactly(2_500L);
+        assertThat(index.search("1500", 0, 10).total()).isZero();
+        // the first 1024 deletes were purged along with their terms
+        assertThat(index.termCount()).isEqualTo(terms - 1_024);
+    }
+
+    private static List<Long> ids(CatalogIndex.SearchResult result) {
+        return result.hits().stream().map(hit -> hit.document().id()).toList();
+    }
+
+    static CatalogDocument document(Long id, String title, String description, List<String> attributes, int sold) {
+        List<CatalogDocument.Attribute> values = attributes.stream()
+                .map(value -> new CatalogDocument.Attribute("Atributo", value)).toList();
+        return new CatalogDocument(id, title, description, values, new BigDecimal("10.00"), "USD", null, "new", 1,
+                sold, 1L);
+    }
+}
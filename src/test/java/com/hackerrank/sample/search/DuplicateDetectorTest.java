@@ -0,0 +1,136 @@
+package com.hackerrank.sample.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuplicateDetectorTest {
+
+    private static final String PHONE = "Samsung Galaxy S24 Ultra 512GB Titanium Gray";
+    private static final String PHONE_DESCRIPTION = "Smartphone con pantalla de 6.8 pulgadas, cámara de 200 MP, "
+            + "S Pen integrado y batería de 5000 mAh.";
+    private static final String[] WORDS = { "samsung", "apple", "sony", "celular", "notebook", "auriculares",
+            "televisor", "tablet", "parlante", "pro", "max", "lite", "ultra", "plus", "mini", "negro", "blanco",
+            "rojo", "azul", "verde", "gris", "nuevo", "usado", "oferta", "envio", "gratis", "garantia", "original" };
+
+    private DuplicateDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new DuplicateDetector(new SearchProperties());
+        detector.putAll(List.of(
+                product(1L, PHONE, PHONE_DESCRIPTION, 7L),
+                product(2L, "Samsung Galaxy S24 Ultra 256GB Titanium Gray", PHONE_DESCRIPTION, 7L),
+                product(3L, PHONE, PHONE_DESCRIPTION, 8L),
+                product(4L, "Cafetera Espresso Oster Prima Latte", "Cafetera con vaporizador de leche.", 7L)));
+    }
+
+    @Test
+    void findsCosmeticRepostsOfTheSameSeller() {
+        List<DuplicateDetector.Duplicate> duplicates = detector.find("SAMSUNG Galaxy S24 Ultra 512GB - Titanium Gray!",
+                PHONE_DESCRIPTION + " Envío gratis.", 7L, 10);
+
+        // another capacity is another product, and seller 8's identical listing is not seller 7's repost
+        assertThat(duplicates).extracting(DuplicateDetector.Duplicate::productId).containsExactly(1L);
+        assertThat(duplicates.get(0).distance()).isBetween(0, 3);
+        assertThat(detector.find(PHONE, PHONE_DESCRIPTION, 8L, 10)).containsExactly(new DuplicateDetector.Duplicate(3L, 0));
+        assertThat(detector.find(PHONE, PHONE_DESCRIPTION, 9L, 10)).isEmpty();
+        assertThat(detector.find("Zapatillas Running Nike Pegasus 40", "Talle 42.", 7L, 10)).isEmpty();
+    }
+
+    @Test
+    void fingerprintsOfUnrelatedTextsAreFarApart() {
+        Random random = new Random(3);
+        int total = 0;
+        int pairs = 500;
+        for (int i = 0; i < pairs; i++) {
+            total += Long.bitCount(DuplicateDetector.fingerprint(randomText(random, 6), randomText(random, 12))
+                    ^ DuplicateDetector.fingerprint(randomText(random, 6), randomText(random, 12)));
+        }
+        assertThat((double) total / pairs).isGreaterThan(20);
+    }
+
+    @Test
+    void findsEveryPairWithinTheDistanceLikeABruteForceComparison() {
+        Random random = new Random(5);
+        List<CatalogDocument> documents = new ArrayList<>();
+        for (long id = 100; id < 3_100; id++) {
+            documents.add(product(id, randomText(random, 3), randomText(random, 2), 1 + id % 3));
+        }
+        detector.putAll(documents);
+
+        int expected = 0;
+        for (CatalogDocument document : documents.subList(0, 300)) {
+            long fingerprint = DuplicateDetector.fingerprint(document.title(), document.description());
+            Set<Long> brute = new HashSet<>();
+            for (CatalogDocument other : documents) {
+                long distance = Long.bitCount(fingerprint
+                        ^ DuplicateDetector.fingerprint(other.title(), other.description()));
+                if (distance <= 3 && other.sellerId().equals(document.sellerId())) {
+                    brute.add(other.id());
+                }
+            }
+            Set<Long> found = new HashSet<>();
+            detector.find(document.title(), document.description(), document.sellerId(), Integer.MAX_VALUE)
+                    .forEach(duplicate -> found.add(duplicate.productId()));
+            assertThat(found).isEqualTo(brute);
+            expected += brute.size() - 1;
+        }
+        assertThat(expected).isGreaterThan(50);
+    }
+
+    @Test
+    void groupsTheSellersDuplicatesIntoClusters() {
+        detector.putAll(List.of(
+                product(5L, PHONE + "!", PHONE_DESCRIPTION, 7L),
+                product(6L, "Cafetera Espresso Oster Prima Latte", "Cafetera con vaporizador de leche.", 7L),
+                product(7L, "Cafetera espresso Oster Prima Latte.", "Cafetera con vaporizador de leche.", 9L)));
+
+        assertThat(detector.clusters(7L)).containsExactly(List.of(1L, 5L), List.of(4L, 6L));
+        assertThat(detector.clusters(9L)).isEmpty();
+
+        detector.put(product(5L, PHONE + "!", PHONE_DESCRIPTION, 8L));
+        assertThat(detector.clusters(7L)).containsExactly(List.of(4L, 6L));
+        assertThat(detector.clusters(8L)).containsExactly(List.of(3L, 5L));
+    }
+
+    @Test
+    void followsUpdatesAndRemovals() {
+        detector.put(product(2L, PHONE, PHONE_DESCRIPTION, 7L));
+        assertThat(detector.find(PHONE, PHONE_DESCRIPTION, 7L, 10)).extracting(DuplicateDetector.Duplicate::productId)
+                .containsExactly(1L, 2L);
+        assertThat(detector.find(PHONE, PHONE_DESCRIPTION, 7L, 1)).hasSize(1);
+
+        assertThat(detector.remove(1L)).isTrue();
+        assertThat(detector.remove(1L)).isFalse();
+        assertThat(detector.find(PHONE, PHONE_DESCRIPTION, 7L, 10)).extracting(DuplicateDetector.Duplicate::productId)
+                .containsExactly(2L);
+        assertThat(detector.size()).isEqualTo(3);
+
+        detector.clear();
+        assertThat(detector.size()).isZero();
+        assertThat(detector.find(PHONE, PHONE_DESCRIPTION, 7L, 10)).isEmpty();
+        assertThat(detector.clusters(7L)).isEmpty();
+    }
+
+    private static String randomText(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static CatalogDocument product(Long id, String title, String description, Long sellerId) {
+        return new CatalogDocument(id, title, description, List.of(), BigDecimal.TEN, "USD", null, "new", 1, 0,
+                sellerId);
+    }
+}
@@ -0,0 +1,155 @@
+package com.hackerrank.sample.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class FacetIndexTest {
+
+    private SearchProperties properties;
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SearchProperties();
+        index = new FacetIndex(properties);
+        index.put(product(1L, "new", "USD", "Color", "Negro", "Almacenamiento", "512GB"));
+        index.put(product(2L, "new", "USD", "Color", "Negro", "Almacenamiento", "256GB"));
+        index.put(product(3L, "used", "ARS", "Color", "Blanco", "Almacenamiento", "512GB"));
+        index.put(product(4L, "new", "USD", "Color", "Blanco", "Almacenamiento", "512 GB"));
+    }
+
+    @Test
+    void intersectsFieldsAndUnitesValuesWithinAField() {
+        assertThat(filter(Map.of("Color", List.of("Negro"), "Almacenamiento", List.of("512GB"))).productIds())
+                .containsExactly(1L);
+        assertThat(filter(Map.of("Color", List.of("negro", "BLANCO"))).productIds()).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(index.filter(List.of("new"), List.of("USD"), Map.of("Color", List.of("Blanco")), 0, 10)
+                .productIds()).containsExactly(4L);
+        assertThat(index.filter(List.of("new", "used"), List.of(), Map.of(), 0, 10).total()).isEqualTo(4);
+    }
+
+    @Test
+    void unknownFieldsAndValuesMatchNothing() {
+        assertThat(filter(Map.of("Color", List.of("Verde"))).total()).isZero();
+        assertThat(filter(Map.of("Talle", List.of("M"))).total()).isZero();
+        assertThat(filter(Map.of("Talle", List.of("M"))).facets()).isEmpty();
+    }
+
+    @Test
+    void countsFacetValuesAmongTheMatches() {
+        FacetIndex.FacetResult everything = filter(Map.of());
+        assertThat(everything.total()).isEqualTo(4);
+        assertThat(everything.facets()).containsOnlyKeys("condition", "currency", "Almacenamiento", "Color");
+        assertThat(everything.facets().get("condition")).containsExactly(entry("new", 3), entry("used", 1));
+        assertThat(everything.facets().get("Almacenamiento")).containsExactly(entry("512GB", 2), entry("256GB", 1),
+                entry("512 GB", 1));
+
+        FacetIndex.FacetResult black = filter(Map.of("Color", List.of("Negro")));
+        assertThat(black.facets().get("Color")).containsExactly(entry("Negro", 2));
+        assertThat(black.facets().get("Almacenamiento")).containsExactly(entry("256GB", 1), entry("512GB", 1));
+        assertThat(black.facets().get("currency")).containsExactly(entry("USD", 2));
+    }
+
+    @Test
+    void skipsFacetsWithTooManyValuesAndCapsTheRest() {
+        properties.setFacetMaxValues(2);
+        properties.setFacetLimit(1);
+        FacetIndex limited = new FacetIndex(properties);
+        limited.putAll(List.of(product(1L, "new", "USD", "Color", "Negro", "Modelo", "A1"),
+                product(2L, "new", "USD", "Color", "Negro", "Modelo", "B2"),
+                product(3L, "used", "USD", "Color", "Rojo", "Modelo", "C3")));
+
+        Map<String, Map<String, Integer>> facets = limited.filter(List.of(), List.of(), Map.of(), 0, 10).facets();
+
+        assertThat(facets).doesNotContainKey("Modelo");
+        assertThat(facets.get("Color")).containsExactly(entry("Negro", 2));
+        assertThat(limited.filter(List.of(), List.of(), Map.of("modelo", List.of("b2")), 0, 10).productIds())
+                .containsExactly(2L);
+    }
+
+    @Test
+    void pagesThroughMatchesInIdOrder() {
+        assertThat(index.filter(List.of("new"), List.of(), Map.of(), 1, 1).productIds()).containsExactly(2L);
+        assertThat(index.filter(List.of("new"), List.of(), Map.of(), 2, 5).productIds()).containsExactly(4L);
+        assertThat(index.filter(List.of("new"), List.of(), Map.of(), 3, 5).productIds()).isEmpty();
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceOldValues() {
+        index.put(product(2L, "used", "USD", "Color", "Rojo"));
+        index.remove(3L);
+
+        assertThat(filter(Map.of("Color", List.of("Negro"))).productIds()).containsExactly(1L);
+        assertThat(filter(Map.of("Color", List.of("Rojo"))).productIds()).containsExactly(2L);
+        assertThat(index.filter(List.of("used"), List.of(), Map.of(), 0, 10).productIds()).containsExactly(2L);
+        assertThat(filter(Map.of()).facets().get("currency")).containsExactly(entry("USD", 3));
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.remove(3L)).isFalse();
+    }
+
+    @Test
+    void matchesABruteForceScanOfRandomProducts() {
+        String[] colors = { "Negro", "Blanco", "Rojo", "Azul" };
+        String[] brands = { "Samsung", "Apple", "Sony" };
+        Random random = new Random(11);
+        List<CatalogDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 200_000; id += 1 + random.nextInt(3)) {
+            documents.add(product(id, random.nextBoolean() ? "new" : "used", "USD", "Color",
+                    colors[random.nextInt(colors.length)], "Marca", brands[random.nextInt(brands.length)]));
+        }
+        index.clear();
+        index.putAll(documents);
+        index.optimize();
+
+        FacetIndex.FacetResult result = index.filter(List.of("used"), List.of(),
+                Map.of("Color", List.of("Rojo", "Azul"), "Marca", List.of("Sony")), 100, 20);
+
+        List<CatalogDocument> expected = documents.stream().filter(doc -> doc.condition().equals("used"))
+                .filter(doc -> List.of("Rojo", "Azul").contains(doc.attributes().get(0).value()))
+                .filter(doc -> doc.attributes().get(1).value().equals("Sony")).toList();
+        assertThat(result.total()).isEqualTo(expected.size());
+        assertThat(result.productIds()).isEqualTo(expected.stream().skip(100).limit(20).map(CatalogDocument::id).toList());
+        assertThat(result.facets().get("Color")).isEqualTo(expected.stream()
+                .collect(Collectors.groupingBy(doc -> doc.attributes().get(0).value(), Collectors.summingInt(doc -> 1))));
+        assertThat(index.sizeInBytes()).isPositive();
+
+        // broad enough to count by intersecting bitmaps rather than scanning the matches
+        Map<String, Integer> brandCounts = index.filter(List.of("new"), List.of(), Map.of(), 0, 20).facets().get("Marca");
+        assertThat(brandCounts).isEqualTo(documents.stream().filter(doc -> doc.condition().equals("new"))
+                .collect(Collectors.groupingBy(doc -> doc.attributes().get(1).value(), Collectors.summingInt(doc -> 1))));
+    }
+
+    @Test
+    void countsProductsWithSeveralValuesOfAFieldUnderEach() {
+        index.put(product(5L, "new", "USD", "Color", "Negro", "Color", "Rojo"));
+
+        FacetIndex.FacetResult result = index.filter(List.of("new"), List.of(), Map.of(), 0, 10);
+
+        assertThat(result.facets().get("Color")).containsExactly(entry("Negro", 3), entry("Blanco", 1),
+                entry("Rojo", 1));
+        assertThat(filter(Map.of("Color", List.of("Rojo"))).productIds()).containsExactly(5L);
+    }
+
+    private FacetIndex.FacetResult filter(Map<String, List<String>> attributes) {
+        return index.filter(List.of(), List.of(), attributes, 0, 10);
+    }
+
+    private static CatalogDocument product(Long id, String condition, String currency, String... attributes) {
+        List<CatalogDocument.Attribute> values = new ArrayList<>();
+        for (int i = 0; i < attributes.length; i += 2) {
+            values.add(new CatalogDocument.Attribute(attributes[i], attributes[i + 1]));
+        }
+        return new CatalogDocument(id, "Producto " + id, null, values, new BigDecimal("10.00"), currency, null,
+                condition, 1, 0, 1L);
+    }
+}
@@ -0,0 +1,119 @@
+package com.hackerrank.sample.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceIndexTest {
+
+    private PriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        SearchProperties properties = new SearchProperties();
+        properties.setExchangeRates(Map.of("ars", new BigDecimal("0.001"), "EUR", new BigDecimal("1.10")));
+        index = new PriceIndex(properties);
+        index.put(product(1L, "100.00", "USD"));
+        index.put(product(2L, "50000", "ARS"));
+        index.put(product(3L, "95.00", "EUR"));
+        index.put(product(4L, "20.00", "USD"));
+        index.put(product(5L, "10.00", "JPY"));
+    }
+
+    @Test
+    void comparesPricesInTheBaseCurrency() {
+        assertThat(index.toBaseCents(new BigDecimal("50000"), "ars")).isEqualTo(5_000);
+        assertThat(index.toBaseCents(new BigDecimal("95.00"), "EUR")).isEqualTo(10_450);
+        assertThat(index.toBaseCents(new BigDecimal("10.00"), "JPY")).isEqualTo(-1);
+
+        assertThat(ids(index.between(new BigDecimal("50"), new BigDecimal("100")))).containsExactly(1L, 2L);
+        assertThat(ids(index.between(null, new BigDecimal("49.99")))).containsExactly(4L);
+        assertThat(ids(index.between(new BigDecimal("104.50"), null))).containsExactly(3L);
+        assertThat(index.between(new BigDecimal("200"), new BigDecimal("100")).isEmpty()).isTrue();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void pagesMatchesInPriceOrder() {
+        RoaringBitmap all = RoaringBitmap.bitmapOf(1, 2, 3, 4, 5);
+
+        assertThat(index.sorted(all, false, 0, 10)).containsExactly(4L, 2L, 1L, 3L);
+        assertThat(index.sorted(all, true, 0, 10)).containsExactly(3L, 1L, 2L, 4L);
+        assertThat(index.sorted(all, false, 1, 2)).containsExactly(2L, 1L);
+        assertThat(index.sorted(RoaringBitmap.bitmapOf(1, 3, 5), true, 0, 10)).containsExactly(3L, 1L);
+        assertThat(index.priced().getCardinality()).isEqualTo(4);
+    }
+
+    @Test
+    void repricingMovesTheProduct() {
+        index.put(product(1L, "5.00", "USD"));
+        index.remove(4L);
+
+        assertThat(index.sorted(RoaringBitmap.bitmapOf(1, 2, 3, 4), false, 0, 10)).containsExactly(1L, 2L, 3L);
+        assertThat(ids(index.between(null, new BigDecimal("20")))).containsExactly(1L);
+        assertThat(index.remove(4L)).isFalse();
+    }
+
+    @Test
+    void outOfRangePricesAndBoundsDoNotWrap() {
+        assertThat(index.toBaseCents(new BigDecimal("1e17"), "USD")).isEqualTo(-1);
+        assertThat(index.toBaseCents(new BigDecimal("1e30"), "EUR")).isEqualTo(-1);
+        assertThat(index.toBaseCents(new BigDecimal("1e17"), "ARS")).isEqualTo(-1);
+
+        index.put(product(6L, "1e17", "USD"));
+        assertThat(index.priced().contains(6)).isFalse();
+        assertThat(ids(index.between(new BigDecimal("50"), new BigDecimal("1e17")))).containsExactly(1L, 2L, 3L);
+        assertThat(ids(index.between(null, new BigDecimal("1e30")))).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(index.between(new BigDecimal("1e17"), null).isEmpty()).isTrue();
+        assertThat(index.between(null, new BigDecimal("-1")).isEmpty()).isTrue();
+    }
+
+    @Test
+    void walkingAndSortingAgreeWithABruteForceSort() {
+        index.clear();
+        Random random = new Random(3);
+        List<CatalogDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            documents.add(product(id, random.nextInt(500) + "." + random.nextInt(10) + "0", "USD"));
+        }
+        index.putAll(documents);
+        RoaringBitmap broad = new RoaringBitmap();
+        RoaringBitmap narrow = new RoaringBitmap();
+        for (int id = 1; id <= 20_000; id++) {
+            if (id % 3 == 0) {
+                broad.add(id);
+            }
+            if (id % 200 == 0) {
+                narrow.add(id);
+            }
+        }
+
+        for (RoaringBitmap matches : List.of(broad, narrow)) {
+            List<Long> expected = documents.stream().filter(doc -> matches.contains(doc.id().intValue()))
+                    .sorted(Comparator.comparing(CatalogDocument::price).thenComparing(CatalogDocument::id)
+                            .reversed())
+                    .map(CatalogDocument::id).skip(20).limit(30).toList();
+            assertThat(index.sorted(matches, true, 20, 30)).isEqualTo(expected);
+        }
+    }
+
+    private static List<Long> ids(RoaringBitmap bitmap) {
+        List<Long> ids = new ArrayList<>();
+        bitmap.forEach((int id) -> ids.add((long) id));
+        return ids;
+    }
+
+    private static CatalogDocument product(Long id, String price, String currency) {
+        return new CatalogDocument(id, "Producto " + id, null, List.of(), new BigDecimal(price), currency, null,
+                "new", 1, 0, 1L);
+    }
+}
@@ -0,0 +1,136 @@
+package com.hackerrank.sample.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class QuestionIndexTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SearchProperties properties;
+    private QuestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // products start empty; the tests fill them through change events
+        jdbcTemplate = mock(JdbcTemplate.class);
+        properties = new SearchProperties();
+        properties.setQuestionCacheProducts(2);
+        index = new QuestionIndex(jdbcTemplate, properties, new SimpleMeterRegistry());
+        assertThat(index.similar(1L, "garantia", 5)).isEmpty();
+        answer(1L, 10L, "¿Tiene garantía internacional?", "Sí, la garantía de Apple es internacional.");
+        answer(1L, 11L, "¿Incluye cargador?", "No, solo incluye cable USB-C.");
+        answer(1L, 12L, "¿Es compatible con eSIM?", "Sí, soporta eSIM y dual SIM.");
+    }
+
+    @Test
+    void matchesQuestionsWhileTheyAreTyped() {
+        assertThat(ids(index.similar(1L, "Tiene garan", 5))).containsExactly(10L);
+        assertThat(index.similar(1L, "Tiene garan", 5).get(0).similarity()).isEqualTo(1.0);
+        assertThat(ids(index.similar(1L, "¿Trae cargdor?", 5))).containsExactly(11L);
+        // "dual" only appears in an answer, which counts half
+        assertThat(index.similar(1L, "dual", 5)).singleElement()
+                .satisfies(match -> assertThat(match.similarity()).isEqualTo(0.5));
+        assertThat(index.similar(1L, "¿Qué colores hay?", 5)).isEmpty();
+        assertThat(index.similar(1L, "¿", 5)).isEmpty();
+        assertThat(index.similar(2L, "garantia", 5)).isEmpty();
+    }
+
+    @Test
+    void padsOnlyCompleteWords() {
+        assertThat(QuestionIndex.trigrams("gar", true)).hasSize(2);
+        assertThat(QuestionIndex.trigrams("gar ", true)).hasSize(3);
+        assertThat(QuestionIndex.trigrams("gar", false)).hasSize(3);
+        assertThat(QuestionIndex.trigrams("la de", true)).isEmpty();
+    }
+
+    @Test
+    void followsAnswersAndDeletions() {
+        index.onQuestionChanged(QuestionChangedEvent.saved(1L, 13L, "¿Tiene garantía?", null, null, 0));
+        assertThat(ids(index.similar(1L, "tiene garantia", 5))).containsExactly(10L);
+
+        answer(1L, 13L, "¿Tiene garantía?", "Sí, 12 meses.");
+        assertThat(ids(index.similar(1L, "tiene garantia", 5))).containsExactly(13L, 10L);
+
+        index.onQuestionChanged(QuestionChangedEvent.deleted(1L, 10L));
+        assertThat(ids(index.similar(1L, "tiene garantia", 5))).containsExactly(13L);
+
+        index.onProductChanged(ProductChangedEvent.deleted(1L));
+        assertThat(index.cachedProducts()).isZero();
+    }
+
+    @Test
+    void ignoresEventsOlderThanWhatWasApplied() {
+        index.onQuestionChanged(QuestionChangedEvent.saved(1L, 11L, "¿Incluye cargador?", "Sí, de 20 W.",
+                LocalDateTime.now(), 2));
+        answer(1L, 11L, "¿Incluye cargador?", "No, solo incluye cable USB-C.");
+        assertThat(index.similar(1L, "incluye cargador", 5)).singleElement()
+                .satisfies(match -> assertThat(match.answer()).isEqualTo("Sí, de 20 W."));
+
+        // the answer committed before the deletion, but its listener ran after it
+        index.onQuestionChanged(QuestionChangedEvent.deleted(1L, 10L));
+        answer(1L, 10L, "¿Tiene garantía internacional?", "Sí, la garantía de Apple es internacional.");
+        assertThat(index.similar(1L, "tiene garantia", 5)).isEmpty();
+    }
+
+    @Test
+    void keepsDeletedQuestionsOutAfterCompaction() {
+        for (long id = 100; id < 200; id++) {
+            answer(1L, id, "¿Pregunta numero " + id + "?", "Respuesta " + id);
+        }
+        for (long id = 100; id < 190; id++) {
+            index.onQuestionChanged(QuestionChangedEvent.deleted(1L, id));
+        }
+
+        assertThat(index.similar(1L, "pregunta numero", 100)).hasSize(10);
+        assertThat(ids(index.similar(1L, "pregunta numero 195", 1))).containsExactly(195L);
+        assertThat(ids(index.similar(1L, "Tiene garan", 5))).containsExactly(10L);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedProductAndReloadsIt() {
+        index.similar(2L, "hola", 5);
+        index.similar(1L, "hola", 5);
+        index.similar(3L, "hola", 5);
+
+        assertThat(index.cachedProducts()).isEqualTo(2);
+        assertThat(ids(index.similar(1L, "tiene garantia", 5))).containsExactly(10L);
+        index.similar(2L, "hola", 5);
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class), eq(2L));
+    }
+
+    @Test
+    void doesNotCacheALoadThatOverlapsAChange() {
+        doAnswer(invocation -> {
+            index.onQuestionChanged(QuestionChangedEvent.saved(5L, 50L, "¿Hay stock?", null, null, 0));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(5L));
+
+        index.similar(5L, "stock", 5);
+        index.similar(5L, "stock", 5);
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class), eq(5L));
+    }
+
+    private void answer(Long productId, Long questionId, String question, String answer) {
+        index.onQuestionChanged(QuestionChangedEvent.saved(productId, questionId, question, answer,
+                LocalDateTime.now(), 1));
+    }
+
+    private static List<Long> ids(List<QuestionIndex.Match> matches) {
+        return matches.stream().map(QuestionIndex.Match::questionId).toList();
+    }
+}
@@ -0,0 +1,184 @@
+package com.hackerrank.sample.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelatedProductsTest {
+
+    private static final String[] BRANDS = { "Samsung", "Apple", "Sony", "Motorola", "Xiaomi", "LG" };
+    private static final String[] TYPES = { "Celular", "Notebook", "Auriculares", "Televisor", "Tablet", "Parlante" };
+    private static final String[] VARIANTS = { "Pro", "Max", "Lite", "Ultra", "Plus", "Mini" };
+    private static final String[] COLORS = { "Negro", "Blanco", "Rojo", "Azul", "Verde", "Gris" };
+
+    private RelatedProducts related;
+
+    @BeforeEach
+    void setUp() {
+        related = new RelatedProducts(new SearchProperties());
+        related.putAll(List.of(
+                product(1L, "Samsung Galaxy S24 Ultra 512GB Titanium Gray", "Marca", "Samsung", "Color", "Gris"),
+                product(2L, "Samsung Galaxy S24 Ultra 256GB Titanium Gray", "Marca", "Samsung", "Color", "Gris"),
+                product(3L, "Samsung Galaxy S24 Ultra 512GB Titanium Black", "Marca", "Samsung", "Color", "Negro"),
+                product(4L, "Cafetera Espresso Oster Prima Latte", "Marca", "Oster", "Color", "Rojo"),
+                product(5L, "Zapatillas Running Nike Pegasus 40", "Marca", "Nike", "Talle", "42")));
+    }
+
+    @Test
+    void findsNearDuplicatesAndIgnoresUnrelatedProducts() {
+        List<RelatedProducts.Related> matches = related.related(1L, 10);
+
+        assertThat(matches).extracting(RelatedProducts.Related::productId).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(matches).allSatisfy(match -> assertThat(match.similarity()).isBetween(0.4, 1.0));
+        assertThat(related.related(4L, 10)).isEmpty();
+        assertThat(related.related(99L, 10)).isEmpty();
+        assertThat(related.related(1L, 1)).hasSize(1);
+    }
+
+    @Test
+    void estimatesJaccardSimilarity() {
+        Random random = new Random(11);
+        double totalError = 0;
+        int pairs = 200;
+        for (int i = 0; i < pairs; i++) {
+            CatalogDocument first = randomProduct(2 * i + 100L, random);
+            CatalogDocument second = randomProduct(2 * i + 101L, random);
+            related.putAll(List.of(first, second));
+            double estimate = related.similarity(first.id().intValue(), second.id().intValue());
+            totalError += Math.abs(estimate - jaccard(first, second));
+        }
+        // 32 hash functions: about 0.07 standard error per pair
+        assertThat(totalError / pairs).isLessThan(0.06);
+    }
+
+    @Test
+    void findsMostSimilarPairsLikeABruteForceComparison() {
+        Random random = new Random(5);
+        List<CatalogDocument> documents = new ArrayList<>();
+        for (long id = 100; id < 2_100; id++) {
+            documents.add(randomProduct(id, random));
+        }
+        related.putAll(documents);
+
+        int similarPairs = 0;
+        int found = 0;
+        for (CatalogDocument document : documents.subList(0, 200)) {
+            Set<Long> candidates = new HashSet<>();
+            related.related(document.id(), 2_000).forEach(match -> candidates.add(match.productId()));
+            for (CatalogDocument other : documents) {
+                if (other != document && jaccard(document, other) >= 0.8) {
+                    similarPairs++;
+                    found += candidates.contains(other.id()) ? 1 : 0;
+                }
+            }
+        }
+        assertThat(similarPairs).isGreaterThan(50);
+        assertThat((double) found / similarPairs).isGreaterThan(0.9);
+    }
+
+    @Test
+    void followsUpdatesAndRemovals() {
+        related.put(product(3L, "Cafetera Espresso Oster Prima Latte II", "Marca", "Oster", "Color", "Rojo"));
+
+        assertThat(related.related(1L, 10)).extracting(RelatedProducts.Related::productId).containsExactly(2L);
+        assertThat(related.related(4L, 10)).extracting(RelatedProducts.Related::productId).containsExactly(3L);
+
+        assertThat(related.remove(2L)).isTrue();
+        assertThat(related.remove(2L)).isFalse();
+        assertThat(related.related(1L, 10)).isEmpty();
+        assertThat(related.related(2L, 10)).isEmpty();
+        assertThat(related.size()).isEqualTo(4);
+
+        related.clear();
+        assertThat(related.size()).isZero();
+        assertThat(related.related(4L, 10)).isEmpty();
+    }
+
+    @Test
+    void keepsBandChainsConsistentUnderChurn() {
+        Random random = new Random(17);
+        List<CatalogDocument> documents = new ArrayList<>();
+        for (long id = 100; id < 600; id++) {
+            documents.add(randomProduct(id, random));
+        }
+        related.putAll(documents);
+        for (int i = 0; i < 2_000; i++) {
+            int index = random.nextInt(documents.size());
+            CatalogDocument replacement = randomProduct(documents.get(index).id(), random);
+            documents.set(index, replacement);
+            if (random.nextInt(4) == 0) {
+                related.remove(replacement.id());
+            }
+            related.put(replacement);
+        }
+
+        RelatedProducts rebuilt = new RelatedProducts(new SearchProperties());
+        rebuilt.putAll(documents);
+        for (CatalogDocument document : documents.subList(0, 100)) {
+            assertThat(related.related(document.id(), 50)).isEqualTo(rebuilt.related(document.id(), 50));
+        }
+    }
+
+    @Test
+    void reclaimsEmptiedBandKeysInsteadOfGrowing() {
+        Random random = new Random(23);
+        List<CatalogDocument> documents = new ArrayList<>();
+        for (long id = 100; id < 200; id++) {
+            documents.add(randomProduct(id, random));
+        }
+        related.putAll(documents);
+        long size = related.sizeInBytes();
+
+        // every replacement is a new title, so its band keys are new and the old ones empty
+        for (int i = 0; i < 20_000; i++) {
+            int index = random.nextInt(documents.size());
+            CatalogDocument replacement = product(documents.get(index).id(), "Modelo " + i + " " + pick(TYPES, random),
+                    "Marca", pick(BRANDS, random));
+            documents.set(index, replacement);
+            related.put(replacement);
+        }
+
+        assertThat(related.sizeInBytes()).isEqualTo(size);
+        RelatedProducts rebuilt = new RelatedProducts(new SearchProperties());
+        rebuilt.putAll(documents);
+        for (CatalogDocument document : documents.subList(0, 20)) {
+            assertThat(related.related(document.id(), 50)).isEqualTo(rebuilt.related(document.id(), 50));
+        }
+    }
+
+    private static double jaccard(CatalogDocument first, CatalogDocument second) {
+        Set<String> union = new HashSet<>(RelatedProducts.features(first));
+        Set<String> intersection = new HashSet<>(union);
+        Set<String> other = new HashSet<>(RelatedProducts.features(second));
+        intersection.retainAll(other);
+        union.addAll(other);
+        return (double) intersection.size() / union.size();
+    }
+
+    private static CatalogDocument randomProduct(long id, Random random) {
+        String brand = pick(BRANDS, random);
+        String color = pick(COLORS, random);
+        String title = brand + " " + pick(TYPES, random) + " " + pick(VARIANTS, random) + " " + color;
+        return product(id, title, "Marca", brand, "Color", color);
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static CatalogDocument product(Long id, String title, String... attributes) {
+        List<CatalogDocument.Attribute> list = new ArrayList<>();
+        for (int i = 0; i < attributes.length; i += 2) {
+            list.add(new CatalogDocument.Attribute(attributes[i], attributes[i + 1]));
+        }
+        return new CatalogDocument(id, title, null, list, BigDecimal.TEN, "USD", null, "new", 1, 0, 1L);
+    }
+}
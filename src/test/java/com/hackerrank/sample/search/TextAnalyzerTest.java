@@ -0,0 +1,23 @@
+package com.hackerrank.sample.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextAnalyzerTest {
+
+    @Test
+    void foldsCaseAccentsAndStopWords() {
+        assertThat(TextAnalyzer.tokens("Cámara Réflex de la marca NIKON, 24.2 MP"))
+                .containsExactly("camara", "reflex", "marca", "nikon", "24", "2", "mp");
+        assertThat(TextAnalyzer.tokens("The best phone for the money")).containsExactly("best", "phon", "money");
+        assertThat(TextAnalyzer.tokens("  ")).isEmpty();
+    }
+
+    @Test
+    void singularAndPluralShareATerm() {
+        assertThat(TextAnalyzer.tokens("celulares auriculares camiones parlantes phones"))
+                .isEqualTo(TextAnalyzer.tokens("celular auricular camión parlante phone"));
+        assertThat(TextAnalyzer.tokens("glass bus")).containsExactly("glass", "bus");
+    }
+}
@@ -0,0 +1,128 @@
+package com.hackerrank.sample.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static com.hackerrank.sample.search.CatalogIndexTest.document;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TitleSuggesterTest {
+
+    private TitleSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new TitleSuggester(new SearchProperties());
+    }
+
+    @Test
+    void completesPrefixesByBestSellersIgnoringCaseAndAccents() {
+        suggester.put(title(1L, "Cámara Réflex Nikon D3500", 120));
+        suggester.put(title(2L, "Camara Web Logitech C920", 900));
+        suggester.put(title(3L, "Cafetera Eléctrica Philips", 50));
+        suggester.put(title(4L, "Celular Samsung Galaxy", 5_000));
+
+        assertThat(ids(suggester.suggest("CÁMA", 10))).containsExactly(2L, 1L);
+        assertThat(ids(suggester.suggest("ca", 10))).containsExactly(2L, 1L, 3L);
+        assertThat(ids(suggester.suggest("c", 2))).containsExactly(4L, 2L);
+        assertThat(ids(suggester.suggest("camara reflex", 10))).containsExactly(1L);
+        assertThat(suggester.suggest("zz", 10)).isEmpty();
+        assertThat(suggester.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void toleratesTyposAfterExactMatches() {
+        suggester.put(title(1L, "Samsung Galaxy S24", 100));
+        suggester.put(title(2L, "Samsonite Valija Mediana", 10));
+        suggester.put(title(3L, "Motorola Edge 40", 300));
+
+        // transposition, substitution and omission, each one edit away
+        assertThat(suggester.suggest("smasung", 10)).first().extracting(TitleSuggester.Suggestion::productId,
+                TitleSuggester.Suggestion::edits).containsExactly(1L, 1);
+        assertThat(ids(suggester.suggest("motorila ed", 10))).containsExactly(3L);
+        assertThat(ids(suggester.suggest("mtorola", 10))).containsExactly(3L);
+
+        List<TitleSuggester.Suggestion> suggestions = suggester.suggest("samso", 10);
+        assertThat(ids(suggestions)).containsExactly(2L, 1L);
+        assertThat(suggestions).extracting(TitleSuggester.Suggestion::edits).containsExactly(0, 1);
+
+        // short prefixes are not corrected, and the first character has to match
+        assertThat(suggester.suggest("sm", 10)).isEmpty();
+        assertThat(suggester.suggest("amsung", 10)).isEmpty();
+    }
+
+    @Test
+    void sameTitleIsSuggestedOnceWithItsBestSeller() {
+        suggester.put(title(1L, "Mouse Inalámbrico", 10));
+        suggester.put(title(2L, "mouse inalambrico", 70));
+        suggester.put(title(3L, "Mouse Gamer", 20));
+
+        assertThat(suggester.suggest("mouse", 10)).extracting(TitleSuggester.Suggestion::productId,
+                TitleSuggester.Suggestion::weight).containsExactly(tuple(2L, 70),
+                        tuple(3L, 20));
+        assertThat(suggester.keyCount()).isEqualTo(2);
+    }
+
+    @Test
+    void removingTitlesRestoresTheTrieAndWeights() {
+        suggester.put(title(1L, "Notebook Lenovo", 10));
+        int nodes = suggester.nodeCount();
+        long bytes = suggester.estimatedBytes();
+
+        suggester.put(title(2L, "Notebook HP", 500));
+        suggester.put(title(3L, "Notebook Lenovo IdeaPad", 300));
+        assertThat(ids(suggester.suggest("note", 10))).containsExactly(2L, 3L, 1L);
+
+        suggester.remove(title(2L, "Notebook HP", 500));
+        suggester.remove(title(3L, "Notebook Lenovo IdeaPad", 300));
+        suggester.remove(title(9L, "Notebook Lenovo", 0));
+
+        assertThat(ids(suggester.suggest("note", 10))).containsExactly(1L);
+        assertThat(suggester.nodeCount()).isEqualTo(nodes);
+        assertThat(suggester.keyCount()).isEqualTo(1);
+        assertThat(suggester.estimatedBytes()).isEqualTo(bytes);
+    }
+
+    @Test
+    void matchesABruteForceScanOfRandomTitles() {
+        String[] words = { "samsung", "sony", "soporte", "celular", "cable", "camara", "case", "negro", "nuevo" };
+        Random random = new Random(7);
+        List<CatalogDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " "
+                    + random.nextInt(50);
+            documents.add(title(id, title, random.nextInt(1_000)));
+        }
+        suggester.putAll(documents);
+        for (int i = 0; i < 500; i++) {
+            suggester.remove(documents.get(i));
+        }
+        List<CatalogDocument> live = documents.subList(500, documents.size());
+
+        for (String prefix : List.of("s", "so", "sony c", "camara negro", "case")) {
+            List<Long> expected = live.stream().filter(doc -> doc.title().startsWith(prefix))
+                    .collect(Collectors.groupingBy(CatalogDocument::title)).values().stream()
+                    .map(same -> same.stream().max(Comparator.comparingInt(CatalogDocument::soldQuantity)
+                            .thenComparing(CatalogDocument::id, Comparator.reverseOrder())).orElseThrow())
+                    .sorted(Comparator.comparingInt(CatalogDocument::soldQuantity).reversed())
+                    .map(CatalogDocument::soldQuantity).limit(10).map(Long::valueOf).toList();
+
+            assertThat(suggester.suggest(prefix, 10)).extracting(s -> (long) s.weight()).isEqualTo(expected);
+        }
+    }
+
+    private static CatalogDocument title(Long id, String title, int sold) {
+        return document(id, title, "", List.of(), sold);
+    }
+
+    private static List<Long> ids(List<TitleSuggester.Suggestion> suggestions) {
+        return suggestions.stream().map(TitleSuggester.Suggestion::productId).toList();
+    }
+}
@@ -0,0 +1,117 @@
+package com.hackerrank.sample.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingProductsTest {
+
+    private final AtomicLong now = new AtomicLong(Duration.ofDays(1000).toMillis());
+    private SearchProperties properties;
+    private TrendingProducts trending;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SearchProperties();
+        properties.setTrendingSketchWidth(1024);
+        properties.setTrendingCandidates(20);
+        trending = new TrendingProducts(properties, new SimpleMeterRegistry(), now::get);
+    }
+
+    @Test
+    void findsHeavyHittersAmongManyRarelyViewedProducts() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            if (i % 4 == 0) {
+                // products 1..5 get 5%, 4%, ... 1% of the views
+                int roll = random.nextInt(15);
+                trending.recordView(roll < 5 ? 1 : roll < 9 ? 2 : roll < 12 ? 3 : roll < 14 ? 4 : 5);
+            } else {
+                trending.recordView(100 + random.nextInt(100_000));
+            }
+        }
+
+        List<TrendingProducts.Trend> top = trending.top(TrendingProducts.Window.HOUR, 5);
+        assertThat(top).extracting(TrendingProducts.Trend::productId).containsExactly(1L, 2L, 3L, 4L, 5L);
+        // never undercounts; overcounts by at most a few collisions' worth
+        assertThat(top.get(0).views()).isBetween(16_500L, 17_500L);
+        assertThat(trending.top(TrendingProducts.Window.DAY, 5)).isEqualTo(top);
+    }
+
+    @Test
+    void mergesBucketsAndSlidesTheWindow() {
+        view(1L, 30);
+        view(2L, 20);
+        now.addAndGet(Duration.ofMinutes(20).toMillis());
+        view(2L, 20);
+        view(3L, 25);
+
+        assertThat(trending.top(TrendingProducts.Window.HOUR, 10)).containsExactly(
+                new TrendingProducts.Trend(2L, 40), new TrendingProducts.Trend(1L, 30),
+                new TrendingProducts.Trend(3L, 25));
+
+        now.addAndGet(Duration.ofMinutes(45).toMillis());
+        assertThat(trending.top(TrendingProducts.Window.HOUR, 10)).containsExactly(
+                new TrendingProducts.Trend(3L, 25), new TrendingProducts.Trend(2L, 20));
+        assertThat(trending.top(TrendingProducts.Window.DAY, 1)).containsExactly(new TrendingProducts.Trend(2L, 40));
+
+        now.addAndGet(Duration.ofDays(1).toMillis());
+        assertThat(trending.top(TrendingProducts.Window.HOUR, 10)).isEmpty();
+        assertThat(trending.top(TrendingProducts.Window.DAY, 10)).isEmpty();
+
+        view(4L, 1);
+        assertThat(trending.top(TrendingProducts.Window.DAY, 10)).containsExactly(new TrendingProducts.Trend(4L, 1));
+    }
+
+    @Test
+    void keepsMemoryBoundedByTheNumberOfBuckets() {
+        for (int minute = 0; minute < 3 * 24 * 60; minute += 5) {
+            view(minute, 1);
+            now.addAndGet(Duration.ofMinutes(5).toMillis());
+        }
+        long sketchBytes = 4L * 1024 * Integer.BYTES;
+        assertThat(trending.sizeInBytes()).isEqualTo((12 + 24) * sketchBytes);
+    }
+
+    @Test
+    void countsConcurrentViewsWithoutLosingAny() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> view(9L, 10_000)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(trending.top(TrendingProducts.Window.HOUR, 1)).containsExactly(new TrendingProducts.Trend(9L, 40_000));
+    }
+
+    @Test
+    void acceptsOnlyKnownWindows() {
+        assertThat(TrendingProducts.Window.of("1H")).isEqualTo(TrendingProducts.Window.HOUR);
+        assertThat(TrendingProducts.Window.of("24h")).isEqualTo(TrendingProducts.Window.DAY);
+        assertThat(TrendingProducts.Window.of("7d")).isNull();
+    }
+
+    private void view(long productId, int times) {
+        for (int i = 0; i < times; i++) {
+            trending.recordView(productId);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.hackerrank.sample.support;
+
+import com.hackerrank.sample.observability.SqlStatementCounter;
+import com.hackerrank.sample.observability.SqlStatementStats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test utility to guard against N+1 regressions: runs a block and asserts the
+ * number of SQL statements it executed stays within a budget.
+ *
+ * <pre>
+ * SqlStatementBudget.assertAtMost(4, () -> mockMvc.perform(get("/api/products/{id}", id)));
+ * </pre>
+ */
+public final class SqlStatementBudget {
+
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    private SqlStatementBudget() {
+    }
+
+    public static SqlStatementStats measure(Work work) throws Exception {
+        SqlStatementStats stats = SqlStatementCounter.start();
+        try {
+            work.run();
+        } finally {
+            SqlStatementCounter.stop(stats);
+        }
+        return stats;
+    }
+
+    public static SqlStatementStats assertAtMost(long maxStatements, Work work) throws Exception {
+        SqlStatementStats stats = measure(work);
+        assertThat(stats.getStatements()).as("SQL statements executed (%s)", stats).isLessThanOrEqualTo(maxStatements);
+        return stats;
+    }
+}